@@ -0,0 +1,82 @@
+package com.weatherapp.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and exits with status 1 when any benchmark is
+ * slower than its baseline score by more than the tolerance (a fraction, default 0.25). Throughput
+ * scores regress when they drop; all other modes when they rise. Benchmarks missing from either file
+ * are listed but do not fail the comparison.
+ *
+ * Usage: {@code BaselineComparator <result.json> <baseline.json> [tolerance]}
+ */
+public class BaselineComparator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <result.json> <baseline.json> [tolerance]");
+            System.exit(2);
+        }
+        File result = new File(args[0]);
+        File baseline = new File(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+        if (!baseline.exists()) {
+            System.out.printf("No baseline at %s; copy %s there to create one.%n", baseline, result);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(objectMapper.readTree(result));
+        Map<String, JsonNode> reference = index(objectMapper.readTree(baseline));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %8s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode run = entry.getValue();
+            JsonNode base = reference.get(entry.getKey());
+            double score = run.path("primaryMetric").path("score").asDouble();
+            String unit = run.path("primaryMetric").path("scoreUnit").asText();
+            if (base == null) {
+                System.out.printf("%-80s %14s %14.3f %8s  (new)%n", entry.getKey(), "-", score, "");
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double change = (score - baseScore) / baseScore;
+            boolean higherIsBetter = "thrpt".equals(run.path("mode").asText());
+            boolean regressed = higherIsBetter ? change < -tolerance : change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+7.1f%%  %s%s%n", entry.getKey(), baseScore, score, change * 100, unit,
+                regressed ? "  REGRESSION" : "");
+        }
+        for (String name : reference.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-80s  (not run)%n", name);
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%% against %s%n", regressions, tolerance * 100, baseline);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((key, value) -> name.append(':').append(key).append('=').append(value));
+            byName.put(name.toString(), run);
+        }
+        return byName;
+    }
+}
@@ -0,0 +1,78 @@
+package com.weatherapp.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a location's history, as entities and as the {@code WeatherSnapshotView}
+ * projection the history endpoint returns, with the ObjectMapper settings Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HistorySerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<WeatherSnapshot> entities;
+    private List<WeatherSnapshotView> views;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Location location = new Location("London", "GB", 51.5074, -0.1278);
+        location.setId(1L);
+
+        LocalDateTime start = LocalDateTime.now().minusMinutes(rows);
+        entities = new ArrayList<>(rows);
+        views = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            WeatherSnapshot snapshot = new WeatherSnapshot(location, 10 + (i % 150) / 10.0, 40 + i % 50, 1000.0 + i % 30);
+            snapshot.setId((long) i);
+            snapshot.setWindSpeed(3.5);
+            snapshot.setWindDirection(i % 360);
+            snapshot.setVisibility(10000);
+            snapshot.setWeatherMain("Clouds");
+            snapshot.setWeatherDescription("scattered clouds");
+            snapshot.setWeatherIcon("03d");
+            snapshot.setTimestamp(start.plusMinutes(i));
+            snapshot.setDataTimestamp(start.plusMinutes(i));
+            entities.add(snapshot);
+            views.add(WeatherSnapshotView.of(snapshot));
+        }
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] views() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+}
@@ -0,0 +1,61 @@
+package com.weatherapp.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.OpenWeatherResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson deserialization of weather API bodies as the Feign client decodes them: a current-weather
+ * response and a 40-entry 5-day forecast (src/test/resources/owm). Unknown properties are skipped, as
+ * with Spring Boot's ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PayloadDeserializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] current;
+    private byte[] forecast;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper().findAndRegisterModules().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        current = read("/owm/current.json");
+        forecast = read("/owm/forecast.json");
+    }
+
+    @Benchmark
+    public OpenWeatherResponse currentWeather() throws IOException {
+        return objectMapper.readValue(current, OpenWeatherResponse.class);
+    }
+
+    @Benchmark
+    public ForecastResponse forecast() throws IOException {
+        return objectMapper.readValue(forecast, ForecastResponse.class);
+    }
+
+    static byte[] read(String resource) throws IOException {
+        try (InputStream input = PayloadDeserializationBenchmark.class.getResourceAsStream(resource)) {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.weatherapp.benchmark.jmh;
+
+import com.weatherapp.WeatherSearchAppApplication;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.Location;
+import com.weatherapp.repository.LocationRepository;
+import com.weatherapp.repository.WeatherSnapshotRepository;
+import com.weatherapp.service.LocationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository queries behind the read endpoints, against the test profile's in-memory H2 seeded with
+ * 200 locations of 500 snapshots each. The application context is started once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositoryQueryBenchmark {
+
+    private static final int LOCATIONS = 200;
+    private static final int SNAPSHOTS_PER_LOCATION = 500;
+
+    private ConfigurableApplicationContext context;
+    private LocationRepository locationRepository;
+    private WeatherSnapshotRepository snapshotRepository;
+    private Long locationId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WeatherSearchAppApplication.class)
+            .run("--spring.profiles.active=test", "--spring.main.web-application-type=none", "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN", "--logging.level.com.weatherapp=WARN", "--logging.level.org.springframework.web=WARN");
+        locationRepository = context.getBean(LocationRepository.class);
+        snapshotRepository = context.getBean(WeatherSnapshotRepository.class);
+
+        List<Location> locations = new ArrayList<>(LOCATIONS);
+        for (int i = 0; i < LOCATIONS; i++) {
+            locations.add(new Location("City " + i, "GB", 50 + i / 100.0, -1 + i / 100.0));
+        }
+        locations = locationRepository.saveAll(locations);
+        locationId = locations.get(LOCATIONS / 2).getId();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDateTime start = LocalDateTime.now().minusHours(SNAPSHOTS_PER_LOCATION);
+        for (Location location : locations) {
+            List<Object[]> batch = new ArrayList<>(SNAPSHOTS_PER_LOCATION);
+            for (int i = 0; i < SNAPSHOTS_PER_LOCATION; i++) {
+                Timestamp timestamp = Timestamp.valueOf(start.plusHours(i));
+                batch.add(new Object[] {location.getId(), 10 + (i % 150) / 10.0, 40 + i % 50, 1000.0 + i % 30, 3.5,
+                    i % 360, 10000, "Clouds", "scattered clouds", "03d", timestamp, timestamp});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO weather_snapshots (location_id, temperature, humidity, pressure, wind_speed, " +
+                "wind_direction, visibility, weather_main, weather_description, weather_icon, timestamp, data_timestamp) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        }
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+            .executeWithoutResult(status -> locationRepository.backfillSyncState(LocationService.SYNC_INTERVAL.toSeconds()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<WeatherSnapshotView> latestView() {
+        return snapshotRepository.findLatestViewByLocationId(locationId);
+    }
+
+    @Benchmark
+    public List<WeatherSnapshotView> historyViews() {
+        return snapshotRepository.findViewsByLocationId(locationId);
+    }
+
+    @Benchmark
+    public List<Object[]> dashboard() {
+        return locationRepository.findAllWithLatestSnapshot();
+    }
+
+    @Benchmark
+    public List<Location> dueForSync() {
+        return locationRepository.findLocationsDueForSync(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,50 @@
+package com.weatherapp.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WeatherService#convertToWeatherSnapshot} on a parsed current-weather response, the per-location
+ * step of every sync. Lives in the service package because the conversion is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SnapshotConversionBenchmark {
+
+    private OpenWeatherResponse response;
+    private Location location;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (InputStream input = getClass().getResourceAsStream("/owm/current.json")) {
+            response = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).readValue(input, OpenWeatherResponse.class);
+        }
+        location = new Location("London", "GB", 51.5074, -0.1278);
+        location.setId(1L);
+    }
+
+    @Benchmark
+    public WeatherSnapshot convertToWeatherSnapshot() {
+        return WeatherService.convertToWeatherSnapshot(response, location);
+    }
+}
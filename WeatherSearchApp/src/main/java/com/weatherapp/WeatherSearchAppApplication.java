@@ -1,11 +1,14 @@
 package com.weatherapp;
 
+import com.weatherapp.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
 @EnableFeignClients
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class WeatherSearchAppApplication {
 
     public static void main(String[] args) {
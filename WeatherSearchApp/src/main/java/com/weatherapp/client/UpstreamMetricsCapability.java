@@ -0,0 +1,49 @@
+package com.weatherapp.client;
+
+import com.weatherapp.metrics.RequestTiming;
+import com.weatherapp.metrics.WeatherMetrics;
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+/**
+ * Times every request the Feign clients send, up to the response headers, tagged with the last path
+ * segment of the URL ({@code weather} or {@code forecast}) and the response status, and adds the time
+ * to the current request's upstream phase.
+ */
+@Component
+public class UpstreamMetricsCapability implements Capability {
+
+    private final WeatherMetrics metrics;
+
+    @Autowired
+    public UpstreamMetricsCapability(WeatherMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            long start = System.nanoTime();
+            String status = "IO_ERROR";
+            try {
+                Response response = client.execute(request, options);
+                status = String.valueOf(response.status());
+                return response;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                metrics.recordUpstream(endpoint(request.url()), status, elapsed);
+                RequestTiming.record(RequestTiming.Phase.UPSTREAM, elapsed);
+            }
+        };
+    }
+
+    static String endpoint(String url) {
+        String path = URI.create(url).getPath();
+        return path == null || path.isEmpty() ? "unknown" : path.substring(path.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.weatherapp.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces calls to the OpenWeatherMap API so concurrent callers together stay within the plan's per-minute quota.
+ */
+@Component
+public class UpstreamRateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlotNanos = System.nanoTime();
+
+    @Autowired
+    public UpstreamRateLimiter(@Value("${weather.api.rate-limit-per-minute:60}") int callsPerMinute) {
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, callsPerMinute);
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlotNanos);
+            nextSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.weatherapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}) responses for clients
+ * that ask for them in {@code Accept}. The mappers are copies of the application's JSON mapper, so modules
+ * and {@code spring.jackson.*} settings carry over, except that dates are written as numeric arrays: parsing
+ * ISO date strings would otherwise dominate decoding on the client. The converters sit ahead of Spring's
+ * own binary converters but behind JSON, which stays the default representation.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())
+            .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())
+            .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+}
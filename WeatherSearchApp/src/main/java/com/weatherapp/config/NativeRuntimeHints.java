@@ -0,0 +1,65 @@
+package com.weatherapp.config;
+
+import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.DashboardEntry;
+import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.ForecastSummary;
+import com.weatherapp.dto.GazetteerCity;
+import com.weatherapp.dto.LocationDetail;
+import com.weatherapp.dto.LocationImportResult;
+import com.weatherapp.dto.LocationImportRow;
+import com.weatherapp.dto.LocationImportSummary;
+import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.dto.SnapshotChangePage;
+import com.weatherapp.dto.WeatherSnapshotChange;
+import com.weatherapp.dto.WeatherSnapshotEvent;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.GeocodeCacheEntry;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.UserPreferences;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.metrics.QueryStatistics;
+import com.weatherapp.metrics.SlowRequestLog;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * What a native image cannot discover by itself: Jackson binding for every DTO and entity (Feign
+ * responses, SSE events and endpoint payloads are not controller signatures, so AOT does not see them),
+ * the Feign client's annotations and proxy, the JDBC proxies of {@code QueryTimingDataSource}, and the
+ * gazetteer file. Used by {@code mvn -Pnative native:compile}; on the JVM it has no effect.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final Class<?>[] BOUND_TYPES = {
+        DashboardEntry.class, ForecastResponse.class, ForecastSummary.class, GazetteerCity.class,
+        LocationDetail.class, LocationImportResult.class, LocationImportRow.class, LocationImportSummary.class,
+        OpenWeatherResponse.class, SnapshotChangePage.class, WeatherSnapshotChange.class, WeatherSnapshotEvent.class,
+        WeatherSnapshotView.class,
+        GeocodeCacheEntry.class, Location.class, UserPreferences.class, WeatherSnapshot.class,
+        QueryStatistics.QueryReport.class, SlowRequestLog.SlowRequest.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BOUND_TYPES);
+
+        hints.reflection().registerType(OpenWeatherMapClient.class,
+            MemberCategory.INTROSPECT_PUBLIC_METHODS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.proxies().registerJdkProxy(OpenWeatherMapClient.class);
+
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.proxies().registerJdkProxy(Statement.class);
+        hints.proxies().registerJdkProxy(PreparedStatement.class);
+        hints.proxies().registerJdkProxy(CallableStatement.class);
+
+        hints.resources().registerPattern("gazetteer/*");
+    }
+}
@@ -0,0 +1,35 @@
+package com.weatherapp.config;
+
+import com.weatherapp.metrics.QueryStatistics;
+import com.weatherapp.metrics.QueryTimingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source so every statement is timed into {@link QueryStatistics}. The
+ * statistics bean is looked up on first use, not when the post-processor is created, so the meter
+ * registry is not initialized early. Disabled with {@code weather.queries.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.queries.enabled", matchIfMissing = true)
+public class QueryStatisticsConfig {
+
+    @Bean
+    public static BeanPostProcessor queryTimingPostProcessor(ObjectProvider<QueryStatistics> queryStatistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                        && !(bean instanceof QueryTimingDataSource)) {
+                    return new QueryTimingDataSource(dataSource, queryStatistics::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
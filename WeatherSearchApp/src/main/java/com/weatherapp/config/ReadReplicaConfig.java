@@ -0,0 +1,73 @@
+package com.weatherapp.config;
+
+import com.weatherapp.datasource.ReadWriteRoutingDataSource;
+import com.weatherapp.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code weather.datasource.replica.url} set, the application data source routes read-only
+ * transactions (history, search, current weather, dashboard) to a separate read-only pool on the
+ * replica and all other work to the primary pool built from {@code spring.datasource.*}. Replica
+ * credentials default to the primary's. For a local stand-in, point the URL at the primary database
+ * and set {@code weather.datasource.replica.lag-query=SELECT 0}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+        + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${weather.datasource.replica.url}") String url,
+                                              @Value("${weather.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${weather.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${weather.datasource.replica.pool-size:10}") int poolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${weather.datasource.replica.lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+                                               @Value("${weather.datasource.replica.max-lag-seconds:30}") double maxLagSeconds,
+                                               MeterRegistry registry) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLagSeconds, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, lagMonitor::isUsable));
+    }
+}
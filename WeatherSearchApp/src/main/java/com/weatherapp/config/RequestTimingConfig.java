@@ -0,0 +1,65 @@
+package com.weatherapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.metrics.QueryStatistics;
+import com.weatherapp.metrics.RequestTiming;
+import com.weatherapp.metrics.RequestTimingFilter;
+import com.weatherapp.metrics.SlowRequestLog;
+import com.weatherapp.metrics.TimedJsonHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request phase timing behind the {@code Server-Timing} header and the slow-request log. Repository
+ * calls count as the database phase, Feign calls (see {@code UpstreamMetricsCapability}) as upstream and
+ * JSON writing as serialization; the application task executor carries the timing into its tasks.
+ * Disabled with {@code weather.timing.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.timing.enabled", matchIfMissing = true)
+public class RequestTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(SlowRequestLog slowRequestLog,
+                                                                     QueryStatistics queryStatistics) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+            new FilterRegistrationBean<>(new RequestTimingFilter(slowRequestLog, queryStatistics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+            @Value("${weather.timing.serialization-buffer-bytes:65536}") int bufferLimit) {
+        return new TimedJsonHttpMessageConverter(objectMapper, bufferLimit);
+    }
+
+    @Bean
+    public TaskDecorator requestTimingTaskDecorator() {
+        return RequestTiming::wrap;
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(
+                        invocation -> RequestTiming.record(RequestTiming.Phase.DB, invocation.getDuration(TimeUnit.NANOSECONDS))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.weatherapp.controller;
+
+import com.weatherapp.dto.DashboardEntry;
+import com.weatherapp.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    private final DashboardService dashboardService;
+    
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<DashboardEntry>> getDashboard() {
+        return ResponseEntity.ok(dashboardService.getDashboard());
+    }
+}
@@ -1,10 +1,12 @@
 package com.weatherapp.controller;
 
+import com.weatherapp.dto.GazetteerCity;
 import com.weatherapp.entity.Location;
 import com.weatherapp.service.LocationServiceInterface;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +19,13 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class LocationController {
     
+    private static final int MAX_NEAREST = 100;
+    private static final int MAX_WITHIN = 5000;
+    private static final int MAX_AUTOCOMPLETE = 50;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final LocationServiceInterface locationService;
 
     @Autowired
@@ -24,23 +33,57 @@ public class LocationController {
         this.locationService = locationService;
     }
     
+    /**
+     * Lists all locations, or one page ordered by id when {@code limit} or {@code after} is given; the
+     * {@code X-Next-Cursor} header carries the {@code after} value for the next page. The ETag is the
+     * collection version, checked before any database access.
+     */
     @GetMapping
-    public ResponseEntity<List<Location>> getAllLocations() {
-        List<Location> locations = locationService.getAllLocations();
-        return ResponseEntity.ok(locations);
+    public ResponseEntity<List<Location>> getAllLocations(@RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = locationService.getLocationsETag();
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+        if (after == null && limit == null) {
+            List<Location> locations = locationService.getAllLocations();
+            return ConditionalRequests.ok(etag).body(locations);
+        }
+        
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE || (after != null && after < 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Location> page = locationService.getLocationsPage(after, pageSize + 1);
+        ResponseEntity.BodyBuilder response = ConditionalRequests.ok(etag);
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(pageSize - 1).getId()));
+        }
+        return response.body(page);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Location> getLocationById(@PathVariable Long id) {
+    public ResponseEntity<Location> getLocationById(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = locationService.getLocationsETag();
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
         Optional<Location> location = locationService.getLocationById(id);
-        return location.map(ResponseEntity::ok)
+        return location.map(found -> ConditionalRequests.ok(etag).body(found))
                       .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/favorites")
-    public ResponseEntity<List<Location>> getFavoriteLocations() {
+    public ResponseEntity<List<Location>> getFavoriteLocations(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = locationService.getLocationsETag();
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
         List<Location> favorites = locationService.getFavoriteLocations();
-        return ResponseEntity.ok(favorites);
+        return ConditionalRequests.ok(etag).body(favorites);
     }
     
     @GetMapping("/search")
@@ -49,6 +92,42 @@ public class LocationController {
         return ResponseEntity.ok(results);
     }
     
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<GazetteerCity>> autocompleteCities(@RequestParam String q,
+                                                                  @RequestParam(required = false) String country,
+                                                                  @RequestParam(defaultValue = "10") int limit) {
+        if (q.isBlank() || limit < 1 || limit > MAX_AUTOCOMPLETE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<GazetteerCity> results = locationService.autocompleteCities(q, country, limit);
+        return ResponseEntity.ok(results);
+    }
+    
+    @GetMapping("/nearest")
+    public ResponseEntity<List<Location>> getNearestLocations(@RequestParam double lat,
+                                                              @RequestParam double lon,
+                                                              @RequestParam(defaultValue = "10") int k) {
+        if (!isValidCoordinate(lat, lon) || k < 1 || k > MAX_NEAREST) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Location> results = locationService.findNearestLocations(lat, lon, k);
+        return ResponseEntity.ok(results);
+    }
+    
+    @GetMapping("/within")
+    public ResponseEntity<List<Location>> getLocationsWithin(@RequestParam double minLat,
+                                                             @RequestParam double minLon,
+                                                             @RequestParam double maxLat,
+                                                             @RequestParam double maxLon,
+                                                             @RequestParam(defaultValue = "500") int limit) {
+        if (!isValidCoordinate(minLat, minLon) || !isValidCoordinate(maxLat, maxLon) || minLat > maxLat
+                || limit < 1 || limit > MAX_WITHIN) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Location> results = locationService.findLocationsWithin(minLat, minLon, maxLat, maxLon, limit);
+        return ResponseEntity.ok(results);
+    }
+    
     @PostMapping
     public ResponseEntity<Location> addLocation(@Valid @RequestBody LocationRequest request) {
         try {
@@ -99,6 +178,10 @@ public class LocationController {
         }
     }
     
+    private static boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+    
     public static class LocationRequest {
         @NotBlank(message = "City name is required")
         private String cityName;
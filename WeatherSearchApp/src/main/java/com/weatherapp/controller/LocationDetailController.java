@@ -0,0 +1,39 @@
+package com.weatherapp.controller;
+
+import com.weatherapp.dto.LocationDetail;
+import com.weatherapp.service.LocationDetailService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeoutException;
+
+@RestController
+@RequestMapping("/api/locations")
+@CrossOrigin(origins = "*")
+public class LocationDetailController {
+    
+    private final LocationDetailService detailService;
+    
+    @Autowired
+    public LocationDetailController(LocationDetailService detailService) {
+        this.detailService = detailService;
+    }
+    
+    /**
+     * Location, latest snapshot (null before the first sync) and forecast, loaded in parallel.
+     */
+    @GetMapping("/{locationId}/detail")
+    public ResponseEntity<LocationDetail> getLocationDetail(@PathVariable Long locationId) {
+        try {
+            return ResponseEntity.ok(detailService.getLocationDetail(locationId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
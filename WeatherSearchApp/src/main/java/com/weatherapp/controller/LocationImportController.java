@@ -0,0 +1,78 @@
+package com.weatherapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.dto.LocationImportRow;
+import com.weatherapp.dto.LocationImportSummary;
+import com.weatherapp.service.LocationImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/locations/import")
+@CrossOrigin(origins = "*")
+public class LocationImportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final LocationImportService importService;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor executor;
+
+    @Autowired
+    public LocationImportController(LocationImportService importService, ObjectMapper objectMapper,
+                                    @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> importJson(@RequestBody List<LocationImportRow> rows) {
+        return stream(rows);
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ResponseBodyEmitter> importCsv(@RequestBody String csv) throws IOException {
+        return stream(LocationImportService.parseCsv(new StringReader(csv)));
+    }
+
+    /**
+     * Streams one NDJSON line per row, then the summary. Geocoding is rate-limited, so the response is
+     * kept open for as long as the import can take rather than the default async request timeout.
+     */
+    private ResponseEntity<ResponseBodyEmitter> stream(List<LocationImportRow> rows) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(importService.estimateTimeout(rows).toMillis());
+        executor.execute(() -> {
+            try {
+                LocationImportSummary summary = importService.importLocations(rows, result -> writeLine(emitter, result));
+                writeLine(emitter, Map.of("summary", summary));
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(emitter);
+    }
+
+    private void writeLine(ResponseBodyEmitter emitter, Object value) {
+        try {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            objectMapper.writeValue(line, value);
+            line.write('\n');
+            emitter.send(line.toByteArray(), NDJSON);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write import result: " + e.getMessage(), e);
+        }
+    }
+}
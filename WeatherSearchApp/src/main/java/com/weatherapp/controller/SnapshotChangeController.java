@@ -0,0 +1,42 @@
+package com.weatherapp.controller;
+
+import com.weatherapp.dto.SnapshotChangePage;
+import com.weatherapp.service.SnapshotChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/weather")
+@CrossOrigin(origins = "*")
+public class SnapshotChangeController {
+    
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_WAIT_SECONDS = 30;
+    
+    private final SnapshotChangeFeed changeFeed;
+    
+    @Autowired
+    public SnapshotChangeController(SnapshotChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+    
+    /**
+     * New snapshots of all locations after the {@code after} cursor, oldest first, at most {@code limit}
+     * per page. With {@code wait} seconds the request is held until changes arrive, so a consumer can
+     * tail the feed by passing each page's {@code cursor} back.
+     */
+    @GetMapping("/changes")
+    public DeferredResult<SnapshotChangePage> getChanges(@RequestParam(defaultValue = "0") long after,
+                                                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                                         @RequestParam(defaultValue = "0") int wait) {
+        if (after < 0 || limit < 1 || limit > MAX_PAGE_SIZE || wait < 0 || wait > MAX_WAIT_SECONDS) {
+            throw new IllegalArgumentException("Expected after >= 0, limit between 1 and " + MAX_PAGE_SIZE
+                + " and wait between 0 and " + MAX_WAIT_SECONDS + " seconds");
+        }
+        return changeFeed.awaitChanges(after, limit, TimeUnit.SECONDS.toMillis(wait));
+    }
+}
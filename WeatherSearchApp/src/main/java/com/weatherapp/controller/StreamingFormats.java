@@ -0,0 +1,57 @@
+package com.weatherapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Content negotiation for endpoints that write their body through a Jackson generator themselves
+ * instead of returning it to a message converter. Picks from the application's Jackson converters (JSON,
+ * Smile, CBOR) in their registered order, so JSON stays the answer for browsers and {@code *}{@code /*}.
+ */
+final class StreamingFormats {
+
+    private StreamingFormats() {
+    }
+
+    record Format(ObjectMapper objectMapper, MediaType mediaType) {
+    }
+
+    /**
+     * Returns the mapper and concrete media type for the most preferred acceptable type, or empty when
+     * nothing acceptable can be produced.
+     */
+    static Optional<Format> negotiate(List<HttpMessageConverter<?>> converters, String accept) {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(accept == null || accept.isBlank() ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType acceptable : accepted) {
+            if (acceptable.getQualityValue() == 0) {
+                continue;
+            }
+            for (HttpMessageConverter<?> converter : converters) {
+                if (!(converter instanceof AbstractJackson2HttpMessageConverter jackson)) {
+                    continue;
+                }
+                for (MediaType supported : jackson.getSupportedMediaTypes()) {
+                    if (supported.isConcrete() && acceptable.includes(supported)) {
+                        return Optional.of(new Format(jackson.getObjectMapper(), supported));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -1,50 +1,152 @@
 package com.weatherapp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.WeatherSnapshotView;
 import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.service.UserPreferencesService;
+import com.weatherapp.service.WeatherEventBroadcaster;
 import com.weatherapp.service.WeatherService;
+import com.weatherapp.service.WeatherVersionMap;
+import com.weatherapp.units.UnitConverter;
+import com.weatherapp.units.UnitSystem;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/weather")
 @CrossOrigin(origins = "*")
 public class WeatherController {
     
+    private static final int MAX_BATCH_IDS = 1000;
+    private static final String UNITS_HEADER = "X-Units";
+    
     private final WeatherService weatherService;
+    private final WeatherEventBroadcaster eventBroadcaster;
+    private final HttpMessageConverters messageConverters;
+    private final UserPreferencesService preferencesService;
     
     @Autowired
-    public WeatherController(WeatherService weatherService) {
+    public WeatherController(WeatherService weatherService,
+                             WeatherEventBroadcaster eventBroadcaster,
+                             HttpMessageConverters messageConverters,
+                             UserPreferencesService preferencesService) {
         this.weatherService = weatherService;
+        this.eventBroadcaster = eventBroadcaster;
+        this.messageConverters = messageConverters;
+        this.preferencesService = preferencesService;
+    }
+    
+    /**
+     * Server-Sent Events stream of {@code snapshot} events for the given locations, sent as each sync
+     * commits, so clients no longer poll.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestParam List<Long> ids) {
+        Set<Long> locationIds = new LinkedHashSet<>(ids);
+        if (locationIds.isEmpty() || locationIds.size() > MAX_BATCH_IDS || locationIds.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventBroadcaster.subscribe(locationIds));
     }
     
+    /**
+     * Latest snapshot for each requested location as an object keyed by location id, loaded with one
+     * query and written field by field in the negotiated format (JSON, Smile or CBOR). Locations without
+     * weather data are omitted.
+     */
+    @GetMapping("/current")
+    public ResponseEntity<StreamingResponseBody> getCurrentWeatherBatch(@RequestParam List<Long> ids,
+                                                                        @RequestParam(required = false) String units,
+                                                                        @RequestParam(required = false) String user,
+                                                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Set<Long> locationIds = new LinkedHashSet<>(ids);
+        if (locationIds.isEmpty() || locationIds.size() > MAX_BATCH_IDS || locationIds.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        UnitSystem unitSystem = resolveUnits(units, user);
+        Optional<StreamingFormats.Format> format = StreamingFormats.negotiate(messageConverters.getConverters(), accept);
+        if (format.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        ObjectMapper objectMapper = format.get().objectMapper();
+        Map<Long, WeatherSnapshotView> latest = convert(weatherService.getCurrentWeather(locationIds), unitSystem);
+        
+        StreamingResponseBody body = output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartObject();
+                for (Map.Entry<Long, WeatherSnapshotView> entry : latest.entrySet()) {
+                    generator.writeFieldName(entry.getKey().toString());
+                    objectMapper.writeValue(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(format.get().mediaType()).header(UNITS_HEADER, unitSystem.key()).body(body);
+    }
+    
+    /**
+     * Latest snapshot in the requested units. Each unit system is its own representation with its own
+     * entity tag, derived from the snapshot's, so validators still need no database access.
+     */
     @GetMapping("/current/{locationId}")
-    public ResponseEntity<WeatherSnapshot> getCurrentWeather(@PathVariable Long locationId) {
+    public ResponseEntity<WeatherSnapshotView> getCurrentWeather(@PathVariable Long locationId,
+                                                             @RequestParam(required = false) String units,
+                                                             @RequestParam(required = false) String user,
+                                                             @RequestHeader HttpHeaders headers) {
+        UnitSystem unitSystem = resolveUnits(units, user);
+        WeatherVersionMap.Version known = weatherService.getCurrentWeatherVersion(locationId);
+        if (known != null && ConditionalRequests.notModified(headers, variantEtag(known.etag(), unitSystem), known.lastModified())) {
+            return ConditionalRequests.notModified(variantEtag(known.etag(), unitSystem));
+        }
         try {
-            WeatherSnapshot weather = weatherService.getCurrentWeather(locationId);
-            return ResponseEntity.ok(weather);
+            WeatherSnapshotView weather = weatherService.getCurrentWeatherView(locationId);
+            WeatherVersionMap.Version version = WeatherVersionMap.snapshotVersion(weather.id(), weather.timestamp());
+            return ConditionalRequests.ok(variantEtag(version.etag(), unitSystem))
+                .lastModified(version.lastModified())
+                .header(UNITS_HEADER, unitSystem.key())
+                .body(UnitConverter.convert(weather, unitSystem));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
     @GetMapping("/history/{locationId}")
-    public ResponseEntity<List<WeatherSnapshot>> getWeatherHistory(@PathVariable Long locationId) {
-        List<WeatherSnapshot> history = weatherService.getWeatherHistory(locationId);
-        return ResponseEntity.ok(history);
+    public ResponseEntity<List<WeatherSnapshotView>> getWeatherHistory(@PathVariable Long locationId,
+                                                                       @RequestParam(required = false) String units,
+                                                                       @RequestParam(required = false) String user) {
+        UnitSystem unitSystem = resolveUnits(units, user);
+        List<WeatherSnapshotView> history = weatherService.getWeatherHistoryViews(locationId, unitSystem);
+        return ResponseEntity.ok().header(UNITS_HEADER, unitSystem.key()).body(history);
     }
     
     @GetMapping("/history/{locationId}/since")
-    public ResponseEntity<List<WeatherSnapshot>> getWeatherHistorySince(
+    public ResponseEntity<List<WeatherSnapshotView>> getWeatherHistorySince(
             @PathVariable Long locationId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
-        List<WeatherSnapshot> history = weatherService.getWeatherHistorySince(locationId, since);
-        return ResponseEntity.ok(history);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String units,
+            @RequestParam(required = false) String user) {
+        UnitSystem unitSystem = resolveUnits(units, user);
+        List<WeatherSnapshotView> history = weatherService.getWeatherHistoryViewsSince(locationId, since);
+        return ResponseEntity.ok().header(UNITS_HEADER, unitSystem.key()).body(UnitConverter.convert(history, unitSystem));
     }
     
     @PostMapping("/sync/{locationId}")
@@ -66,10 +168,16 @@ public class WeatherController {
     }
     
     @GetMapping("/forecast/{locationId}")
-    public ResponseEntity<ForecastResponse> getForecast(@PathVariable Long locationId) {
+    public ResponseEntity<ForecastResponse> getForecast(@PathVariable Long locationId,
+                                                        @RequestHeader HttpHeaders headers) {
+        WeatherVersionMap.Version known = weatherService.getForecastVersion(locationId);
+        if (known != null && ConditionalRequests.notModified(headers, known.etag(), known.lastModified())) {
+            return ConditionalRequests.notModified(known.etag());
+        }
         try {
-            ForecastResponse forecast = weatherService.getForecast(locationId);
-            return ResponseEntity.ok(forecast);
+            WeatherService.VersionedForecast forecast = weatherService.getVersionedForecast(locationId);
+            WeatherVersionMap.Version version = forecast.version();
+            return ConditionalRequests.ok(version.etag()).lastModified(version.lastModified()).body(forecast.forecast());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         } catch (RuntimeException e) {
@@ -82,4 +190,35 @@ public class WeatherController {
         weatherService.cleanupOldData();
         return ResponseEntity.ok().build();
     }
+    
+    /**
+     * {@code units} names a unit system; otherwise {@code user} picks that user's saved units, read from
+     * the preferences cache. Without either, values stay metric as stored.
+     */
+    private UnitSystem resolveUnits(String units, String userId) {
+        if (units != null && !units.isBlank()) {
+            return UnitSystem.parse(units);
+        }
+        if (userId != null && !userId.isBlank()) {
+            return UnitSystem.of(preferencesService.getUserPreferences(userId));
+        }
+        return UnitSystem.METRIC;
+    }
+    
+    private static String variantEtag(String etag, UnitSystem units) {
+        return units.isStored() ? etag : etag.substring(0, etag.length() - 1) + "-" + units.key() + "\"";
+    }
+    
+    private static Map<Long, WeatherSnapshotView> convert(Map<Long, WeatherSnapshotView> latest, UnitSystem units) {
+        if (units.isStored()) {
+            return latest;
+        }
+        List<WeatherSnapshotView> converted = UnitConverter.convert(new ArrayList<>(latest.values()), units);
+        Map<Long, WeatherSnapshotView> byLocation = new LinkedHashMap<>();
+        int i = 0;
+        for (Long locationId : latest.keySet()) {
+            byLocation.put(locationId, converted.get(i++));
+        }
+        return byLocation;
+    }
 }
@@ -0,0 +1,72 @@
+package com.weatherapp.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica for its replication lag in seconds with {@code weather.datasource.replica.lag-query}.
+ * The replica takes reads only while the last check succeeded and the lag was at most
+ * {@code weather.datasource.replica.max-lag-seconds}, so it starts out unused until the first check.
+ * Publishes {@code weather.datasource.replica.lag} (NaN when unknown) and {@code weather.datasource.replica.usable}.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, double maxLagSeconds, MeterRegistry registry) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("weather.datasource.replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+            .description("Replication lag of the read replica")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge.builder("weather.datasource.replica.usable", this, monitor -> monitor.isUsable() ? 1 : 0)
+            .description("Whether read-only transactions go to the replica")
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${weather.datasource.replica.lag-check-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            usable = lagSeconds <= maxLagSeconds;
+            if (wasUsable && !usable) {
+                logger.warn("Replica is {} s behind (limit {} s); sending reads to the primary", lagSeconds, maxLagSeconds);
+            }
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                logger.warn("Replica lag check failed; sending reads to the primary: {}", e.getMessage());
+            }
+        }
+        if (!wasUsable && usable) {
+            logger.info("Replica is {} s behind; sending read-only transactions to it", lagSeconds);
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
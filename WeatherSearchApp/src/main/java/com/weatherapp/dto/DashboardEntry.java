@@ -0,0 +1,43 @@
+package com.weatherapp.dto;
+
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+
+public class DashboardEntry {
+
+    private Location location;
+    private WeatherSnapshot current;
+    private ForecastSummary forecast;
+
+    public DashboardEntry() {}
+
+    public DashboardEntry(Location location, WeatherSnapshot current, ForecastSummary forecast) {
+        this.location = location;
+        this.current = current;
+        this.forecast = forecast;
+    }
+
+    public Location getLocation() {
+        return location;
+    }
+
+    public void setLocation(Location location) {
+        this.location = location;
+    }
+
+    public WeatherSnapshot getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(WeatherSnapshot current) {
+        this.current = current;
+    }
+
+    public ForecastSummary getForecast() {
+        return forecast;
+    }
+
+    public void setForecast(ForecastSummary forecast) {
+        this.forecast = forecast;
+    }
+}
@@ -0,0 +1,60 @@
+package com.weatherapp.dto;
+
+public class GazetteerCity {
+
+    private String name;
+    private String countryCode;
+    private Double latitude;
+    private Double longitude;
+    private Integer population;
+
+    public GazetteerCity() {}
+
+    public GazetteerCity(String name, String countryCode, Double latitude, Double longitude, Integer population) {
+        this.name = name;
+        this.countryCode = countryCode;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.population = population;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Integer getPopulation() {
+        return population;
+    }
+
+    public void setPopulation(Integer population) {
+        this.population = population;
+    }
+}
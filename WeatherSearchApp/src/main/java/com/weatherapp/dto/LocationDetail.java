@@ -0,0 +1,42 @@
+package com.weatherapp.dto;
+
+import com.weatherapp.entity.Location;
+
+public class LocationDetail {
+
+    private Location location;
+    private WeatherSnapshotView current;
+    private ForecastResponse forecast;
+
+    public LocationDetail() {}
+
+    public LocationDetail(Location location, WeatherSnapshotView current, ForecastResponse forecast) {
+        this.location = location;
+        this.current = current;
+        this.forecast = forecast;
+    }
+
+    public Location getLocation() {
+        return location;
+    }
+
+    public void setLocation(Location location) {
+        this.location = location;
+    }
+
+    public WeatherSnapshotView getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(WeatherSnapshotView current) {
+        this.current = current;
+    }
+
+    public ForecastResponse getForecast() {
+        return forecast;
+    }
+
+    public void setForecast(ForecastResponse forecast) {
+        this.forecast = forecast;
+    }
+}
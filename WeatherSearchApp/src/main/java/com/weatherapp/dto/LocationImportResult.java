@@ -0,0 +1,37 @@
+package com.weatherapp.dto;
+
+public class LocationImportResult {
+
+    public enum Status { CREATED, DUPLICATE, EXISTS, FAILED }
+
+    private int row;
+    private String cityName;
+    private String countryCode;
+    private Status status;
+    private Long id;
+    private String message;
+
+    public LocationImportResult() {}
+
+    public LocationImportResult(int row, String cityName, String countryCode, Status status, Long id, String message) {
+        this.row = row;
+        this.cityName = cityName;
+        this.countryCode = countryCode;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+    public String getCityName() { return cityName; }
+    public void setCityName(String cityName) { this.cityName = cityName; }
+    public String getCountryCode() { return countryCode; }
+    public void setCountryCode(String countryCode) { this.countryCode = countryCode; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,36 @@
+package com.weatherapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LocationImportRow {
+
+    private String cityName;
+    private String countryCode;
+    private Double latitude;
+    private Double longitude;
+    private String displayName;
+    private Boolean isFavorite;
+
+    public LocationImportRow() {}
+
+    public LocationImportRow(String cityName, String countryCode, Double latitude, Double longitude) {
+        this.cityName = cityName;
+        this.countryCode = countryCode;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public String getCityName() { return cityName; }
+    public void setCityName(String cityName) { this.cityName = cityName; }
+    public String getCountryCode() { return countryCode; }
+    public void setCountryCode(String countryCode) { this.countryCode = countryCode; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+    public Boolean getIsFavorite() { return isFavorite; }
+    public void setIsFavorite(Boolean isFavorite) { this.isFavorite = isFavorite; }
+}
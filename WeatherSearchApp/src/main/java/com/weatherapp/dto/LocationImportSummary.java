@@ -0,0 +1,30 @@
+package com.weatherapp.dto;
+
+public class LocationImportSummary {
+
+    private int total;
+    private int created;
+    private int duplicates;
+    private int existing;
+    private int failed;
+    private int geocoded;
+    private long elapsedMs;
+    private double rowsPerSecond;
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+    public int getDuplicates() { return duplicates; }
+    public void setDuplicates(int duplicates) { this.duplicates = duplicates; }
+    public int getExisting() { return existing; }
+    public void setExisting(int existing) { this.existing = existing; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public int getGeocoded() { return geocoded; }
+    public void setGeocoded(int geocoded) { this.geocoded = geocoded; }
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+}
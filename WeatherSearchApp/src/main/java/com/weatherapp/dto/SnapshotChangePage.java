@@ -0,0 +1,15 @@
+package com.weatherapp.dto;
+
+import java.util.List;
+
+/**
+ * A page of the change feed. {@code cursor} is the {@code after} value for the next request, the last id
+ * in {@code changes} or the requested cursor when there were none; {@code hasMore} means the next page is
+ * already available.
+ */
+public record SnapshotChangePage(List<WeatherSnapshotChange> changes, long cursor, boolean hasMore) {
+
+    public static SnapshotChangePage empty(long cursor) {
+        return new SnapshotChangePage(List.of(), cursor, false);
+    }
+}
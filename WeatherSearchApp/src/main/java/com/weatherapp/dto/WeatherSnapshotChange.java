@@ -0,0 +1,24 @@
+package com.weatherapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the snapshot change feed: a snapshot's columns plus its location, selected straight into
+ * this record. {@code id} is the feed cursor.
+ */
+public record WeatherSnapshotChange(
+    Long id,
+    Long locationId,
+    Double temperature,
+    Integer humidity,
+    Double pressure,
+    Double windSpeed,
+    Integer windDirection,
+    Integer visibility,
+    Double uvIndex,
+    String weatherMain,
+    String weatherDescription,
+    String weatherIcon,
+    LocalDateTime timestamp,
+    LocalDateTime dataTimestamp) {
+}
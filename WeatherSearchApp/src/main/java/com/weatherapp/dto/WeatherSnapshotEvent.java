@@ -0,0 +1,32 @@
+package com.weatherapp.dto;
+
+import com.weatherapp.entity.WeatherSnapshot;
+
+public class WeatherSnapshotEvent {
+
+    private Long locationId;
+    private WeatherSnapshot snapshot;
+
+    public WeatherSnapshotEvent() {}
+
+    public WeatherSnapshotEvent(Long locationId, WeatherSnapshot snapshot) {
+        this.locationId = locationId;
+        this.snapshot = snapshot;
+    }
+
+    public Long getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(Long locationId) {
+        this.locationId = locationId;
+    }
+
+    public WeatherSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(WeatherSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+}
@@ -0,0 +1,38 @@
+package com.weatherapp.dto;
+
+import com.weatherapp.entity.WeatherSnapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of a weather snapshot's columns, selected straight into this record so read endpoints
+ * skip entity hydration. Serializes to the same JSON as the entity.
+ */
+public record WeatherSnapshotView(
+    Long id,
+    Double temperature,
+    Integer humidity,
+    Double pressure,
+    Double windSpeed,
+    Integer windDirection,
+    Integer visibility,
+    Double uvIndex,
+    String weatherMain,
+    String weatherDescription,
+    String weatherIcon,
+    LocalDateTime timestamp,
+    LocalDateTime dataTimestamp) {
+
+    public static WeatherSnapshotView of(WeatherSnapshot snapshot) {
+        return new WeatherSnapshotView(snapshot.getId(), snapshot.getTemperature(), snapshot.getHumidity(),
+            snapshot.getPressure(), snapshot.getWindSpeed(), snapshot.getWindDirection(), snapshot.getVisibility(),
+            snapshot.getUvIndex(), snapshot.getWeatherMain(), snapshot.getWeatherDescription(),
+            snapshot.getWeatherIcon(), snapshot.getTimestamp(), snapshot.getDataTimestamp());
+    }
+
+    public static WeatherSnapshotView of(WeatherSnapshotChange change) {
+        return new WeatherSnapshotView(change.id(), change.temperature(), change.humidity(), change.pressure(),
+            change.windSpeed(), change.windDirection(), change.visibility(), change.uvIndex(), change.weatherMain(),
+            change.weatherDescription(), change.weatherIcon(), change.timestamp(), change.dataTimestamp());
+    }
+}
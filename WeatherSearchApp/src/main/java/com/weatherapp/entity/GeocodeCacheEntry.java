@@ -0,0 +1,97 @@
+package com.weatherapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "geocode_cache")
+public class GeocodeCacheEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true, length = 300)
+    private String lookupKey;
+    
+    @Column(nullable = false)
+    private String cityName;
+    
+    @Column(nullable = false, length = 2)
+    private String countryCode;
+    
+    @Column(nullable = false)
+    private Double latitude;
+    
+    @Column(nullable = false)
+    private Double longitude;
+    
+    @Column(nullable = false)
+    private LocalDateTime resolvedAt = LocalDateTime.now();
+    
+    public GeocodeCacheEntry() {}
+    
+    public GeocodeCacheEntry(String lookupKey, String cityName, String countryCode, Double latitude, Double longitude) {
+        this.lookupKey = lookupKey;
+        this.cityName = cityName;
+        this.countryCode = countryCode;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getLookupKey() {
+        return lookupKey;
+    }
+    
+    public void setLookupKey(String lookupKey) {
+        this.lookupKey = lookupKey;
+    }
+    
+    public String getCityName() {
+        return cityName;
+    }
+    
+    public void setCityName(String cityName) {
+        this.cityName = cityName;
+    }
+    
+    public String getCountryCode() {
+        return countryCode;
+    }
+    
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+    
+    public Double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public Double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+    
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+}
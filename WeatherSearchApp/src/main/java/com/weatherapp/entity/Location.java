@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "locations")
+@Table(name = "locations", indexes = @Index(name = "idx_locations_next_sync_due_at", columnList = "nextSyncDueAt"))
 public class Location {
     
     @Id
@@ -43,6 +43,13 @@ public class Location {
     @Column
     private LocalDateTime lastSyncAt;
     
+    @Column
+    private LocalDateTime lastSnapshotAt;
+    
+    // New locations are due for their first sync immediately
+    @Column
+    private LocalDateTime nextSyncDueAt = createdAt;
+    
     @JsonIgnore
     @OneToMany(mappedBy = "location", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<WeatherSnapshot> weatherSnapshots;
@@ -129,6 +136,22 @@ public class Location {
         this.lastSyncAt = lastSyncAt;
     }
     
+    public LocalDateTime getLastSnapshotAt() {
+        return lastSnapshotAt;
+    }
+    
+    public void setLastSnapshotAt(LocalDateTime lastSnapshotAt) {
+        this.lastSnapshotAt = lastSnapshotAt;
+    }
+    
+    public LocalDateTime getNextSyncDueAt() {
+        return nextSyncDueAt;
+    }
+    
+    public void setNextSyncDueAt(LocalDateTime nextSyncDueAt) {
+        this.nextSyncDueAt = nextSyncDueAt;
+    }
+    
     public List<WeatherSnapshot> getWeatherSnapshots() {
         return weatherSnapshots;
     }
@@ -6,7 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "weather_snapshots")
+@Table(name = "weather_snapshots", indexes = @Index(name = "idx_weather_snapshots_location_timestamp", columnList = "location_id, timestamp"))
 public class WeatherSnapshot {
     
     @Id
@@ -0,0 +1,305 @@
+package com.weatherapp.gazetteer;
+
+import com.weatherapp.dto.GazetteerCity;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Offline city list held in sorted primitive arrays. Names live in two shared char pools (normalized
+ * search keys and display names) addressed by offset, coordinates are stored as integer microdegrees,
+ * and rows are sorted by key, then by population descending, so exact lookups and prefix autocomplete
+ * are binary searches with no per-city objects. A load swaps in a new immutable snapshot, so reads
+ * never lock.
+ */
+@Component
+public class CityGazetteer {
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public boolean isLoaded() {
+        return snapshot.size > 0;
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Reads tab-separated lines of {@code name, countryCode, latitude, longitude[, population]}.
+     * Blank lines and lines starting with {@code #} are skipped.
+     */
+    public void load(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<String> names = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        StringBuilder countries = new StringBuilder();
+        int[] latitudes = new int[1024];
+        int[] longitudes = new int[1024];
+        int[] populations = new int[1024];
+
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 4 || fields[0].isBlank() || fields[1].trim().length() != 2) {
+                throw new IllegalArgumentException("Invalid gazetteer line " + lineNumber);
+            }
+            int row = names.size();
+            if (row == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, row * 2);
+                longitudes = Arrays.copyOf(longitudes, row * 2);
+                populations = Arrays.copyOf(populations, row * 2);
+            }
+            try {
+                latitudes[row] = toMicrodegrees(Double.parseDouble(fields[2].trim()));
+                longitudes[row] = toMicrodegrees(Double.parseDouble(fields[3].trim()));
+                populations[row] = fields.length > 4 && !fields[4].isBlank() ? Integer.parseInt(fields[4].trim()) : 0;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid gazetteer line " + lineNumber, e);
+            }
+            String name = fields[0].trim();
+            names.add(name);
+            keys.add(normalize(name));
+            countries.append(fields[1].trim().toUpperCase(Locale.ROOT));
+        }
+
+        snapshot = Snapshot.build(names, keys, countries, latitudes, longitudes, populations);
+    }
+
+    /**
+     * Returns the most populous city whose name matches, ignoring case, accents and punctuation.
+     * A null country code matches any country.
+     */
+    public Optional<GazetteerCity> find(String name, String countryCode) {
+        Snapshot data = snapshot;
+        String key = normalize(name);
+        if (data.size == 0 || key.isEmpty()) {
+            return Optional.empty();
+        }
+        String country = countryCode != null ? countryCode.trim().toUpperCase(Locale.ROOT) : null;
+        for (int i = data.lowerBound(key, false); i < data.size && data.compareKey(i, key, false) == 0; i++) {
+            if (country == null || data.countryMatches(i, country)) {
+                return Optional.of(data.city(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns up to {@code limit} cities whose name starts with {@code prefix}, most populous first.
+     */
+    public List<GazetteerCity> autocomplete(String prefix, String countryCode, int limit) {
+        Snapshot data = snapshot;
+        String key = normalize(prefix);
+        if (data.size == 0 || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String country = countryCode != null && !countryCode.isBlank() ? countryCode.trim().toUpperCase(Locale.ROOT) : null;
+        int from = data.lowerBound(key, true);
+        int to = data.upperBound(key, from);
+
+        int[] top = new int[limit];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (country != null && !data.countryMatches(i, country)) {
+                continue;
+            }
+            int population = data.populations[i];
+            if (count == limit && population <= data.populations[top[count - 1]]) {
+                continue;
+            }
+            int position = count < limit ? count++ : count - 1;
+            while (position > 0 && data.populations[top[position - 1]] < population) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = i;
+        }
+
+        List<GazetteerCity> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(data.city(top[i]));
+        }
+        return results;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7f) {
+                text = Normalizer.normalize(text, Normalizer.Form.NFD);
+                break;
+            }
+        }
+
+        StringBuilder key = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && key.length() > 0) {
+                    key.append(' ');
+                }
+                pendingSpace = false;
+                key.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return key.toString();
+    }
+
+    private static int toMicrodegrees(double degrees) {
+        return (int) Math.round(degrees * 1_000_000);
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, new char[0], new int[1], new char[0], new int[1],
+            new char[0], new int[0], new int[0], new int[0]);
+
+        final int size;
+        final char[] keyPool;
+        final int[] keyOffsets;
+        final char[] namePool;
+        final int[] nameOffsets;
+        final char[] countries;
+        final int[] latitudes;
+        final int[] longitudes;
+        final int[] populations;
+
+        Snapshot(int size, char[] keyPool, int[] keyOffsets, char[] namePool, int[] nameOffsets,
+                 char[] countries, int[] latitudes, int[] longitudes, int[] populations) {
+            this.size = size;
+            this.keyPool = keyPool;
+            this.keyOffsets = keyOffsets;
+            this.namePool = namePool;
+            this.nameOffsets = nameOffsets;
+            this.countries = countries;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.populations = populations;
+        }
+
+        static Snapshot build(List<String> names, List<String> keys, CharSequence countryCodes,
+                              int[] latitudes, int[] longitudes, int[] populations) {
+            int size = names.size();
+            Integer[] order = new Integer[size];
+            int keyChars = 0;
+            int nameChars = 0;
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+                keyChars += keys.get(i).length();
+                nameChars += names.get(i).length();
+            }
+            Arrays.sort(order, Comparator.<Integer, String>comparing(keys::get)
+                .thenComparing(i -> populations[i], Comparator.reverseOrder()));
+
+            char[] keyPool = new char[keyChars];
+            int[] keyOffsets = new int[size + 1];
+            char[] namePool = new char[nameChars];
+            int[] nameOffsets = new int[size + 1];
+            char[] countries = new char[size * 2];
+            int[] sortedLatitudes = new int[size];
+            int[] sortedLongitudes = new int[size];
+            int[] sortedPopulations = new int[size];
+            for (int row = 0; row < size; row++) {
+                int source = order[row];
+                String key = keys.get(source);
+                key.getChars(0, key.length(), keyPool, keyOffsets[row]);
+                keyOffsets[row + 1] = keyOffsets[row] + key.length();
+                String name = names.get(source);
+                name.getChars(0, name.length(), namePool, nameOffsets[row]);
+                nameOffsets[row + 1] = nameOffsets[row] + name.length();
+                countries[row * 2] = countryCodes.charAt(source * 2);
+                countries[row * 2 + 1] = countryCodes.charAt(source * 2 + 1);
+                sortedLatitudes[row] = latitudes[source];
+                sortedLongitudes[row] = longitudes[source];
+                sortedPopulations[row] = populations[source];
+            }
+            return new Snapshot(size, keyPool, keyOffsets, namePool, nameOffsets, countries,
+                sortedLatitudes, sortedLongitudes, sortedPopulations);
+        }
+
+        /**
+         * Compares row {@code i}'s key with {@code key}; when {@code prefixOnly} is set the row key is
+         * first truncated to the length of {@code key}.
+         */
+        int compareKey(int i, String key, boolean prefixOnly) {
+            int start = keyOffsets[i];
+            int length = keyOffsets[i + 1] - start;
+            if (prefixOnly) {
+                length = Math.min(length, key.length());
+            }
+            int common = Math.min(length, key.length());
+            for (int j = 0; j < common; j++) {
+                int diff = keyPool[start + j] - key.charAt(j);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return length - key.length();
+        }
+
+        int lowerBound(String key, boolean prefixOnly) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareKey(mid, key, prefixOnly) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int upperBound(String prefix, int from) {
+            int low = from;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareKey(mid, prefix, true) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        boolean countryMatches(int i, String country) {
+            return country.length() == 2 && countries[i * 2] == country.charAt(0) && countries[i * 2 + 1] == country.charAt(1);
+        }
+
+        GazetteerCity city(int i) {
+            return new GazetteerCity(
+                new String(namePool, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i]),
+                new String(countries, i * 2, 2),
+                latitudes[i] / 1e6,
+                longitudes[i] / 1e6,
+                populations[i]);
+        }
+    }
+}
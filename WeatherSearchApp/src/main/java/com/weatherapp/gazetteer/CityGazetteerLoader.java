@@ -0,0 +1,58 @@
+package com.weatherapp.gazetteer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+@Component
+public class CityGazetteerLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityGazetteerLoader.class);
+
+    private final CityGazetteer gazetteer;
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    @Autowired
+    public CityGazetteerLoader(CityGazetteer gazetteer,
+                               ResourceLoader resourceLoader,
+                               @Value("${weather.gazetteer.resource:classpath:gazetteer/cities.tsv}") String location) {
+        this.gazetteer = gazetteer;
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGazetteer() {
+        if (location == null || location.isBlank()) {
+            logger.info("City gazetteer disabled");
+            return;
+        }
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            logger.warn("City gazetteer resource {} not found; city lookups will use the weather API", location);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try (InputStream raw = resource.getInputStream();
+             InputStream in = location.endsWith(".gz") ? new GZIPInputStream(raw) : raw) {
+            gazetteer.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            logger.info("Loaded {} gazetteer cities from {} in {} ms",
+                gazetteer.size(), location, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Failed to load city gazetteer from {}: {}", location, e.getMessage());
+        }
+    }
+}
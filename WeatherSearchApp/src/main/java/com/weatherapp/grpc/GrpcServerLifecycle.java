@@ -0,0 +1,84 @@
+package com.weatherapp.grpc;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC server on its own port next to the web server. A negative port leaves it off, which
+ * is how tests run; they talk to the service over the in-process transport instead.
+ */
+@Component
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final WeatherFeedGrpcService weatherFeed;
+    private final int port;
+    private final long shutdownGraceSeconds;
+    private volatile Server server;
+
+    @Autowired
+    public GrpcServerLifecycle(WeatherFeedGrpcService weatherFeed,
+                               @Value("${weather.grpc.port:9090}") int port,
+                               @Value("${weather.grpc.shutdown-grace-seconds:5}") long shutdownGraceSeconds) {
+        this.weatherFeed = weatherFeed;
+        this.port = port;
+        this.shutdownGraceSeconds = shutdownGraceSeconds;
+    }
+
+    @Override
+    public void start() {
+        if (port < 0) {
+            logger.info("gRPC server disabled");
+            return;
+        }
+        try {
+            server = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                .addService(weatherFeed)
+                .build()
+                .start();
+            logger.info("gRPC server listening on port {}", server.getPort());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start gRPC server: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        server = null;
+        // Subscription streams never finish by themselves, so cancel whatever is left after the grace period
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        Server running = server;
+        return running != null ? running.getPort() : -1;
+    }
+}
@@ -0,0 +1,210 @@
+package com.weatherapp.grpc;
+
+import com.weatherapp.dto.DashboardEntry;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.grpc.proto.CurrentWeatherRequest;
+import com.weatherapp.grpc.proto.CurrentWeatherResponse;
+import com.weatherapp.grpc.proto.HistoryRequest;
+import com.weatherapp.grpc.proto.LocationWeather;
+import com.weatherapp.grpc.proto.Snapshot;
+import com.weatherapp.grpc.proto.SubscribeRequest;
+import com.weatherapp.grpc.proto.WeatherFeedGrpc;
+import com.weatherapp.service.DashboardService;
+import com.weatherapp.service.WeatherEventBroadcaster;
+import com.weatherapp.service.WeatherService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * gRPC counterpart of the weather read endpoints for internal services. Current weather reuses the
+ * dashboard's single joined query, history is read page by page as the client's flow control allows,
+ * and subscriptions hang off the same broadcaster that feeds Server-Sent Events.
+ */
+@Component
+public class WeatherFeedGrpcService extends WeatherFeedGrpc.WeatherFeedImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherFeedGrpcService.class);
+
+    private static final int MAX_BATCH_IDS = 1000;
+    private static final int HISTORY_PAGE_SIZE = 500;
+
+    private final DashboardService dashboardService;
+    private final WeatherService weatherService;
+    private final WeatherEventBroadcaster eventBroadcaster;
+
+    @Autowired
+    public WeatherFeedGrpcService(DashboardService dashboardService,
+                                  WeatherService weatherService,
+                                  WeatherEventBroadcaster eventBroadcaster) {
+        this.dashboardService = dashboardService;
+        this.weatherService = weatherService;
+        this.eventBroadcaster = eventBroadcaster;
+    }
+
+    @Override
+    public void getCurrentWeather(CurrentWeatherRequest request, StreamObserver<CurrentWeatherResponse> responseObserver) {
+        Set<Long> locationIds = new LinkedHashSet<>(request.getLocationIdsList());
+        if (locationIds.size() > MAX_BATCH_IDS) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("At most " + MAX_BATCH_IDS + " location ids per request").asRuntimeException());
+            return;
+        }
+        try {
+            List<DashboardEntry> entries = locationIds.isEmpty()
+                ? dashboardService.getDashboard()
+                : dashboardService.getDashboard(locationIds);
+            CurrentWeatherResponse.Builder response = CurrentWeatherResponse.newBuilder();
+            for (DashboardEntry entry : entries) {
+                LocationWeather.Builder item = LocationWeather.newBuilder()
+                    .setLocation(WeatherProtoMapper.toLocation(entry.getLocation()));
+                if (entry.getCurrent() != null) {
+                    item.setCurrent(WeatherProtoMapper.toSnapshot(entry.getLocation().getId(), entry.getCurrent()));
+                }
+                response.addEntries(item);
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(failure("Failed to load current weather", e));
+        }
+    }
+
+    /**
+     * Writes rows only while the transport can take them and resumes from the call's onReady callback.
+     * Each page is a short keyset-paged read, so a slow reader never holds a database cursor or
+     * transaction open and at most one page is buffered.
+     */
+    @Override
+    public void streamHistory(HistoryRequest request, StreamObserver<Snapshot> responseObserver) {
+        ServerCallStreamObserver<Snapshot> call = (ServerCallStreamObserver<Snapshot>) responseObserver;
+        LocalDateTime since = request.hasSince() ? WeatherProtoMapper.toLocalDateTime(request.getSince()) : null;
+        HistoryStream stream = new HistoryStream(call, request.getLocationId(), since);
+        call.setOnCancelHandler(stream::cancel);
+        call.setOnReadyHandler(stream::drain);
+        stream.drain();
+    }
+
+    /**
+     * While the client is not ready, only the latest snapshot of each location is kept and it is sent
+     * once the client catches up, so a slow subscriber costs at most one pending snapshot per location.
+     */
+    @Override
+    public void subscribe(SubscribeRequest request, StreamObserver<Snapshot> responseObserver) {
+        Set<Long> locationIds = new LinkedHashSet<>(request.getLocationIdsList());
+        if (locationIds.isEmpty() || locationIds.size() > MAX_BATCH_IDS) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription("Between 1 and " + MAX_BATCH_IDS + " location ids are required").asRuntimeException());
+            return;
+        }
+        ServerCallStreamObserver<Snapshot> call = (ServerCallStreamObserver<Snapshot>) responseObserver;
+        Subscription subscription = new Subscription(call);
+        Runnable unsubscribe = eventBroadcaster.addListener(locationIds, (locationId, snapshot) ->
+            subscription.offer(locationId, WeatherProtoMapper.toSnapshot(locationId, snapshot)));
+        call.setOnCancelHandler(unsubscribe::run);
+        call.setOnReadyHandler(subscription::flush);
+    }
+
+    private static StatusRuntimeException failure(String message, Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        logger.error("{}: {}", message, e.getMessage());
+        return Status.INTERNAL.withDescription(message + ": " + e.getMessage()).withCause(e).asRuntimeException();
+    }
+
+    /**
+     * State of one history stream. The call's callbacks run one at a time, so no locking is needed.
+     */
+    private final class HistoryStream {
+
+        private final ServerCallStreamObserver<Snapshot> call;
+        private final Long locationId;
+        private final LocalDateTime since;
+        private final Deque<WeatherSnapshotView> page = new ArrayDeque<>();
+        private WeatherSnapshotView last;
+        private boolean lastPage;
+        private boolean done;
+
+        HistoryStream(ServerCallStreamObserver<Snapshot> call, Long locationId, LocalDateTime since) {
+            this.call = call;
+            this.locationId = locationId;
+            this.since = since;
+        }
+
+        void drain() {
+            try {
+                while (!done && call.isReady()) {
+                    if (page.isEmpty()) {
+                        if (lastPage) {
+                            done = true;
+                            call.onCompleted();
+                            return;
+                        }
+                        List<WeatherSnapshotView> next = weatherService.getHistoryViewPage(locationId, since, last, HISTORY_PAGE_SIZE);
+                        lastPage = next.size() < HISTORY_PAGE_SIZE;
+                        if (next.isEmpty()) {
+                            continue;
+                        }
+                        page.addAll(next);
+                        last = next.get(next.size() - 1);
+                    }
+                    call.onNext(WeatherProtoMapper.toSnapshot(locationId, page.poll()));
+                }
+            } catch (Exception e) {
+                done = true;
+                call.onError(failure("Failed to stream weather history", e));
+            }
+        }
+
+        void cancel() {
+            done = true;
+            page.clear();
+        }
+    }
+
+    /**
+     * Snapshots not yet sent to one subscriber, at most one per location. Offered on the broadcaster's
+     * dispatcher thread and flushed from the call's onReady callback.
+     */
+    private static final class Subscription {
+
+        private final ServerCallStreamObserver<Snapshot> call;
+        private final Map<Long, Snapshot> pending = new LinkedHashMap<>();
+
+        Subscription(ServerCallStreamObserver<Snapshot> call) {
+            this.call = call;
+        }
+
+        synchronized void offer(Long locationId, Snapshot snapshot) {
+            if (!call.isCancelled()) {
+                pending.put(locationId, snapshot);
+                flush();
+            }
+        }
+
+        synchronized void flush() {
+            Iterator<Snapshot> snapshots = pending.values().iterator();
+            while (snapshots.hasNext() && call.isReady() && !call.isCancelled()) {
+                Snapshot snapshot = snapshots.next();
+                snapshots.remove();
+                call.onNext(snapshot);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.weatherapp.grpc;
+
+import com.google.protobuf.Timestamp;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.grpc.proto.Snapshot;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Converts entities and projections to protobuf messages. Null columns are left unset rather than
+ * sent as zero, and local timestamps are read in the server's zone, as elsewhere in the app.
+ */
+final class WeatherProtoMapper {
+
+    private WeatherProtoMapper() {}
+
+    static com.weatherapp.grpc.proto.Location toLocation(Location location) {
+        com.weatherapp.grpc.proto.Location.Builder message = com.weatherapp.grpc.proto.Location.newBuilder()
+            .setId(location.getId())
+            .setFavorite(Boolean.TRUE.equals(location.getIsFavorite()));
+        if (location.getCityName() != null) {
+            message.setCityName(location.getCityName());
+        }
+        if (location.getCountryCode() != null) {
+            message.setCountryCode(location.getCountryCode());
+        }
+        if (location.getLatitude() != null) {
+            message.setLatitude(location.getLatitude());
+        }
+        if (location.getLongitude() != null) {
+            message.setLongitude(location.getLongitude());
+        }
+        if (location.getDisplayName() != null) {
+            message.setDisplayName(location.getDisplayName());
+        }
+        return message.build();
+    }
+
+    static Snapshot toSnapshot(Long locationId, WeatherSnapshot snapshot) {
+        Snapshot.Builder message = Snapshot.newBuilder().setId(snapshot.getId()).setLocationId(locationId);
+        if (snapshot.getTemperature() != null) {
+            message.setTemperature(snapshot.getTemperature());
+        }
+        if (snapshot.getHumidity() != null) {
+            message.setHumidity(snapshot.getHumidity());
+        }
+        if (snapshot.getPressure() != null) {
+            message.setPressure(snapshot.getPressure());
+        }
+        if (snapshot.getWindSpeed() != null) {
+            message.setWindSpeed(snapshot.getWindSpeed());
+        }
+        if (snapshot.getWindDirection() != null) {
+            message.setWindDirection(snapshot.getWindDirection());
+        }
+        if (snapshot.getVisibility() != null) {
+            message.setVisibility(snapshot.getVisibility());
+        }
+        if (snapshot.getUvIndex() != null) {
+            message.setUvIndex(snapshot.getUvIndex());
+        }
+        setText(message, snapshot.getWeatherMain(), snapshot.getWeatherDescription(), snapshot.getWeatherIcon());
+        setTimes(message, snapshot.getTimestamp(), snapshot.getDataTimestamp());
+        return message.build();
+    }
+
+    static Snapshot toSnapshot(Long locationId, WeatherSnapshotView view) {
+        Snapshot.Builder message = Snapshot.newBuilder().setId(view.id()).setLocationId(locationId);
+        if (view.temperature() != null) {
+            message.setTemperature(view.temperature());
+        }
+        if (view.humidity() != null) {
+            message.setHumidity(view.humidity());
+        }
+        if (view.pressure() != null) {
+            message.setPressure(view.pressure());
+        }
+        if (view.windSpeed() != null) {
+            message.setWindSpeed(view.windSpeed());
+        }
+        if (view.windDirection() != null) {
+            message.setWindDirection(view.windDirection());
+        }
+        if (view.visibility() != null) {
+            message.setVisibility(view.visibility());
+        }
+        if (view.uvIndex() != null) {
+            message.setUvIndex(view.uvIndex());
+        }
+        setText(message, view.weatherMain(), view.weatherDescription(), view.weatherIcon());
+        setTimes(message, view.timestamp(), view.dataTimestamp());
+        return message.build();
+    }
+
+    static Timestamp toTimestamp(LocalDateTime time) {
+        Instant instant = time.atZone(ZoneId.systemDefault()).toInstant();
+        return Timestamp.newBuilder().setSeconds(instant.getEpochSecond()).setNanos(instant.getNano()).build();
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()),
+            ZoneId.systemDefault());
+    }
+
+    private static void setText(Snapshot.Builder message, String main, String description, String icon) {
+        if (main != null) {
+            message.setWeatherMain(main);
+        }
+        if (description != null) {
+            message.setWeatherDescription(description);
+        }
+        if (icon != null) {
+            message.setWeatherIcon(icon);
+        }
+    }
+
+    private static void setTimes(Snapshot.Builder message, LocalDateTime timestamp, LocalDateTime dataTimestamp) {
+        if (timestamp != null) {
+            message.setTimestamp(toTimestamp(timestamp));
+        }
+        if (dataTimestamp != null) {
+            message.setDataTimestamp(toTimestamp(dataTimestamp));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.weatherapp.index;
+
+public interface LocationIndexEntry {
+
+    Long getId();
+
+    String getCityName();
+
+    String getDisplayName();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
@@ -0,0 +1,42 @@
+package com.weatherapp.index;
+
+import com.weatherapp.repository.LocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+public class LocationIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationIndexInitializer.class);
+
+    private final LocationRepository locationRepository;
+    private final LocationSearchIndex searchIndex;
+    private final LocationSpatialIndex spatialIndex;
+
+    @Autowired
+    public LocationIndexInitializer(LocationRepository locationRepository,
+                                    LocationSearchIndex searchIndex,
+                                    LocationSpatialIndex spatialIndex) {
+        this.locationRepository = locationRepository;
+        this.searchIndex = searchIndex;
+        this.spatialIndex = spatialIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndexes() {
+        long start = System.nanoTime();
+        List<LocationIndexEntry> entries = locationRepository.findAllIndexEntries();
+        searchIndex.rebuild(entries);
+        spatialIndex.rebuild(entries);
+        logger.info("Built location search and spatial indexes with {} entries in {} ms",
+            entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,220 @@
+package com.weatherapp.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over location city and display names.
+ * Matches the semantics of {@code LocationRepository.findBySearchTerm} (case-sensitive substring)
+ * but answers from sorted posting lists instead of a full table scan.
+ */
+@Component
+public class LocationSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final Map<Long, String> documents = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void rebuild(Iterable<LocationIndexEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            for (LocationIndexEntry entry : entries) {
+                addDocument(entry.getId(), entry.getCityName(), entry.getDisplayName());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Long id, String cityName, String displayName) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            addDocument(id, cityName, displayName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all indexed locations whose city or display name contains the term, in id order.
+     */
+    public List<Long> search(String term) {
+        lock.readLock().lock();
+        try {
+            if (term.length() < GRAM_LENGTH) {
+                return scan(term);
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+            for (String gram : grams(term)) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            PostingList smallest = lists.get(0);
+            int[] cursors = new int[lists.size()];
+            List<Long> results = new ArrayList<>();
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                if (containsInAll(lists, cursors, id) && documents.get(id).contains(term)) {
+                    results.add(id);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> scan(String term) {
+        List<Long> results = new ArrayList<>();
+        for (Map.Entry<Long, String> document : documents.entrySet()) {
+            if (document.getValue().contains(term)) {
+                results.add(document.getKey());
+            }
+        }
+        results.sort(null);
+        return results;
+    }
+
+    private boolean containsInAll(List<PostingList> lists, int[] cursors, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            PostingList list = lists.get(i);
+            int position = list.seek(cursors[i], id);
+            cursors[i] = position;
+            if (position == list.size || list.ids[position] != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addDocument(Long id, String cityName, String displayName) {
+        String text = (cityName != null ? cityName : "") + FIELD_SEPARATOR + (displayName != null ? displayName : "");
+        documents.put(id, text);
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).add(id);
+        }
+    }
+
+    private void removeDocument(Long id) {
+        String text = documents.remove(id);
+        if (text == null) {
+            return;
+        }
+        for (String gram : grams(text)) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Sorted, growable array of location ids. Identity ids arrive in increasing order,
+     * so adds are almost always appends.
+     */
+    static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Returns the first position at or after {@code from} whose id is not less than {@code id},
+         * galloping forward so a sequence of increasing seeks costs time linear in the smaller list.
+         */
+        int seek(int from, long id) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(ids, low, Math.min(high, size), id);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private void insertAt(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.weatherapp.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index over location coordinates. The globe is split into fixed-size
+ * latitude/longitude cells; each non-empty cell keeps its points in parallel primitive arrays.
+ * Bounding-box queries visit only the overlapping cells and k-nearest queries expand ring by ring
+ * until no unvisited cell can beat the current k-th distance. Once a ring would cover more cells than
+ * are occupied (a query far from all points), the remaining occupied cells are visited nearest first.
+ */
+@Component
+public class LocationSpatialIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double CELL_DEGREES = 0.5;
+    private static final int LAT_CELLS = (int) Math.ceil(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.ceil(360 / CELL_DEGREES);
+
+    private final Map<Integer, Cell> cells = new HashMap<>();
+    private final Map<Long, Integer> cellById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void rebuild(Iterable<LocationIndexEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellById.clear();
+            for (LocationIndexEntry entry : entries) {
+                if (entry.getLatitude() != null && entry.getLongitude() != null) {
+                    addPoint(entry.getId(), entry.getLatitude(), entry.getLongitude());
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(Long id, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            removePoint(id);
+            addPoint(id, latitude, longitude);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removePoint(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ids inside the box, in no particular order.
+     * A box whose {@code minLongitude} is greater than its {@code maxLongitude} crosses the antimeridian.
+     */
+    public List<Long> withinBoundingBox(double minLatitude, double minLongitude,
+                                        double maxLatitude, double maxLongitude, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> results = new ArrayList<>();
+            if (minLongitude <= maxLongitude) {
+                collectWithin(minLatitude, minLongitude, maxLatitude, maxLongitude, limit, results);
+            } else {
+                collectWithin(minLatitude, minLongitude, maxLatitude, 180, limit, results);
+                collectWithin(minLatitude, -180, maxLatitude, maxLongitude, limit, results);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the {@code k} locations closest to the point by great-circle distance, nearest first.
+     */
+    public List<Neighbor> nearest(double latitude, double longitude, int k) {
+        lock.readLock().lock();
+        try {
+            if (k <= 0 || cells.isEmpty()) {
+                return List.of();
+            }
+
+            PriorityQueue<Neighbor> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b.distanceKm(), a.distanceKm()));
+            int centerLat = latIndex(latitude);
+            int centerLon = lonIndex(longitude);
+            for (int ring = 0; ; ring++) {
+                if (ringCellCount(ring) > cells.size() || 2 * ring + 1 > LON_CELLS) {
+                    visitByDistance(centerLat, centerLon, ring, latitude, longitude, k, best);
+                    break;
+                }
+
+                visitRing(centerLat, centerLon, ring, latitude, longitude, k, best);
+                if (best.size() == k && lowerBoundBeyondRing(latitude, ring, best.peek().distanceKm()) >= best.peek().distanceKm()) {
+                    break;
+                }
+            }
+
+            List<Neighbor> results = new ArrayList<>(best);
+            results.sort((a, b) -> Double.compare(a.distanceKm(), b.distanceKm()));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Neighbor(long id, double distanceKm) {
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void collectWithin(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                               int limit, List<Long> results) {
+        int fromLat = latIndex(minLatitude);
+        int toLat = latIndex(maxLatitude);
+        int fromLon = lonIndex(minLongitude);
+        int toLon = lonIndex(maxLongitude);
+        long coveredCells = (long) (toLat - fromLat + 1) * (toLon - fromLon + 1);
+
+        if (coveredCells > cells.size()) {
+            for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+                int latIdx = entry.getKey() / LON_CELLS;
+                int lonIdx = entry.getKey() % LON_CELLS;
+                if (latIdx >= fromLat && latIdx <= toLat && lonIdx >= fromLon && lonIdx <= toLon
+                        && !collectCell(entry.getValue(), minLatitude, minLongitude, maxLatitude, maxLongitude, limit, results)) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        for (int latIdx = fromLat; latIdx <= toLat; latIdx++) {
+            for (int lonIdx = fromLon; lonIdx <= toLon; lonIdx++) {
+                Cell cell = cells.get(latIdx * LON_CELLS + lonIdx);
+                if (cell != null && !collectCell(cell, minLatitude, minLongitude, maxLatitude, maxLongitude, limit, results)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean collectCell(Cell cell, double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                int limit, List<Long> results) {
+        for (int i = 0; i < cell.size; i++) {
+            double lat = cell.latitudes[i];
+            double lon = cell.longitudes[i];
+            if (lat >= minLatitude && lat <= maxLatitude && lon >= minLongitude && lon <= maxLongitude) {
+                if (results.size() >= limit) {
+                    return false;
+                }
+                results.add(cell.ids[i]);
+            }
+        }
+        return true;
+    }
+
+    private void visitRing(int centerLat, int centerLon, int ring, double latitude, double longitude,
+                           int k, PriorityQueue<Neighbor> best) {
+        for (int dLat = -ring; dLat <= ring; dLat++) {
+            int latIdx = centerLat + dLat;
+            if (latIdx < 0 || latIdx >= LAT_CELLS) {
+                continue;
+            }
+            int step = Math.abs(dLat) == ring ? 1 : 2 * ring;
+            for (int dLon = -ring; dLon <= ring; dLon += step) {
+                Cell cell = cells.get(latIdx * LON_CELLS + Math.floorMod(centerLon + dLon, LON_CELLS));
+                if (cell != null) {
+                    offerAll(cell, latitude, longitude, k, best);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits the occupied cells outside the first {@code ring} rings in order of their distance from the
+     * point, until the next one cannot beat the k-th distance.
+     */
+    private void visitByDistance(int centerLat, int centerLon, int ring, double latitude, double longitude,
+                                 int k, PriorityQueue<Neighbor> best) {
+        List<CellDistance> remaining = new ArrayList<>();
+        for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+            int latIdx = entry.getKey() / LON_CELLS;
+            int lonIdx = entry.getKey() % LON_CELLS;
+            int lonOffset = Math.abs(lonIdx - centerLon);
+            if (Math.max(Math.abs(latIdx - centerLat), Math.min(lonOffset, LON_CELLS - lonOffset)) >= ring) {
+                remaining.add(new CellDistance(entry.getValue(), cellDistanceKm(latitude, longitude, latIdx, lonIdx)));
+            }
+        }
+        remaining.sort(Comparator.comparingDouble(CellDistance::distanceKm));
+        for (CellDistance next : remaining) {
+            if (best.size() == k && next.distanceKm() >= best.peek().distanceKm()) {
+                break;
+            }
+            offerAll(next.cell(), latitude, longitude, k, best);
+        }
+    }
+
+    /**
+     * Distance from the point to the nearest point of the cell. Outside the cell's longitudes that point
+     * lies on its nearer meridian edge, at one of the edge's ends or where the great circle through the
+     * point meets the meridian at a right angle.
+     */
+    private static double cellDistanceKm(double latitude, double longitude, int latIdx, int lonIdx) {
+        double minLatitude = latIdx * CELL_DEGREES - 90;
+        double maxLatitude = minLatitude + CELL_DEGREES;
+        double east = ((longitude - (lonIdx * CELL_DEGREES - 180)) % 360 + 360) % 360;
+        if (east <= CELL_DEGREES) {
+            double latitudeGap = Math.max(0, Math.max(minLatitude - latitude, latitude - maxLatitude));
+            return EARTH_RADIUS_KM * Math.toRadians(latitudeGap);
+        }
+        double deltaLon = Math.min(east - CELL_DEGREES, 360 - east);
+        double phi = Math.toRadians(latitude);
+        double closest = Math.toDegrees(Math.atan2(Math.sin(phi), Math.cos(phi) * Math.cos(Math.toRadians(deltaLon))));
+        double onEdge = Math.max(minLatitude, Math.min(maxLatitude, closest));
+        return Math.min(distanceKm(latitude, 0, onEdge, deltaLon),
+            Math.min(distanceKm(latitude, 0, minLatitude, deltaLon), distanceKm(latitude, 0, maxLatitude, deltaLon)));
+    }
+
+    private void offerAll(Cell cell, double latitude, double longitude, int k, PriorityQueue<Neighbor> best) {
+        for (int i = 0; i < cell.size; i++) {
+            double distance = distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+            if (best.size() < k) {
+                best.add(new Neighbor(cell.ids[i], distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Neighbor(cell.ids[i], distance));
+            }
+        }
+    }
+
+    /**
+     * Smallest possible distance to any point outside the rings visited so far. Such a point is at least
+     * {@code ring} whole cells away in latitude or longitude; for the longitude case the bound uses the
+     * highest latitude a point closer than {@code kthDistanceKm} could have.
+     */
+    private static double lowerBoundBeyondRing(double latitude, int ring, double kthDistanceKm) {
+        double offset = Math.toRadians(ring * CELL_DEGREES);
+        double latitudeBound = EARTH_RADIUS_KM * offset;
+        if (2 * ring + 1 >= LON_CELLS) {
+            return latitudeBound;
+        }
+        double maxLatitude = Math.min(90, Math.abs(latitude) + Math.toDegrees(kthDistanceKm / EARTH_RADIUS_KM));
+        double longitudeBound = 2 * EARTH_RADIUS_KM
+            * Math.asin(Math.min(1, Math.cos(Math.toRadians(maxLatitude)) * Math.sin(Math.min(Math.PI, offset) / 2)));
+        return Math.min(latitudeBound, longitudeBound);
+    }
+
+    private static long ringCellCount(int ring) {
+        return ring == 0 ? 1 : 8L * ring;
+    }
+
+    private void addPoint(Long id, double latitude, double longitude) {
+        int key = latIndex(latitude) * LON_CELLS + lonIndex(longitude);
+        cells.computeIfAbsent(key, k -> new Cell()).add(id, latitude, longitude);
+        cellById.put(id, key);
+    }
+
+    private void removePoint(Long id) {
+        Integer key = cellById.remove(id);
+        if (key == null) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        if (cell != null && cell.remove(id) && cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private static int latIndex(double latitude) {
+        return Math.max(0, Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+
+    private static int lonIndex(double longitude) {
+        return Math.max(0, Math.min(LON_CELLS - 1, (int) Math.floor((longitude + 180) / CELL_DEGREES)));
+    }
+
+    private record CellDistance(Cell cell, double distanceKm) {
+    }
+
+    private static final class Cell {
+        private long[] ids = new long[2];
+        private double[] latitudes = new double[2];
+        private double[] longitudes = new double[2];
+        private int size;
+
+        void add(long id, double latitude, double longitude) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
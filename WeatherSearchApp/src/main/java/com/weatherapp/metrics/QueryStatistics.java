@@ -0,0 +1,236 @@
+package com.weatherapp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement and per-endpoint query statistics. Executed SQL is normalized (literals and IN lists
+ * collapsed to {@code ?}) and timed under {@code weather.db.query}, tagged with a short id of the
+ * normalized text, with p50/p95/p99 over the last few minutes. At most {@code weather.queries.max-tracked}
+ * distinct statements are kept; later ones share the id {@code other}.
+ *
+ * At the end of each API request the statements it ran are counted per endpoint, and a SELECT run at
+ * least {@code weather.queries.n-plus-one-threshold} times within one request is reported as a likely
+ * N+1 pattern (logged once per endpoint and statement).
+ */
+@Component
+public class QueryStatistics {
+
+    public static final String QUERY_TIMER = "weather.db.query";
+    static final String OTHER = "other";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatistics.class);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MeterRegistry registry;
+    private final int maxTracked;
+    private final int nPlusOneThreshold;
+    private final Map<String, TrackedQuery> queries = new ConcurrentHashMap<>();
+    private final Map<String, TrackedQuery> queriesById = new ConcurrentHashMap<>();
+    private final Map<String, EndpointQueries> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, Suspect> suspects = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QueryStatistics(MeterRegistry registry,
+                           @Value("${weather.queries.max-tracked:500}") int maxTracked,
+                           @Value("${weather.queries.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.registry = registry;
+        this.maxTracked = maxTracked;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public void recordExecution(String sql, long elapsedNanos) {
+        TrackedQuery query = track(normalize(sql));
+        query.timer().record(elapsedNanos, TimeUnit.NANOSECONDS);
+        RequestTiming.recordStatement(query.id());
+    }
+
+    /**
+     * Folds a finished request's statements into the endpoint's totals and checks them for N+1 patterns.
+     */
+    public void recordRequest(String endpoint, RequestTiming timing) {
+        Map<String, Long> statements = timing.statementCounts();
+        long total = statements.values().stream().mapToLong(Long::longValue).sum();
+        if (endpoints.size() < maxTracked || endpoints.containsKey(endpoint)) {
+            endpoints.computeIfAbsent(endpoint, key -> new EndpointQueries()).add(total);
+        }
+
+        for (Map.Entry<String, Long> statement : statements.entrySet()) {
+            TrackedQuery query = queriesById.get(statement.getKey());
+            if (statement.getValue() < nPlusOneThreshold || query == null || !query.select()) {
+                continue;
+            }
+            String key = endpoint + "\n" + query.id();
+            if (suspects.size() >= maxTracked && !suspects.containsKey(key)) {
+                continue;
+            }
+            Suspect suspect = suspects.computeIfAbsent(key, k -> {
+                logger.warn("Possible N+1 query on {}: statement {} ran {} times in one request: {}",
+                    endpoint, query.id(), statement.getValue(), query.sql());
+                return new Suspect(endpoint, query);
+            });
+            suspect.add(statement.getValue());
+        }
+    }
+
+    public QueryReport report(int limit) {
+        List<QuerySummary> summaries = queries.values().stream().map(TrackedQuery::summarize).toList();
+        List<QuerySummary> slowest = summaries.stream()
+            .sorted(Comparator.comparingDouble(QuerySummary::p99Millis).thenComparingDouble(QuerySummary::meanMillis).reversed())
+            .limit(limit).toList();
+        List<QuerySummary> mostFrequent = summaries.stream()
+            .sorted(Comparator.comparingLong(QuerySummary::count).reversed())
+            .limit(limit).toList();
+        List<EndpointSummary> endpointSummaries = endpoints.entrySet().stream()
+            .map(entry -> entry.getValue().summarize(entry.getKey()))
+            .sorted(Comparator.comparingDouble(EndpointSummary::meanStatements).reversed())
+            .limit(limit).toList();
+        List<NPlusOneSuspect> nPlusOne = suspects.values().stream()
+            .map(Suspect::summarize)
+            .sorted(Comparator.comparing(NPlusOneSuspect::lastSeen).reversed())
+            .limit(limit).toList();
+        return new QueryReport(slowest, mostFrequent, endpointSummaries, nPlusOne);
+    }
+
+    public void reset() {
+        queries.values().forEach(query -> registry.remove(query.timer()));
+        queries.clear();
+        queriesById.clear();
+        endpoints.clear();
+        suspects.clear();
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private TrackedQuery track(String sql) {
+        TrackedQuery query = queries.get(sql);
+        if (query != null) {
+            return query;
+        }
+        if (queries.size() >= maxTracked) {
+            return queries.computeIfAbsent("(" + OTHER + ")", key -> register(OTHER, key));
+        }
+        return queries.computeIfAbsent(sql, key ->
+            register(DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)).substring(0, 12), key));
+    }
+
+    private TrackedQuery register(String id, String sql) {
+        Timer timer = Timer.builder(QUERY_TIMER)
+            .description("JDBC statement execution by normalized statement")
+            .tag("query", id)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+        TrackedQuery query = new TrackedQuery(id, sql, sql.regionMatches(true, 0, "select", 0, 6), timer);
+        queriesById.put(id, query);
+        return query;
+    }
+
+    private record TrackedQuery(String id, String sql, boolean select, Timer timer) {
+
+        QuerySummary summarize() {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            double p50 = 0, p95 = 0, p99 = 0;
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                double millis = value.value(TimeUnit.MILLISECONDS);
+                if (value.percentile() == 0.5) {
+                    p50 = millis;
+                } else if (value.percentile() == 0.95) {
+                    p95 = millis;
+                } else if (value.percentile() == 0.99) {
+                    p99 = millis;
+                }
+            }
+            return new QuerySummary(id, sql, timer.count(), round(timer.mean(TimeUnit.MILLISECONDS)),
+                round(timer.max(TimeUnit.MILLISECONDS)), round(p50), round(p95), round(p99));
+        }
+    }
+
+    private static final class EndpointQueries {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        void add(long count) {
+            requests.increment();
+            statements.add(count);
+            maxStatements.accumulate(count);
+        }
+
+        EndpointSummary summarize(String endpoint) {
+            long requestCount = requests.sum();
+            return new EndpointSummary(endpoint, requestCount,
+                requestCount > 0 ? round((double) statements.sum() / requestCount) : 0, maxStatements.get());
+        }
+    }
+
+    private static final class Suspect {
+        private final String endpoint;
+        private final TrackedQuery query;
+        private final LongAdder occurrences = new LongAdder();
+        private final LongAccumulator maxRepetitions = new LongAccumulator(Math::max, 0);
+        private final AtomicLong lastSeen = new AtomicLong();
+
+        Suspect(String endpoint, TrackedQuery query) {
+            this.endpoint = endpoint;
+            this.query = query;
+        }
+
+        void add(long repetitions) {
+            occurrences.increment();
+            maxRepetitions.accumulate(repetitions);
+            lastSeen.set(System.currentTimeMillis());
+        }
+
+        NPlusOneSuspect summarize() {
+            return new NPlusOneSuspect(endpoint, query.id(), query.sql(), occurrences.sum(), maxRepetitions.get(),
+                Instant.ofEpochMilli(lastSeen.get()));
+        }
+    }
+
+    private static double round(double value) {
+        return Math.rint(value * 1000) / 1000;
+    }
+
+    public record QueryReport(List<QuerySummary> slowest, List<QuerySummary> mostFrequent,
+                              List<EndpointSummary> endpoints, List<NPlusOneSuspect> nPlusOne) {
+    }
+
+    public record QuerySummary(String id, String sql, long count, double meanMillis, double maxMillis,
+                               double p50Millis, double p95Millis, double p99Millis) {
+    }
+
+    public record EndpointSummary(String endpoint, long requests, double meanStatements, long maxStatements) {
+    }
+
+    public record NPlusOneSuspect(String endpoint, String queryId, String sql, long occurrences,
+                                  long maxRepetitions, Instant lastSeen) {
+    }
+}
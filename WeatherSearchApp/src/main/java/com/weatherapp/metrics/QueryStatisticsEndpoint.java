@@ -0,0 +1,36 @@
+package com.weatherapp.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/queries?limit=10}: the slowest and most frequent statements, statements per request by
+ * endpoint, and likely N+1 patterns. DELETE resets the statistics.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final QueryStatistics statistics;
+
+    @Autowired
+    public QueryStatisticsEndpoint(QueryStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public QueryStatistics.QueryReport queries(@Nullable Integer limit) {
+        return statistics.report(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
@@ -0,0 +1,80 @@
+package com.weatherapp.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Times every statement executed through the wrapped data source and hands the SQL and duration to
+ * {@link QueryStatistics}. Connections and statements are JDK proxies; result sets are not wrapped, so
+ * the time covers execution up to the first rows, not reading them.
+ */
+public class QueryTimingDataSource extends DelegatingDataSource {
+
+    private final Supplier<QueryStatistics> statistics;
+
+    public QueryTimingDataSource(DataSource target, Supplier<QueryStatistics> statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                    // prepareStatement and prepareCall: the SQL is fixed when the statement is created
+                    return wrapStatement(statement, method.getReturnType(), sql);
+                }
+                if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                    return wrapStatement(statement, Statement.class, null);
+                }
+                return result;
+            });
+    }
+
+    private Object wrapStatement(Statement statement, Class<?> type, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                if (sql != null) {
+                    statistics.get().recordExecution(sql, System.nanoTime() - start);
+                }
+            }
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.weatherapp.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time one request spends in each phase: database queries, weather API calls, in-memory cache lookups
+ * and response serialization. The timing of the request being served is bound to the current thread;
+ * {@link #wrap} carries it into executor tasks, so forks add to the same totals (overlapping phases can
+ * therefore add up to more than the request took). Recording without a bound timing does nothing.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        DB("db"),
+        UPSTREAM("upstream"),
+        CACHE("cache"),
+        SERIALIZATION("serialization");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder[] nanos = new LongAdder[Phase.values().length];
+    private final LongAdder[] counts = new LongAdder[Phase.values().length];
+    private final LongAdder cacheHits = new LongAdder();
+    private final Map<String, LongAdder> statements = new ConcurrentHashMap<>();
+
+    RequestTiming() {
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = new LongAdder();
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts timing a request on the current thread; pair with {@link #unbind()}.
+     */
+    public static RequestTiming bind() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    public static void record(Phase phase, long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()].add(elapsedNanos);
+            timing.counts[phase.ordinal()].increment();
+        }
+    }
+
+    public static void recordCacheLookup(boolean hit, long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && hit) {
+            timing.cacheHits.increment();
+        }
+        record(Phase.CACHE, elapsedNanos);
+    }
+
+    /**
+     * Counts one execution of a JDBC statement, by the id {@link QueryStatistics} gave its normalized SQL.
+     */
+    public static void recordStatement(String queryId) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.statements.computeIfAbsent(queryId, id -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Runs {@code task} with the submitting thread's timing bound, for executors serving a request.
+     */
+    public static Runnable wrap(Runnable task) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            RequestTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * How often each statement ran during the request, by query id.
+     */
+    public Map<String, Long> statementCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        statements.forEach((id, count) -> counts.put(id, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Phases that were entered at least once, in {@link Phase} order.
+     */
+    public Map<String, PhaseTiming> phases() {
+        Map<String, PhaseTiming> phases = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            long count = counts[phase.ordinal()].sum();
+            if (count > 0) {
+                String description = phase == Phase.CACHE ? cacheDescription(count)
+                    : phase == Phase.DB ? statementDescription() : null;
+                phases.put(phase.metricName(), new PhaseTiming(nanos[phase.ordinal()].sum() / 1e6, count, description));
+            }
+        }
+        return phases;
+    }
+
+    /**
+     * The {@code Server-Timing} header value, e.g. {@code db;desc="3 queries";dur=4.21, cache;desc="hit";dur=0.01, total;dur=6.03}.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Map.Entry<String, PhaseTiming> phase : phases().entrySet()) {
+            header.append(phase.getKey());
+            if (phase.getValue().description() != null) {
+                header.append(";desc=\"").append(phase.getValue().description()).append('"');
+            }
+            header.append(";dur=").append(format(phase.getValue().millis())).append(", ");
+        }
+        return header.append("total;dur=").append(format(elapsedNanos() / 1e6)).toString();
+    }
+
+    private String cacheDescription(long lookups) {
+        long hits = cacheHits.sum();
+        if (hits == lookups) {
+            return "hit";
+        }
+        return hits == 0 ? "miss" : hits + " hit " + (lookups - hits) + " miss";
+    }
+
+    private String statementDescription() {
+        long executed = statements.values().stream().mapToLong(LongAdder::sum).sum();
+        return executed > 0 ? executed + (executed == 1 ? " query" : " queries") : null;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+
+    public record PhaseTiming(double millis, long count, String description) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.weatherapp.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Times each API request and reports the phases in a {@code Server-Timing} header. The header has to go
+ * out with the status line, so it is added when the body is first opened (small JSON bodies are serialized
+ * before that, see {@link TimedJsonHttpMessageConverter}) or, for bodiless responses, once the handler
+ * returns. Requests that finish synchronously are offered to the {@link SlowRequestLog} after the response,
+ * with every phase including those recorded after the header went out; streams are not, as their duration
+ * is how long the client kept them open. The statements every request ran go to
+ * {@link QueryStatistics} under its route, e.g. {@code GET /api/weather/history/{locationId}}.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+    private final QueryStatistics queryStatistics;
+
+    public RequestTimingFilter(SlowRequestLog slowRequestLog, QueryStatistics queryStatistics) {
+        this.slowRequestLog = slowRequestLog;
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.bind();
+        TimingResponse timed = new TimingResponse(response, timing);
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            RequestTiming.unbind();
+            if (!request.isAsyncStarted()) {
+                timed.addServerTiming();
+                String query = request.getQueryString();
+                slowRequestLog.record(request.getMethod(), query != null ? request.getRequestURI() + "?" + query : request.getRequestURI(),
+                    response.getStatus(), timing);
+            }
+            queryStatistics.recordRequest(route(request), timing);
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean headerAdded;
+
+        TimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void addServerTiming() {
+            if (!headerAdded && !isCommitted()) {
+                headerAdded = true;
+                setHeader(SERVER_TIMING, timing.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            addServerTiming();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            addServerTiming();
+            super.sendError(status);
+        }
+    }
+}
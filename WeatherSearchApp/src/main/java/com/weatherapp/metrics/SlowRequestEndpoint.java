@@ -0,0 +1,34 @@
+package com.weatherapp.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowrequests}: GET lists the slow-request log newest first, DELETE empties it.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestEndpoint {
+
+    private final SlowRequestLog log;
+
+    @Autowired
+    public SlowRequestEndpoint(SlowRequestLog log) {
+        this.log = log;
+    }
+
+    @ReadOperation
+    public List<SlowRequestLog.SlowRequest> slowRequests() {
+        return log.getEntries();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        log.clear();
+    }
+}
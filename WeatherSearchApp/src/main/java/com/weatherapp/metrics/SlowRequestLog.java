@@ -0,0 +1,64 @@
+package com.weatherapp.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The most recent requests that took at least {@code weather.timing.slow-threshold-ms}, with their phase
+ * breakdown. Holds at most {@code weather.timing.slow-log-size} entries, dropping the oldest.
+ */
+@Component
+public class SlowRequestLog {
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Deque<SlowRequest> entries = new ArrayDeque<>();
+
+    @Autowired
+    public SlowRequestLog(@Value("${weather.timing.slow-threshold-ms:500}") long thresholdMillis,
+                          @Value("${weather.timing.slow-log-size:100}") int capacity) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        this.capacity = capacity;
+    }
+
+    public void record(String method, String uri, int status, RequestTiming timing) {
+        long elapsed = timing.elapsedNanos();
+        if (elapsed < thresholdNanos || capacity <= 0) {
+            return;
+        }
+        SlowRequest entry = new SlowRequest(Instant.now(), method, uri, status, elapsed / 1e6, timing.phases());
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeLast();
+            }
+            entries.addFirst(entry);
+        }
+    }
+
+    /**
+     * Newest first.
+     */
+    public List<SlowRequest> getEntries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public record SlowRequest(Instant at, String method, String uri, int status, double totalMillis,
+                              Map<String, RequestTiming.PhaseTiming> phases) {
+    }
+}
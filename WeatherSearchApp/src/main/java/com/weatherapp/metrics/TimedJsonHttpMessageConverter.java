@@ -0,0 +1,114 @@
+package com.weatherapp.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that records the time spent writing a body as the request's serialization phase.
+ * Bodies up to {@code bufferLimit} bytes are serialized into memory first, so the phase is known before
+ * the response (and its {@code Server-Timing} header) is committed. A larger body is streamed to the
+ * client once it passes the limit; its phase then also covers those writes and only reaches the
+ * {@link SlowRequestLog}, which is recorded after the response.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final int bufferLimit;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, int bufferLimit) {
+        super(objectMapper);
+        this.bufferLimit = bufferLimit;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!RequestTiming.isBound()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long start = System.nanoTime();
+        SpillingOutputStream body = new SpillingOutputStream(outputMessage, bufferLimit);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        RequestTiming.record(RequestTiming.Phase.SERIALIZATION, System.nanoTime() - start);
+        body.finish();
+    }
+
+    /**
+     * Holds the body in memory until it would pass the limit, then writes it through to the response.
+     */
+    private static final class SpillingOutputStream extends OutputStream {
+
+        private final HttpOutputMessage target;
+        private final int limit;
+        private ByteArrayOutputStream buffer;
+        private OutputStream out;
+
+        SpillingOutputStream(HttpOutputMessage target, int limit) {
+            this.target = target;
+            this.limit = limit;
+            this.buffer = new ByteArrayOutputStream(Math.max(0, Math.min(limit, 8192)));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (out == null && buffer.size() + 1 > limit) {
+                spill();
+            }
+            if (out != null) {
+                out.write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (out == null && buffer.size() + length > limit) {
+                spill();
+            }
+            if (out != null) {
+                out.write(bytes, offset, length);
+            } else {
+                buffer.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // While buffering, a flush would only commit the response early
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if (out == null) {
+                buffer.writeTo(target.getBody());
+            }
+        }
+
+        private void spill() throws IOException {
+            out = target.getBody();
+            buffer.writeTo(out);
+            buffer = null;
+        }
+    }
+}
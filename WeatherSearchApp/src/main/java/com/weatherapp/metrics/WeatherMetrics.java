@@ -0,0 +1,79 @@
+package com.weatherapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application meters. Every timer carries an {@code outcome} tag ({@code success} or {@code failure});
+ * upstream calls add the API {@code endpoint} and HTTP {@code status}. Repository queries are timed by
+ * Spring Boot as {@code spring.data.repository.invocations}.
+ */
+@Component
+public class WeatherMetrics {
+
+    public static final String UPSTREAM_REQUESTS = "weather.upstream.requests";
+    public static final String SYNC = "weather.sync";
+    public static final String SYNC_FAILURES = "weather.sync.failures";
+    public static final String SYNC_ALL = "weather.sync.all";
+    public static final String CLEANUP = "weather.cleanup";
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public WeatherMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records a call to the weather API; {@code status} is the HTTP status, or {@code IO_ERROR} when no
+     * response arrived.
+     */
+    public void recordUpstream(String endpoint, String status, long nanos) {
+        Timer.builder(UPSTREAM_REQUESTS)
+            .description("Calls to the OpenWeatherMap API")
+            .tag("endpoint", endpoint)
+            .tag("status", status)
+            .tag("outcome", status.startsWith("2") ? "success" : "failure")
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records one location's sync; {@code error} is null when it succeeded. Failures are also counted by
+     * exception type. Location ids are left to the logs, as one series per location would grow without bound.
+     */
+    public void recordSync(Timer.Sample sample, Exception error) {
+        sample.stop(timer(SYNC, "Weather sync of one location", error == null));
+        if (error != null) {
+            Counter.builder(SYNC_FAILURES)
+                .description("Failed weather syncs by exception type")
+                .tag("error", error.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+        }
+    }
+
+    public void recordSyncAll(Timer.Sample sample, boolean success) {
+        sample.stop(timer(SYNC_ALL, "Weather sync of all locations", success));
+    }
+
+    public void recordCleanup(Timer.Sample sample, boolean success) {
+        sample.stop(timer(CLEANUP, "Removal of weather data older than 30 days", success));
+    }
+
+    private Timer timer(String name, String description, boolean success) {
+        return Timer.builder(name)
+            .description(description)
+            .tag("outcome", success ? "success" : "failure")
+            .register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.weatherapp.repository;
+
+import com.weatherapp.entity.GeocodeCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, Long> {
+    
+    Optional<GeocodeCacheEntry> findByLookupKey(String lookupKey);
+}
@@ -1,11 +1,16 @@
 package com.weatherapp.repository;
 
 import com.weatherapp.entity.Location;
+import com.weatherapp.index.LocationIndexEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,12 +21,53 @@ public interface LocationRepository extends JpaRepository<Location, Long> {
     
     List<Location> findByIsFavoriteTrue();
     
+    List<Location> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
     @Query("SELECT l FROM Location l WHERE l.cityName LIKE %:search% OR l.displayName LIKE %:search%")
     List<Location> findBySearchTerm(@Param("search") String search);
     
-    @Query("SELECT l FROM Location l WHERE l.lastSyncAt IS NULL OR l.lastSyncAt < " +
-           "(SELECT MAX(w.timestamp) FROM WeatherSnapshot w WHERE w.location = l)")
-    List<Location> findLocationsNeedingSync();
+    @Query("SELECT l.id AS id, l.cityName AS cityName, l.displayName AS displayName, " +
+           "l.latitude AS latitude, l.longitude AS longitude FROM Location l")
+    List<LocationIndexEntry> findAllIndexEntries();
+    
+    @Query("SELECT l FROM Location l WHERE l.nextSyncDueAt <= :now ORDER BY l.nextSyncDueAt")
+    List<Location> findLocationsDueForSync(@Param("now") LocalDateTime now);
+    
+    default List<Location> findLocationsNeedingSync() {
+        return findLocationsDueForSync(LocalDateTime.now());
+    }
+    
+    /**
+     * Fills sync-state columns for rows written before they existed. Runs the per-location MAX once,
+     * touching only rows that are still unset. A synced location is next due one interval after its last
+     * sync; one never synced is due at once.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Location l SET l.lastSnapshotAt = " +
+           "(SELECT MAX(w.timestamp) FROM WeatherSnapshot w WHERE w.location = l), " +
+           "l.nextSyncDueAt = COALESCE(l.lastSyncAt + :syncIntervalSeconds second, l.createdAt) " +
+           "WHERE l.nextSyncDueAt IS NULL")
+    int backfillSyncState(@Param("syncIntervalSeconds") long syncIntervalSeconds);
+    
+    /**
+     * Every location paired with its latest snapshot (or null) in a single statement. The snapshot is
+     * picked by a top-1 subquery on the (location_id, timestamp) index, so the lazy
+     * {@code weatherSnapshots} collection is never touched.
+     */
+    @Query("SELECT l, w FROM Location l LEFT JOIN WeatherSnapshot w ON w.id = " +
+           "(SELECT w2.id FROM WeatherSnapshot w2 WHERE w2.location = l " +
+           "ORDER BY w2.timestamp DESC, w2.id DESC LIMIT 1) ORDER BY l.id")
+    List<Object[]> findAllWithLatestSnapshot();
+    
+    @Query("SELECT l, w FROM Location l LEFT JOIN WeatherSnapshot w ON w.id = " +
+           "(SELECT w2.id FROM WeatherSnapshot w2 WHERE w2.location = l " +
+           "ORDER BY w2.timestamp DESC, w2.id DESC LIMIT 1) WHERE l.id IN :ids ORDER BY l.id")
+    List<Object[]> findWithLatestSnapshotByIdIn(@Param("ids") Collection<Long> ids);
+    
+    List<Location> findByLatitudeBetweenAndLongitudeBetween(Double minLatitude, Double maxLatitude,
+                                                            Double minLongitude, Double maxLongitude);
+    
+    List<Location> findByCityNameIn(Collection<String> cityNames);
     
     boolean existsByCityNameAndCountryCode(String cityName, String countryCode);
 }
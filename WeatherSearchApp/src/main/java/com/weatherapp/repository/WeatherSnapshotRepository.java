@@ -1,22 +1,49 @@
 package com.weatherapp.repository;
 
+import com.weatherapp.dto.WeatherSnapshotChange;
+import com.weatherapp.dto.WeatherSnapshotView;
 import com.weatherapp.entity.WeatherSnapshot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WeatherSnapshotRepository extends JpaRepository<WeatherSnapshot, Long> {
     
+    String SELECT_VIEW = "SELECT new com.weatherapp.dto.WeatherSnapshotView(w.id, w.temperature, w.humidity, " +
+                         "w.pressure, w.windSpeed, w.windDirection, w.visibility, w.uvIndex, w.weatherMain, " +
+                         "w.weatherDescription, w.weatherIcon, w.timestamp, w.dataTimestamp) FROM WeatherSnapshot w ";
+    
+    String SELECT_CHANGE = "SELECT new com.weatherapp.dto.WeatherSnapshotChange(w.id, w.location.id, w.temperature, " +
+                           "w.humidity, w.pressure, w.windSpeed, w.windDirection, w.visibility, w.uvIndex, w.weatherMain, " +
+                           "w.weatherDescription, w.weatherIcon, w.timestamp, w.dataTimestamp) FROM WeatherSnapshot w ";
+    
     List<WeatherSnapshot> findByLocationIdOrderByTimestampDesc(Long locationId);
     
     Optional<WeatherSnapshot> findTopByLocationIdOrderByTimestampDesc(Long locationId);
     
+    /**
+     * Latest snapshot of each given location as a projection in one statement, ranking rows per location
+     * with a window function over the (location_id, timestamp) index.
+     */
+    @Query("SELECT new com.weatherapp.dto.WeatherSnapshotChange(r.id, r.locationId, r.temperature, r.humidity, " +
+           "r.pressure, r.windSpeed, r.windDirection, r.visibility, r.uvIndex, r.weatherMain, r.weatherDescription, " +
+           "r.weatherIcon, r.timestamp, r.dataTimestamp) FROM (SELECT w.id AS id, w.location.id AS locationId, " +
+           "w.temperature AS temperature, w.humidity AS humidity, w.pressure AS pressure, w.windSpeed AS windSpeed, " +
+           "w.windDirection AS windDirection, w.visibility AS visibility, w.uvIndex AS uvIndex, " +
+           "w.weatherMain AS weatherMain, w.weatherDescription AS weatherDescription, w.weatherIcon AS weatherIcon, " +
+           "w.timestamp AS timestamp, w.dataTimestamp AS dataTimestamp, ROW_NUMBER() OVER " +
+           "(PARTITION BY w.location.id ORDER BY w.timestamp DESC, w.id DESC) AS snapshotRank " +
+           "FROM WeatherSnapshot w WHERE w.location.id IN :locationIds) r WHERE r.snapshotRank = 1")
+    List<WeatherSnapshotChange> findLatestViewsByLocationIds(@Param("locationIds") Collection<Long> locationIds);
+    
     @Query("SELECT w FROM WeatherSnapshot w WHERE w.location.id = :locationId " +
            "AND w.timestamp >= :since ORDER BY w.timestamp DESC")
     List<WeatherSnapshot> findByLocationIdSince(@Param("locationId") Long locationId, 
@@ -28,8 +55,53 @@ public interface WeatherSnapshotRepository extends JpaRepository<WeatherSnapshot
                                                   @Param("start") LocalDateTime start,
                                                   @Param("end") LocalDateTime end);
     
+    @Query(SELECT_VIEW + "WHERE w.location.id = :locationId ORDER BY w.timestamp DESC")
+    List<WeatherSnapshotView> findViewsByLocationId(@Param("locationId") Long locationId);
+    
+    @Query(SELECT_VIEW + "WHERE w.location.id = :locationId AND w.timestamp >= :since ORDER BY w.timestamp DESC")
+    List<WeatherSnapshotView> findViewsByLocationIdSince(@Param("locationId") Long locationId,
+                                                         @Param("since") LocalDateTime since);
+    
+    /**
+     * One page of a location's history, newest first, from {@code since} and strictly older than the
+     * ({@code beforeTimestamp}, {@code beforeId}) key of the previous page's last row.
+     */
+    @Query(SELECT_VIEW + "WHERE w.location.id = :locationId AND w.timestamp >= :since " +
+           "AND (w.timestamp < :beforeTimestamp OR (w.timestamp = :beforeTimestamp AND w.id < :beforeId)) " +
+           "ORDER BY w.timestamp DESC, w.id DESC")
+    List<WeatherSnapshotView> findHistoryPage(@Param("locationId") Long locationId,
+                                              @Param("since") LocalDateTime since,
+                                              @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                              @Param("beforeId") long beforeId,
+                                              Pageable page);
+    
+    @Query(SELECT_VIEW + "WHERE w.location.id = :locationId ORDER BY w.timestamp DESC, w.id DESC LIMIT 1")
+    Optional<WeatherSnapshotView> findLatestViewByLocationId(@Param("locationId") Long locationId);
+    
     @Query("SELECT COUNT(w) FROM WeatherSnapshot w WHERE w.location.id = :locationId")
     long countByLocationId(@Param("locationId") Long locationId);
     
+    /**
+     * Snapshots after the cursor up to {@code upTo} across all locations in id order, walking the primary key.
+     */
+    @Query(SELECT_CHANGE + "WHERE w.id > :after AND w.id <= :upTo ORDER BY w.id")
+    List<WeatherSnapshotChange> findChangesAfter(@Param("after") long after,
+                                                 @Param("upTo") long upTo,
+                                                 Pageable page);
+    
+    /**
+     * Lowest id after {@code after} whose snapshot was written after {@code visibleBefore}; nothing from
+     * there on may be listed yet.
+     */
+    @Query("SELECT MIN(w.id) FROM WeatherSnapshot w WHERE w.id > :after AND w.timestamp > :visibleBefore")
+    Optional<Long> findFirstUnsettledIdAfter(@Param("after") long after,
+                                             @Param("visibleBefore") LocalDateTime visibleBefore);
+    
+    @Query("SELECT w.id FROM WeatherSnapshot w WHERE w.id > :after AND w.id < :before ORDER BY w.id")
+    List<Long> findIdsBetween(@Param("after") long after, @Param("before") long before, Pageable page);
+    
+    @Query("SELECT MAX(w.id) FROM WeatherSnapshot w")
+    Optional<Long> findMaxId();
+    
     void deleteByLocationIdAndTimestampBefore(Long locationId, LocalDateTime before);
 }
@@ -0,0 +1,33 @@
+package com.weatherapp.scheduler;
+
+import com.weatherapp.repository.LocationRepository;
+import com.weatherapp.service.LocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class SyncStateInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncStateInitializer.class);
+
+    private final LocationRepository locationRepository;
+
+    @Autowired
+    public SyncStateInitializer(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillSyncState() {
+        int updated = locationRepository.backfillSyncState(LocationService.SYNC_INTERVAL.toSeconds());
+        if (updated > 0) {
+            logger.info("Backfilled sync state for {} locations", updated);
+        }
+    }
+}
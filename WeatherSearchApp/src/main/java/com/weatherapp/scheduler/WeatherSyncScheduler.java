@@ -19,11 +19,11 @@ public class WeatherSyncScheduler {
         this.weatherService = weatherService;
     }
     
-    @Scheduled(cron = "0 0 */6 * * *")
-    public void syncAllLocations() {
-        logger.info("Starting scheduled weather sync for all locations");
+    @Scheduled(cron = "${weather.sync.cron:0 */15 * * * *}")
+    public void syncDueLocations() {
+        logger.info("Starting scheduled weather sync for due locations");
         try {
-            weatherService.syncAllLocations();
+            weatherService.syncDueLocations();
             logger.info("Completed scheduled weather sync");
         } catch (Exception e) {
             logger.error("Failed to complete scheduled weather sync", e);
@@ -0,0 +1,104 @@
+package com.weatherapp.service;
+
+import com.weatherapp.dto.DashboardEntry;
+import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.ForecastSummary;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.repository.LocationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds the sidebar view in one call: locations and their latest snapshots come from a single joined
+ * query, forecast summaries only from forecasts already cached in memory, so rendering the dashboard
+ * never fans out to the weather API.
+ */
+@Service
+public class DashboardService {
+
+    // OpenWeatherMap forecasts come in 3-hour steps; eight of them cover the next day
+    private static final int SUMMARY_SLOTS = 8;
+
+    private final LocationRepository locationRepository;
+    private final WeatherService weatherService;
+    private final WeatherVersionMap versionMap;
+
+    @Autowired
+    public DashboardService(LocationRepository locationRepository,
+                            WeatherService weatherService,
+                            WeatherVersionMap versionMap) {
+        this.locationRepository = locationRepository;
+        this.weatherService = weatherService;
+        this.versionMap = versionMap;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DashboardEntry> getDashboard() {
+        return toEntries(locationRepository.findAllWithLatestSnapshot());
+    }
+
+    /**
+     * Dashboard entries of the given locations only, ordered by id; unknown ids are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<DashboardEntry> getDashboard(Collection<Long> locationIds) {
+        return toEntries(locationRepository.findWithLatestSnapshotByIdIn(locationIds));
+    }
+
+    private List<DashboardEntry> toEntries(List<Object[]> rows) {
+        List<DashboardEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Location location = (Location) row[0];
+            WeatherSnapshot current = (WeatherSnapshot) row[1];
+            if (current != null) {
+                versionMap.recordSnapshot(location.getId(), current.getId(), current.getTimestamp());
+            }
+            ForecastSummary forecast = weatherService.getCachedForecast(location.getId())
+                .map(cached -> summarize(cached.forecast(), cached.version().lastModified()))
+                .orElse(null);
+            entries.add(new DashboardEntry(location, current, forecast));
+        }
+        return entries;
+    }
+
+    static ForecastSummary summarize(ForecastResponse forecast, long fetchedAtMillis) {
+        if (forecast == null || forecast.getList() == null || forecast.getList().isEmpty()) {
+            return null;
+        }
+        ForecastSummary summary = new ForecastSummary();
+        summary.setFetchedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(fetchedAtMillis), ZoneId.systemDefault()));
+
+        List<ForecastResponse.ForecastItem> items = forecast.getList();
+        ForecastResponse.ForecastItem next = items.get(0);
+        if (next.getWeather() != null && !next.getWeather().isEmpty()) {
+            summary.setWeatherMain(next.getWeather().get(0).getMain());
+            summary.setWeatherIcon(next.getWeather().get(0).getIcon());
+        }
+
+        for (ForecastResponse.ForecastItem item : items.subList(0, Math.min(SUMMARY_SLOTS, items.size()))) {
+            if (item.getMain() != null) {
+                summary.setMinTemperature(min(summary.getMinTemperature(), item.getMain().getTemp_min()));
+                summary.setMaxTemperature(max(summary.getMaxTemperature(), item.getMain().getTemp_max()));
+            }
+            summary.setPrecipitationProbability(max(summary.getPrecipitationProbability(), item.getPop()));
+        }
+        return summary;
+    }
+
+    private static Double min(Double current, Double candidate) {
+        return current == null || (candidate != null && candidate < current) ? candidate : current;
+    }
+
+    private static Double max(Double current, Double candidate) {
+        return current == null || (candidate != null && candidate > current) ? candidate : current;
+    }
+}
@@ -0,0 +1,103 @@
+package com.weatherapp.service;
+
+import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.GazetteerCity;
+import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.entity.GeocodeCacheEntry;
+import com.weatherapp.gazetteer.CityGazetteer;
+import com.weatherapp.repository.GeocodeCacheRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves a city/country pair to its canonical name and coordinates. Lookups go to an in-memory map,
+ * the offline city gazetteer, the durable geocode_cache table, and only then to the OpenWeatherMap API. Nothing here joins
+ * the caller's transaction, so upstream calls never hold a database connection open.
+ */
+@Service
+public class GeocodingService {
+    
+    private static final int MAX_MEMORY_ENTRIES = 100_000;
+    
+    private final OpenWeatherMapClient weatherClient;
+    private final String apiKey;
+    private final GeocodeCacheRepository cacheRepository;
+    private final CityGazetteer gazetteer;
+    private final Map<String, GeocodeCacheEntry> memory = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public GeocodingService(OpenWeatherMapClient weatherClient,
+                            String apiKey,
+                            GeocodeCacheRepository cacheRepository,
+                            CityGazetteer gazetteer) {
+        this.weatherClient = weatherClient;
+        this.apiKey = apiKey;
+        this.cacheRepository = cacheRepository;
+        this.gazetteer = gazetteer;
+    }
+    
+    public Optional<GeocodeCacheEntry> findCached(String cityName, String countryCode) {
+        String key = lookupKey(cityName, countryCode);
+        GeocodeCacheEntry entry = memory.get(key);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        
+        Optional<GazetteerCity> city = gazetteer.find(cityName, countryCode);
+        if (city.isPresent()) {
+            GazetteerCity match = city.get();
+            return Optional.of(new GeocodeCacheEntry(key, match.getName(), match.getCountryCode(),
+                match.getLatitude(), match.getLongitude()));
+        }
+        
+        Optional<GeocodeCacheEntry> stored = cacheRepository.findByLookupKey(key);
+        stored.ifPresent(this::remember);
+        return stored;
+    }
+    
+    public GeocodeCacheEntry resolve(String cityName, String countryCode) {
+        Optional<GeocodeCacheEntry> cached = findCached(cityName, countryCode);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        
+        GeocodeCacheEntry entry;
+        try {
+            OpenWeatherResponse response = weatherClient.getCurrentWeather(cityName + "," + countryCode, apiKey, "metric");
+            entry = new GeocodeCacheEntry(lookupKey(cityName, countryCode), response.getName(),
+                response.getSys().getCountry(), response.getCoord().getLat(), response.getCoord().getLon());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch location data from API: " + e.getMessage(), e);
+        }
+        
+        try {
+            cacheRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // Another request cached the same city first; the upstream answer is identical.
+        }
+        remember(entry);
+        return entry;
+    }
+    
+    public List<GazetteerCity> autocomplete(String prefix, String countryCode, int limit) {
+        return gazetteer.autocomplete(prefix, countryCode, limit);
+    }
+    
+    static String lookupKey(String cityName, String countryCode) {
+        String city = cityName.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return city + "," + countryCode.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    private void remember(GeocodeCacheEntry entry) {
+        if (memory.size() < MAX_MEMORY_ENTRIES) {
+            memory.put(entry.getLookupKey(), entry);
+        }
+    }
+}
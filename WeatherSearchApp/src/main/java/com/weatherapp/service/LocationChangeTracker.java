@@ -0,0 +1,37 @@
+package com.weatherapp.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the location collection as a whole, bumped after every committed location write. Readers
+ * take the version before loading data, so a response can only carry a version older than its body and
+ * a client never keeps stale data under a current ETag. The startup time is part of the ETag so versions
+ * from a previous run never match.
+ */
+@Component
+public class LocationChangeTracker {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public String currentETag() {
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+
+    public void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.weatherapp.service;
+
+import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.LocationDetail;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.Location;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads everything the location view shows in one call. The database read (location and latest
+ * snapshot) and the forecast, which may go to the weather API, run as two forks on the application
+ * task executor under a single deadline, so the call takes as long as the slower of the two. If either
+ * fork fails or the deadline passes, the other is cancelled before the call returns; no fork outlives it.
+ */
+@Service
+public class LocationDetailService {
+
+    private final LocationServiceInterface locationService;
+    private final WeatherService weatherService;
+    private final AsyncTaskExecutor executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public LocationDetailService(LocationServiceInterface locationService,
+                                 WeatherService weatherService,
+                                 @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                                 @Value("${weather.detail.timeout-ms:5000}") long timeoutMillis) {
+        this.locationService = locationService;
+        this.weatherService = weatherService;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public LocationDetail getLocationDetail(Long locationId) throws TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        CompletionService<Object> forks = new ExecutorCompletionService<>(executor);
+        Future<Object> stored = forks.submit(() -> loadStored(locationId));
+        Future<Object> forecast = forks.submit(() -> weatherService.getForecast(locationId));
+        List<Future<Object>> all = List.of(stored, forecast);
+
+        try {
+            for (int pending = all.size(); pending > 0; pending--) {
+                Future<Object> done = forks.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new TimeoutException("Location detail not ready within " + timeoutMillis + " ms");
+                }
+                done.get();
+            }
+            StoredWeather local = (StoredWeather) stored.get();
+            return new LocationDetail(local.location(), local.current().orElse(null), (ForecastResponse) forecast.get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw new RuntimeException("Failed to load location detail: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to load location detail: interrupted", e);
+        } finally {
+            for (Future<Object> fork : all) {
+                fork.cancel(true);
+            }
+        }
+    }
+
+    private StoredWeather loadStored(Long locationId) {
+        Location location = locationService.getLocationById(locationId)
+            .orElseThrow(() -> new IllegalArgumentException("Location not found with id: " + locationId));
+        return new StoredWeather(location, weatherService.findCurrentWeatherView(locationId));
+    }
+
+    private record StoredWeather(Location location, Optional<WeatherSnapshotView> current) {
+    }
+}
@@ -0,0 +1,470 @@
+package com.weatherapp.service;
+
+import com.weatherapp.client.UpstreamRateLimiter;
+import com.weatherapp.dto.LocationImportResult;
+import com.weatherapp.dto.LocationImportResult.Status;
+import com.weatherapp.dto.LocationImportRow;
+import com.weatherapp.dto.LocationImportSummary;
+import com.weatherapp.entity.GeocodeCacheEntry;
+import com.weatherapp.entity.Location;
+import com.weatherapp.index.LocationSearchIndex;
+import com.weatherapp.index.LocationSpatialIndex;
+import com.weatherapp.repository.LocationRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Imports many locations in one pass: rows are validated and deduplicated in memory, checked against
+ * existing locations with set-based queries, geocoded concurrently (cache first, then upstream under the
+ * rate limit) when coordinates are missing, and inserted with JDBC batch statements. Geocoding runs on
+ * a pool of its own ({@code weather.import.geocode-threads}, bounded queue) with at most
+ * {@code weather.import.geocode-concurrency} rows of one import in flight, so large imports cannot take
+ * over the application executor. When the pool is saturated, the importing thread geocodes the row itself.
+ */
+@Service
+public class LocationImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO locations " +
+        "(city_name, country_code, latitude, longitude, display_name, is_favorite, created_at, next_sync_due_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+    private static final int GEOCODE_QUEUE_CAPACITY = 64;
+
+    private final LocationRepository locationRepository;
+    private final GeocodingService geocodingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UpstreamRateLimiter rateLimiter;
+    private final LocationSearchIndex searchIndex;
+    private final LocationSpatialIndex spatialIndex;
+    private final LocationChangeTracker changeTracker;
+    private final ThreadPoolExecutor executor;
+    private final int geocodeConcurrency;
+
+    @Autowired
+    public LocationImportService(LocationRepository locationRepository,
+                                 GeocodingService geocodingService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 UpstreamRateLimiter rateLimiter,
+                                 LocationSearchIndex searchIndex,
+                                 LocationSpatialIndex spatialIndex,
+                                 LocationChangeTracker changeTracker,
+                                 @Value("${weather.import.geocode-threads:8}") int geocodeThreads,
+                                 @Value("${weather.import.geocode-concurrency:4}") int geocodeConcurrency) {
+        this.locationRepository = locationRepository;
+        this.geocodingService = geocodingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rateLimiter = rateLimiter;
+        this.searchIndex = searchIndex;
+        this.spatialIndex = spatialIndex;
+        this.changeTracker = changeTracker;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(geocodeThreads, geocodeThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(GEOCODE_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "location-import-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.geocodeConcurrency = geocodeConcurrency;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * How long importing the rows may take: every row without coordinates may need an upstream geocoding
+     * call under the rate limit, which other callers share, so twice that plus a minute.
+     */
+    public Duration estimateTimeout(List<LocationImportRow> rows) {
+        long geocodeCalls = rows.stream().filter(row -> row.getLatitude() == null || row.getLongitude() == null).count();
+        return Duration.ofMinutes(1).plusNanos(2 * geocodeCalls * rateLimiter.getIntervalNanos());
+    }
+
+    public LocationImportSummary importLocations(List<LocationImportRow> rows, Consumer<LocationImportResult> results) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(results);
+
+        List<PendingRow> accepted = new ArrayList<>();
+        Map<String, Integer> rowByKey = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow row = new PendingRow(i + 1, rows.get(i));
+            String error = validate(row);
+            if (error != null) {
+                run.emit(row, Status.FAILED, null, error);
+                continue;
+            }
+            Integer firstRow = rowByKey.putIfAbsent(row.key(), row.number);
+            if (firstRow != null) {
+                run.emit(row, Status.DUPLICATE, null, "Duplicate of row " + firstRow);
+                continue;
+            }
+            accepted.add(row);
+        }
+
+        Set<String> existingKeys = findExistingKeys(accepted);
+        List<PendingRow> ready = new ArrayList<>();
+        List<PendingRow> needGeocode = new ArrayList<>();
+        for (PendingRow row : accepted) {
+            if (existingKeys.contains(row.key())) {
+                run.emit(row, Status.EXISTS, null, "Location already exists");
+            } else if (row.latitude != null && row.longitude != null) {
+                ready.add(row);
+            } else {
+                needGeocode.add(row);
+            }
+        }
+
+        CompletionService<PendingRow> geocoded = new ExecutorCompletionService<>(executor);
+        Iterator<PendingRow> toGeocode = needGeocode.iterator();
+        List<Future<PendingRow>> submitted = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.max(1, geocodeConcurrency) && toGeocode.hasNext(); i++) {
+                PendingRow row = toGeocode.next();
+                submitted.add(geocoded.submit(() -> geocode(row)));
+            }
+
+            for (int from = 0; from < ready.size(); from += BATCH_SIZE) {
+                insertChunk(ready.subList(from, Math.min(from + BATCH_SIZE, ready.size())), run);
+            }
+
+            List<PendingRow> resolved = new ArrayList<>();
+            for (int remaining = needGeocode.size(); remaining > 0; remaining--) {
+                PendingRow row = take(geocoded);
+                if (toGeocode.hasNext()) {
+                    PendingRow next = toGeocode.next();
+                    submitted.add(geocoded.submit(() -> geocode(next)));
+                }
+                if (row.error != null) {
+                    run.emit(row, Status.FAILED, null, row.error);
+                    continue;
+                }
+                run.geocoded++;
+                Integer firstRow = rowByKey.putIfAbsent(row.key(), row.number);
+                if (firstRow != null && firstRow != row.number) {
+                    run.emit(row, Status.DUPLICATE, null, "Duplicate of row " + firstRow);
+                    continue;
+                }
+                resolved.add(row);
+                if (resolved.size() == BATCH_SIZE) {
+                    insertResolvedChunk(resolved, run);
+                    resolved.clear();
+                }
+            }
+            insertResolvedChunk(resolved, run);
+        } finally {
+            submitted.forEach(future -> future.cancel(true));
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        LocationImportSummary summary = new LocationImportSummary();
+        summary.setTotal(rows.size());
+        summary.setCreated(run.created);
+        summary.setDuplicates(run.duplicates);
+        summary.setExisting(run.existing);
+        summary.setFailed(run.failed);
+        summary.setGeocoded(run.geocoded);
+        summary.setElapsedMs(elapsedNanos / 1_000_000);
+        summary.setRowsPerSecond(elapsedNanos > 0 ? rows.size() * 1e9 / elapsedNanos : rows.size());
+        return summary;
+    }
+
+    /**
+     * Parses CSV with a header row naming the columns (cityName, countryCode, latitude, longitude,
+     * displayName, isFavorite; any order, case-insensitive). Fields may be double-quoted.
+     */
+    public static List<LocationImportRow> parseCsv(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String header = lines.readLine();
+        if (header == null) {
+            return List.of();
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (String column : splitCsvLine(header)) {
+            columns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        if (!columns.contains("cityname") || !columns.contains("countrycode")) {
+            throw new IllegalArgumentException("CSV header must include cityName and countryCode");
+        }
+
+        List<LocationImportRow> rows = new ArrayList<>();
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = splitCsvLine(line);
+            LocationImportRow row = new LocationImportRow();
+            for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                String value = values.get(i).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                switch (columns.get(i)) {
+                    case "cityname" -> row.setCityName(value);
+                    case "countrycode" -> row.setCountryCode(value);
+                    case "latitude" -> row.setLatitude(parseDouble(value));
+                    case "longitude" -> row.setLongitude(parseDouble(value));
+                    case "displayname" -> row.setDisplayName(value);
+                    case "isfavorite" -> row.setIsFavorite(Boolean.parseBoolean(value));
+                    default -> { }
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String validate(PendingRow row) {
+        if (row.cityName == null || row.cityName.isBlank()) {
+            return "City name is required";
+        }
+        if (row.countryCode == null || row.countryCode.isBlank()) {
+            return "Country code is required";
+        }
+        if (row.countryCode.length() != 2) {
+            return "Country code must be 2 characters";
+        }
+        if (row.latitude != null && (row.latitude.isNaN() || row.latitude < -90 || row.latitude > 90)) {
+            return "Invalid latitude";
+        }
+        if (row.longitude != null && (row.longitude.isNaN() || row.longitude < -180 || row.longitude > 180)) {
+            return "Invalid longitude";
+        }
+        return null;
+    }
+
+    private PendingRow geocode(PendingRow row) {
+        try {
+            GeocodeCacheEntry geocode = geocodingService.findCached(row.cityName, row.countryCode).orElse(null);
+            if (geocode == null) {
+                rateLimiter.acquire();
+                geocode = geocodingService.resolve(row.cityName, row.countryCode);
+            }
+            row.cityName = geocode.getCityName();
+            row.countryCode = geocode.getCountryCode();
+            row.latitude = geocode.getLatitude();
+            row.longitude = geocode.getLongitude();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            row.error = "Import interrupted";
+        } catch (Exception e) {
+            row.error = e.getMessage();
+        }
+        return row;
+    }
+
+    private static PendingRow take(CompletionService<PendingRow> geocoded) {
+        try {
+            Future<PendingRow> next = geocoded.take();
+            return next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Location import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Geocoding failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void insertResolvedChunk(List<PendingRow> rows, ImportRun run) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> existingKeys = findExistingKeys(rows);
+        List<PendingRow> fresh = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            if (existingKeys.contains(row.key())) {
+                run.emit(row, Status.EXISTS, null, "Location already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        insertChunk(fresh, run);
+    }
+
+    private void insertChunk(List<PendingRow> rows, ImportRun run) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            batch.add(new Object[] {
+                row.cityName, row.countryCode, row.latitude, row.longitude,
+                row.displayName != null ? row.displayName : row.cityName + ", " + row.countryCode,
+                row.isFavorite != null ? row.isFavorite : false,
+                now,
+                now
+            });
+        }
+
+        Map<String, Location> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                changeTracker.markChanged();
+                return findByKey(rows);
+            });
+        } catch (RuntimeException e) {
+            for (PendingRow row : rows) {
+                run.emit(row, Status.FAILED, null, "Insert failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        for (PendingRow row : rows) {
+            Location location = inserted.get(row.key());
+            if (location == null) {
+                run.emit(row, Status.FAILED, null, "Inserted row could not be read back");
+                continue;
+            }
+            searchIndex.index(location.getId(), location.getCityName(), location.getDisplayName());
+            spatialIndex.add(location.getId(), location.getLatitude(), location.getLongitude());
+            run.emit(row, Status.CREATED, location.getId(), null);
+        }
+    }
+
+    private Set<String> findExistingKeys(Collection<PendingRow> rows) {
+        return new HashSet<>(findByKey(rows).keySet());
+    }
+
+    private Map<String, Location> findByKey(Collection<PendingRow> rows) {
+        Set<String> cityNames = new LinkedHashSet<>();
+        for (PendingRow row : rows) {
+            cityNames.add(row.cityName);
+        }
+
+        List<String> names = new ArrayList<>(cityNames);
+        Map<String, Location> byKey = new HashMap<>();
+        for (int from = 0; from < names.size(); from += BATCH_SIZE) {
+            for (Location location : locationRepository.findByCityNameIn(names.subList(from, Math.min(from + BATCH_SIZE, names.size())))) {
+                byKey.merge(key(location.getCityName(), location.getCountryCode()), location,
+                    (a, b) -> a.getId() > b.getId() ? a : b);
+            }
+        }
+        return byKey;
+    }
+
+    private static String key(String cityName, String countryCode) {
+        return cityName + '\u0000' + countryCode;
+    }
+
+    private static final class PendingRow {
+        private final int number;
+        private String cityName;
+        private String countryCode;
+        private Double latitude;
+        private Double longitude;
+        private final String displayName;
+        private final Boolean isFavorite;
+        private String error;
+
+        PendingRow(int number, LocationImportRow source) {
+            this.number = number;
+            this.cityName = source.getCityName() != null ? source.getCityName().trim() : null;
+            this.countryCode = source.getCountryCode() != null ? source.getCountryCode().trim() : null;
+            this.latitude = source.getLatitude();
+            this.longitude = source.getLongitude();
+            this.displayName = source.getDisplayName();
+            this.isFavorite = source.getIsFavorite();
+        }
+
+        String key() {
+            return LocationImportService.key(cityName, countryCode);
+        }
+    }
+
+    private static final class ImportRun {
+        private final Consumer<LocationImportResult> results;
+        private int created;
+        private int duplicates;
+        private int existing;
+        private int failed;
+        private int geocoded;
+
+        ImportRun(Consumer<LocationImportResult> results) {
+            this.results = results;
+        }
+
+        void emit(PendingRow row, Status status, Long id, String message) {
+            switch (status) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case EXISTS -> existing++;
+                case FAILED -> failed++;
+            }
+            results.accept(new LocationImportResult(row.number, row.cityName, row.countryCode, status, id, message));
+        }
+    }
+}
@@ -1,50 +1,124 @@
 package com.weatherapp.service;
 
-import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.dto.GazetteerCity;
+import com.weatherapp.entity.GeocodeCacheEntry;
 import com.weatherapp.entity.Location;
 import com.weatherapp.repository.LocationRepository;
-import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.index.LocationSearchIndex;
+import com.weatherapp.index.LocationSpatialIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class LocationService implements LocationServiceInterface {
     
+    private static final int ID_BATCH_SIZE = 1000;
+    public static final Duration SYNC_INTERVAL = Duration.ofHours(6);
+    
     private final LocationRepository locationRepository;
-    private final OpenWeatherMapClient weatherClient;
-    private final String apiKey;
+    private final GeocodingService geocodingService;
+    private final LocationSearchIndex searchIndex;
+    private final LocationSpatialIndex spatialIndex;
+    private final LocationChangeTracker changeTracker;
+    private final WeatherVersionMap weatherVersions;
     
     @Autowired
     public LocationService(LocationRepository locationRepository, 
-                          OpenWeatherMapClient weatherClient,
-                          String apiKey) {
+                          GeocodingService geocodingService,
+                          LocationSearchIndex searchIndex,
+                          LocationSpatialIndex spatialIndex,
+                          LocationChangeTracker changeTracker,
+                          WeatherVersionMap weatherVersions) {
         this.locationRepository = locationRepository;
-        this.weatherClient = weatherClient;
-        this.apiKey = apiKey;
+        this.geocodingService = geocodingService;
+        this.searchIndex = searchIndex;
+        this.spatialIndex = spatialIndex;
+        this.changeTracker = changeTracker;
+        this.weatherVersions = weatherVersions;
     }
     
+    @Transactional(readOnly = true)
     public List<Location> getAllLocations() {
         return locationRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<Location> getLocationsPage(Long afterId, int limit) {
+        return locationRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, PageRequest.of(0, limit));
+    }
+    
+    public String getLocationsETag() {
+        return changeTracker.currentETag();
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Location> getLocationById(Long id) {
         return locationRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public List<Location> getFavoriteLocations() {
         return locationRepository.findByIsFavoriteTrue();
     }
     
+    @Transactional(readOnly = true)
     public List<Location> searchLocations(String searchTerm) {
-        return locationRepository.findBySearchTerm(searchTerm);
+        if (!searchIndex.isReady()) {
+            return locationRepository.findBySearchTerm(searchTerm);
+        }
+        
+        return findAllInOrder(searchIndex.search(searchTerm));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Location> findNearestLocations(double latitude, double longitude, int limit) {
+        if (!spatialIndex.isReady()) {
+            List<Location> locations = new ArrayList<>(locationRepository.findAll());
+            locations.sort(Comparator.comparingDouble(location -> LocationSpatialIndex.distanceKm(
+                latitude, longitude, location.getLatitude(), location.getLongitude())));
+            return locations.subList(0, Math.min(Math.max(limit, 0), locations.size()));
+        }
+        
+        List<Long> ids = new ArrayList<>();
+        for (LocationSpatialIndex.Neighbor neighbor : spatialIndex.nearest(latitude, longitude, limit)) {
+            ids.add(neighbor.id());
+        }
+        return findAllInOrder(ids);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Location> findLocationsWithin(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int limit) {
+        if (!spatialIndex.isReady()) {
+            List<Location> locations = new ArrayList<>();
+            if (minLongitude <= maxLongitude) {
+                locations.addAll(locationRepository.findByLatitudeBetweenAndLongitudeBetween(minLatitude, maxLatitude, minLongitude, maxLongitude));
+            } else {
+                locations.addAll(locationRepository.findByLatitudeBetweenAndLongitudeBetween(minLatitude, maxLatitude, minLongitude, 180.0));
+                locations.addAll(locationRepository.findByLatitudeBetweenAndLongitudeBetween(minLatitude, maxLatitude, -180.0, maxLongitude));
+            }
+            return locations.subList(0, Math.min(Math.max(limit, 0), locations.size()));
+        }
+        
+        return findAllInOrder(spatialIndex.withinBoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude, limit));
+    }
+    
+    public List<GazetteerCity> autocompleteCities(String prefix, String countryCode, int limit) {
+        return geocodingService.autocomplete(prefix, countryCode, limit);
     }
     
-    @Transactional
     public Location addLocation(String cityName, String countryCode, Double latitude, Double longitude, String displayName, Boolean isFavorite) {
         if (locationRepository.existsByCityNameAndCountryCode(cityName, countryCode)) {
             throw new IllegalArgumentException("Location already exists");
@@ -61,29 +135,33 @@ public class LocationService implements LocationServiceInterface {
             location.setDisplayName(displayName != null ? displayName : cityName + ", " + countryCode);
             location.setIsFavorite(isFavorite != null ? isFavorite : false);
         } else {
-            // Otherwise, fetch from the API
-            try {
-                OpenWeatherResponse weatherResponse = weatherClient.getCurrentWeather(
-                    cityName + "," + countryCode, apiKey, "metric");
+            // Otherwise resolve through the geocode cache, outside any transaction so the upstream call holds no connection
+            GeocodeCacheEntry geocode = geocodingService.resolve(cityName, countryCode);
 
-                location.setCityName(weatherResponse.getName());
-                location.setCountryCode(weatherResponse.getSys().getCountry());
-                location.setLatitude(weatherResponse.getCoord().getLat());
-                location.setLongitude(weatherResponse.getCoord().getLon());
-                location.setDisplayName(displayName != null ? displayName : weatherResponse.getName() + ", " + weatherResponse.getSys().getCountry());
-                location.setIsFavorite(isFavorite != null ? isFavorite : false);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to fetch location data from API: " + e.getMessage(), e);
-            }
+            location.setCityName(geocode.getCityName());
+            location.setCountryCode(geocode.getCountryCode());
+            location.setLatitude(geocode.getLatitude());
+            location.setLongitude(geocode.getLongitude());
+            location.setDisplayName(displayName != null ? displayName : geocode.getCityName() + ", " + geocode.getCountryCode());
+            location.setIsFavorite(isFavorite != null ? isFavorite : false);
         }
 
-        return locationRepository.save(location);
+        Location saved = locationRepository.save(location);
+        searchIndex.index(saved.getId(), saved.getCityName(), saved.getDisplayName());
+        spatialIndex.add(saved.getId(), saved.getLatitude(), saved.getLongitude());
+        onRollback(() -> {
+            searchIndex.remove(saved.getId());
+            spatialIndex.remove(saved.getId());
+        });
+        changeTracker.markChanged();
+        return saved;
     }
     
     @Transactional
     public Location updateLocation(Long id, Location locationDetails) {
         Location location = locationRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Location not found with id: " + id));
+        String previousDisplayName = location.getDisplayName();
         
         if (locationDetails.getDisplayName() != null) {
             location.setDisplayName(locationDetails.getDisplayName());
@@ -92,7 +170,11 @@ public class LocationService implements LocationServiceInterface {
             location.setIsFavorite(locationDetails.getIsFavorite());
         }
         
-        return locationRepository.save(location);
+        Location saved = locationRepository.save(location);
+        searchIndex.index(id, saved.getCityName(), saved.getDisplayName());
+        onRollback(() -> searchIndex.index(id, saved.getCityName(), previousDisplayName));
+        changeTracker.markChanged();
+        return saved;
     }
     
     
@@ -102,6 +184,12 @@ public class LocationService implements LocationServiceInterface {
             throw new IllegalArgumentException("Location not found with id: " + id);
         }
         locationRepository.deleteById(id);
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            spatialIndex.remove(id);
+            weatherVersions.forget(id);
+        });
+        changeTracker.markChanged();
     }
     
     @Transactional
@@ -110,19 +198,70 @@ public class LocationService implements LocationServiceInterface {
             .orElseThrow(() -> new IllegalArgumentException("Location not found with id: " + id));
         
         location.setIsFavorite(!location.getIsFavorite());
-        return locationRepository.save(location);
+        Location saved = locationRepository.save(location);
+        changeTracker.markChanged();
+        return saved;
     }
     
     @Transactional
-    public void updateLastSyncTime(Long locationId) {
+    public void updateLastSyncTime(Long locationId, LocalDateTime snapshotTimestamp) {
         Location location = locationRepository.findById(locationId)
             .orElseThrow(() -> new IllegalArgumentException("Location not found with id: " + locationId));
         
-        location.setLastSyncAt(LocalDateTime.now());
+        // Called in the same transaction that saves the snapshot, so the sync-state columns stay consistent with it
+        location.setLastSyncAt(snapshotTimestamp);
+        location.setLastSnapshotAt(snapshotTimestamp);
+        location.setNextSyncDueAt(snapshotTimestamp.plus(SYNC_INTERVAL));
         locationRepository.save(location);
+        changeTracker.markChanged();
     }
     
     public List<Location> getLocationsNeedingSync() {
         return locationRepository.findLocationsNeedingSync();
     }
+    
+    private List<Location> findAllInOrder(List<Long> ids) {
+        Map<Long, Location> byId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            for (Location location : locationRepository.findAllById(ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size())))) {
+                byId.put(location.getId(), location);
+            }
+        }
+        
+        List<Location> locations = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            Location location = byId.get(id);
+            if (location != null) {
+                locations.add(location);
+            }
+        }
+        return locations;
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
 }
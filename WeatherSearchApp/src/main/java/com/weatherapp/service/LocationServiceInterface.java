@@ -1,7 +1,9 @@
 package com.weatherapp.service;
 
+import com.weatherapp.dto.GazetteerCity;
 import com.weatherapp.entity.Location;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,12 +11,22 @@ public interface LocationServiceInterface {
     
     List<Location> getAllLocations();
     
+    List<Location> getLocationsPage(Long afterId, int limit);
+    
+    String getLocationsETag();
+    
     Optional<Location> getLocationById(Long id);
     
     List<Location> getFavoriteLocations();
     
     List<Location> searchLocations(String searchTerm);
     
+    List<Location> findNearestLocations(double latitude, double longitude, int limit);
+    
+    List<Location> findLocationsWithin(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int limit);
+    
+    List<GazetteerCity> autocompleteCities(String prefix, String countryCode, int limit);
+    
     Location addLocation(String cityName, String countryCode, Double latitude, Double longitude, String displayName, Boolean isFavorite);
     
     Location updateLocation(Long id, Location locationDetails);
@@ -23,7 +35,7 @@ public interface LocationServiceInterface {
     
     Location toggleFavorite(Long id);
     
-    void updateLastSyncTime(Long locationId);
+    void updateLastSyncTime(Long locationId, LocalDateTime snapshotTimestamp);
     
     List<Location> getLocationsNeedingSync();
 }
@@ -0,0 +1,185 @@
+package com.weatherapp.service;
+
+import com.weatherapp.dto.SnapshotChangePage;
+import com.weatherapp.dto.WeatherSnapshotChange;
+import com.weatherapp.repository.WeatherSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every stored snapshot, across all locations, in id order after a cursor. Snapshot ids come from an
+ * identity column, so a transaction that commits late can make a lower id appear after a higher one was
+ * read. Pages therefore end at a frontier: the highest id up to which every snapshot is committed and
+ * settled. The frontier stops at the first snapshot whose {@code timestamp} is less than
+ * {@code weather.changes.settle-ms} old, and at the first missing id. A missing id is either still
+ * uncommitted or was rolled back or deleted. The frontier waits {@code weather.changes.gap-timeout-ms}
+ * on this instance's own clock before it moves past one, so neither clock skew between instances nor a
+ * commit slower than the settle window drops a snapshot. The feed reads from the primary: a lagging
+ * replica would show gaps that are not there.
+ *
+ * Long polls are parked without a thread. One ticker thread moves the frontier every
+ * {@code weather.changes.poll-ms}, whichever instance wrote the snapshots, and answers the waiters that
+ * are behind it. At most {@code weather.changes.max-waiters} polls wait at a time; beyond that, an empty
+ * page comes back at once.
+ */
+@Service
+public class SnapshotChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotChangeFeed.class);
+    private static final int SCAN_BATCH = 1000;
+
+    private final WeatherSnapshotRepository weatherRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long settleMillis;
+    private final long gapTimeoutNanos;
+    private final int maxWaiters;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "weather-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // -1 until the first snapshot is seen
+    private volatile long frontier = -1;
+    private long gapAfter = -1;
+    private long gapSince;
+
+    @Autowired
+    public SnapshotChangeFeed(WeatherSnapshotRepository weatherRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${weather.changes.settle-ms:2000}") long settleMillis,
+                              @Value("${weather.changes.gap-timeout-ms:30000}") long gapTimeoutMillis,
+                              @Value("${weather.changes.poll-ms:1000}") long pollMillis,
+                              @Value("${weather.changes.max-waiters:1000}") int maxWaiters) {
+        this.weatherRepository = weatherRepository;
+        // Not read-only, so the routing data source keeps these queries on the primary
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settleMillis = settleMillis;
+        this.gapTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(gapTimeoutMillis);
+        this.maxWaiters = maxWaiters;
+        ticker.scheduleWithFixedDelay(this::tick, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SnapshotChangePage getChanges(long after, int limit) {
+        return transactionTemplate.execute(status -> {
+            advance();
+            return page(after, limit);
+        });
+    }
+
+    /**
+     * Like {@link #getChanges}, but if nothing is available yet the result is completed when changes
+     * arrive or, with an empty page, after {@code waitMillis}.
+     */
+    public DeferredResult<SnapshotChangePage> awaitChanges(long after, int limit, long waitMillis) {
+        DeferredResult<SnapshotChangePage> result = new DeferredResult<>(waitMillis, () -> SnapshotChangePage.empty(after));
+        SnapshotChangePage page = getChanges(after, limit);
+        if (!page.changes().isEmpty() || waitMillis <= 0 || waiters.size() >= maxWaiters) {
+            result.setResult(page);
+            return result;
+        }
+        Waiter waiter = new Waiter(after, limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    int getWaiterCount() {
+        return waiters.size();
+    }
+
+    void tick() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long latest = advance();
+                for (Waiter waiter : waiters) {
+                    if (waiter.after() < latest && !waiter.result().isSetOrExpired()) {
+                        SnapshotChangePage page = page(waiter.after(), waiter.limit());
+                        if (!page.changes().isEmpty()) {
+                            waiters.remove(waiter);
+                            waiter.result().setResult(page);
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to check the snapshot change feed: {}", e.getMessage());
+        }
+    }
+
+    private SnapshotChangePage page(long after, int limit) {
+        long upTo = frontier;
+        if (upTo <= after) {
+            return SnapshotChangePage.empty(after);
+        }
+        List<WeatherSnapshotChange> changes = weatherRepository.findChangesAfter(after, upTo, PageRequest.of(0, limit + 1));
+        if (changes.isEmpty()) {
+            return SnapshotChangePage.empty(after);
+        }
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        return new SnapshotChangePage(changes, changes.get(changes.size() - 1).id(), hasMore);
+    }
+
+    /**
+     * Moves the frontier over consecutive settled ids and returns it. The first call starts it below the
+     * oldest unsettled snapshot, or at the newest one when all have settled.
+     */
+    private synchronized long advance() {
+        LocalDateTime visibleBefore = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(settleMillis));
+        if (frontier < 0) {
+            Optional<Long> unsettled = weatherRepository.findFirstUnsettledIdAfter(0L, visibleBefore);
+            Optional<Long> start = unsettled.isPresent() ? Optional.of(unsettled.get() - 1) : weatherRepository.findMaxId();
+            start.ifPresent(id -> frontier = id);
+            return frontier;
+        }
+        long stop = weatherRepository.findFirstUnsettledIdAfter(frontier, visibleBefore).orElse(Long.MAX_VALUE);
+        List<Long> ids;
+        do {
+            ids = weatherRepository.findIdsBetween(frontier, stop, PageRequest.of(0, SCAN_BATCH));
+            for (Long id : ids) {
+                if (id != frontier + 1 && !gapTimedOut()) {
+                    return frontier;
+                }
+                frontier = id;
+            }
+        } while (ids.size() == SCAN_BATCH);
+        return frontier;
+    }
+
+    private boolean gapTimedOut() {
+        long now = System.nanoTime();
+        if (gapAfter != frontier) {
+            gapAfter = frontier;
+            gapSince = now;
+        }
+        return now - gapSince >= gapTimeoutNanos;
+    }
+
+    private record Waiter(long after, int limit, DeferredResult<SnapshotChangePage> result) {
+    }
+}
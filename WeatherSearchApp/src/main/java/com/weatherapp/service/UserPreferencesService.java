@@ -3,26 +3,57 @@ package com.weatherapp.service;
 import com.weatherapp.entity.UserPreferences;
 import com.weatherapp.repository.UserPreferencesRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Serves preferences from memory. A miss reads the row once, or builds unsaved defaults for users who
+ * never saved any, so a GET never writes; updates replace the cached copy once they commit. The cache
+ * keeps the {@code weather.preferences.cache-size} most recently used users, so a burst of unknown ids
+ * only pushes out entries that are read again afterwards.
+ */
 @Service
 @Transactional
 public class UserPreferencesService {
     
     private final UserPreferencesRepository preferencesRepository;
+    private final Map<String, UserPreferences> cache;
     
     @Autowired
-    public UserPreferencesService(UserPreferencesRepository preferencesRepository) {
+    public UserPreferencesService(UserPreferencesRepository preferencesRepository,
+                                  @Value("${weather.preferences.cache-size:10000}") int maxCachedUsers) {
         this.preferencesRepository = preferencesRepository;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserPreferences> eldest) {
+                return size() > maxCachedUsers;
+            }
+        });
     }
     
+    /**
+     * Runs without a transaction of its own, so a cache hit touches no connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserPreferences getUserPreferences(String userId) {
-        return preferencesRepository.findByUserId(userId)
+        UserPreferences cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        UserPreferences preferences = preferencesRepository.findByUserId(userId)
             .orElseGet(() -> createDefaultPreferences(userId));
+        // An update committed meanwhile has already put the newer copy, which must win
+        UserPreferences raced = cache.putIfAbsent(userId, preferences);
+        return raced != null ? raced : preferences;
     }
     
     public UserPreferences updateUserPreferences(String userId, UserPreferences preferences) {
@@ -51,7 +82,24 @@ public class UserPreferencesService {
         
         existing.setUpdatedAt(LocalDateTime.now());
         
-        return preferencesRepository.save(existing);
+        UserPreferences saved = preferencesRepository.save(existing);
+        cacheAfterCommit(userId, saved);
+        return saved;
+    }
+    
+    private void cacheAfterCommit(String userId, UserPreferences preferences) {
+        Runnable replace = () -> cache.put(userId, preferences);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replace.run();
+            return;
+        }
+        // Readers keep the old copy until commit; a rollback leaves the cache untouched
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replace.run();
+            }
+        });
     }
     
     private UserPreferences createDefaultPreferences(String userId) {
@@ -62,6 +110,6 @@ public class UserPreferencesService {
         preferences.setRefreshInterval(30);
         preferences.setAutoRefresh(true);
         
-        return preferencesRepository.save(preferences);
+        return preferences;
     }
 }
@@ -0,0 +1,274 @@
+package com.weatherapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.dto.WeatherSnapshotEvent;
+import com.weatherapp.entity.WeatherSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes newly synced snapshots to Server-Sent Events subscribers. Connections are async servlet
+ * requests, so an idle subscriber holds no thread; a single dispatcher thread serializes each event
+ * once and queues it for every subscriber of the location, keeping sync callers off the network.
+ * Each subscriber's queue is written out on the application task executor independently of the others,
+ * so a slow client only delays itself. One that falls {@code weather.events.queue-size} events behind is
+ * disconnected; browsers reconnect on their own. In-process listeners, such as gRPC subscription streams,
+ * are called on the dispatcher thread.
+ */
+@Component
+public class WeatherEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherEventBroadcaster.class);
+
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor writer;
+    private final long timeoutMillis;
+    private final int queueSize;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<SseEmitter, Subscriber> connections = new ConcurrentHashMap<>();
+    private final Map<Long, Set<BiConsumer<Long, WeatherSnapshot>>> listeners = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "weather-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public WeatherEventBroadcaster(ObjectMapper objectMapper,
+                                   @Qualifier("applicationTaskExecutor") AsyncTaskExecutor writer,
+                                   @Value("${weather.events.timeout-minutes:30}") long timeoutMinutes,
+                                   @Value("${weather.events.queue-size:32}") int queueSize) {
+        this.objectMapper = objectMapper;
+        this.writer = writer;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.queueSize = Math.max(1, queueSize);
+    }
+
+    /**
+     * Opens a stream of {@code snapshot} events for the given locations. Browsers reconnect on their
+     * own when the stream times out.
+     */
+    public SseEmitter subscribe(Collection<Long> locationIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, List.copyOf(locationIds));
+        emitter.onCompletion(subscriber::unsubscribe);
+        // Completing on timeout ends the stream normally instead of raising an async timeout error
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.unsubscribe());
+
+        connections.put(emitter, subscriber);
+        for (Long id : subscriber.locationIds) {
+            subscribers.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Registers a callback for snapshots of the given locations and returns the action that removes it.
+     * Callbacks run on the dispatcher thread and must not block.
+     */
+    public Runnable addListener(Collection<Long> locationIds, BiConsumer<Long, WeatherSnapshot> listener) {
+        List<Long> ids = List.copyOf(locationIds);
+        for (Long id : ids) {
+            listeners.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(listener);
+        }
+        return () -> {
+            for (Long id : ids) {
+                listeners.computeIfPresent(id, (key, callbacks) -> {
+                    callbacks.remove(listener);
+                    return callbacks.isEmpty() ? null : callbacks;
+                });
+            }
+        };
+    }
+
+    /**
+     * Announces a saved snapshot. Inside a transaction the event goes out only after commit.
+     */
+    public void publish(Long locationId, WeatherSnapshot snapshot) {
+        Runnable dispatch = () -> dispatcher.execute(() -> send(locationId, snapshot));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch.run();
+            }
+        });
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Keeps idle connections alive through proxies and finds subscribers that went away without closing.
+     */
+    @Scheduled(fixedRateString = "${weather.events.heartbeat-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        if (connections.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+            for (Subscriber subscriber : connections.values()) {
+                subscriber.offer(ping);
+            }
+        });
+    }
+
+    private void send(Long locationId, WeatherSnapshot snapshot) {
+        notifyListeners(locationId, snapshot);
+        Set<Subscriber> targets = subscribers.get(locationId);
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> event;
+        try {
+            event = SseEmitter.event()
+                .name("snapshot")
+                .id(String.valueOf(snapshot.getId()))
+                .data(objectMapper.writeValueAsString(new WeatherSnapshotEvent(locationId, snapshot)), MediaType.APPLICATION_JSON)
+                .build();
+        } catch (Exception e) {
+            logger.error("Failed to serialize snapshot event for location {}: {}", locationId, e.getMessage());
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(event);
+        }
+    }
+
+    private void notifyListeners(Long locationId, WeatherSnapshot snapshot) {
+        Set<BiConsumer<Long, WeatherSnapshot>> callbacks = listeners.get(locationId);
+        if (callbacks == null) {
+            return;
+        }
+        for (BiConsumer<Long, WeatherSnapshot> callback : callbacks) {
+            try {
+                callback.accept(locationId, snapshot);
+            } catch (Exception e) {
+                logger.warn("Snapshot listener for location {} failed: {}", locationId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One SSE connection and the events not yet written to it. At most one drain task per subscriber
+     * runs at a time, so its events stay in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final List<Long> locationIds;
+        private final Deque<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, List<Long> locationIds) {
+            this.emitter = emitter;
+            this.locationIds = locationIds;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= queueSize) {
+                    // The drain task still writing to this client completes it once that write returns
+                    logger.info("Disconnecting event subscriber {} events behind", pending.size());
+                    closed = true;
+                    pending.clear();
+                    unsubscribe();
+                    return;
+                }
+                pending.add(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                writer.execute(this::drain);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                    pending.clear();
+                }
+                logger.warn("Failed to schedule event delivery: {}", e.getMessage());
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                synchronized (this) {
+                    event = closed ? null : pending.poll();
+                    if (event == null) {
+                        draining = false;
+                        break;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (Exception e) {
+                    // The client is gone; stop writing to it before the container reports the completion
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+            if (isClosed()) {
+                emitter.complete();
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            unsubscribe();
+        }
+
+        void unsubscribe() {
+            connections.remove(emitter);
+            for (Long id : locationIds) {
+                subscribers.computeIfPresent(id, (key, targets) -> {
+                    targets.remove(this);
+                    return targets.isEmpty() ? null : targets;
+                });
+            }
+        }
+    }
+}
@@ -2,93 +2,304 @@ package com.weatherapp.service;
 
 import com.weatherapp.dto.ForecastResponse;
 import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.dto.WeatherSnapshotChange;
+import com.weatherapp.dto.WeatherSnapshotView;
 import com.weatherapp.entity.Location;
 import com.weatherapp.entity.WeatherSnapshot;
 import com.weatherapp.repository.WeatherSnapshotRepository;
 import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.metrics.RequestTiming;
+import com.weatherapp.metrics.WeatherMetrics;
+import com.weatherapp.units.UnitConverter;
+import com.weatherapp.units.UnitSystem;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
 public class WeatherService {
     
+    private static final Logger logger = LoggerFactory.getLogger(WeatherService.class);
+    
+    // Bounds the converted-history cache by rows held; least recently used variants are dropped first
+    static final int MAX_CACHED_HISTORY_ROWS = 100_000;
+    // Open bounds for history pages without a since or a previous page
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
     private final WeatherSnapshotRepository weatherRepository;
     private final LocationServiceInterface locationService;
     private final OpenWeatherMapClient weatherClient;
     private final String apiKey;
+    private final WeatherVersionMap versionMap;
+    private final WeatherEventBroadcaster eventBroadcaster;
+    private final WeatherMetrics metrics;
+    private final TransactionTemplate syncTransaction;
+    private final long forecastTtlMillis;
+    private final Map<Long, VersionedForecast> forecasts = new ConcurrentHashMap<>();
+    // Access-ordered; guarded by itself together with cachedHistoryRows
+    private final LinkedHashMap<HistoryKey, HistoryVariant> historyVariants = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedHistoryRows;
     
     @Autowired
     public WeatherService(WeatherSnapshotRepository weatherRepository,
                          LocationServiceInterface locationService,
                          OpenWeatherMapClient weatherClient,
-                         String apiKey) {
+                         String apiKey,
+                         WeatherVersionMap versionMap,
+                         WeatherEventBroadcaster eventBroadcaster,
+                         WeatherMetrics metrics,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${weather.forecast.cache-ttl-minutes:10}") long forecastTtlMinutes) {
         this.weatherRepository = weatherRepository;
         this.locationService = locationService;
         this.weatherClient = weatherClient;
         this.apiKey = apiKey;
+        this.versionMap = versionMap;
+        this.eventBroadcaster = eventBroadcaster;
+        this.metrics = metrics;
+        this.syncTransaction = new TransactionTemplate(transactionManager);
+        this.syncTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.forecastTtlMillis = forecastTtlMinutes * 60_000;
     }
     
+    @Transactional(readOnly = true)
     public WeatherSnapshot getCurrentWeather(Long locationId) {
-        return weatherRepository.findTopByLocationIdOrderByTimestampDesc(locationId)
+        WeatherSnapshot snapshot = weatherRepository.findTopByLocationIdOrderByTimestampDesc(locationId)
             .orElseThrow(() -> new IllegalArgumentException("No weather data found for location"));
+        versionMap.recordSnapshot(locationId, snapshot.getId(), snapshot.getTimestamp());
+        return snapshot;
+    }
+    
+    /**
+     * Latest snapshot per location as projections, keyed in request order; locations without data are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, WeatherSnapshotView> getCurrentWeather(Collection<Long> locationIds) {
+        Map<Long, WeatherSnapshotView> byLocation = new HashMap<>();
+        for (WeatherSnapshotChange latest : weatherRepository.findLatestViewsByLocationIds(locationIds)) {
+            byLocation.put(latest.locationId(), WeatherSnapshotView.of(latest));
+            versionMap.recordSnapshot(latest.locationId(), latest.id(), latest.timestamp());
+        }
+        
+        Map<Long, WeatherSnapshotView> ordered = new LinkedHashMap<>();
+        for (Long locationId : locationIds) {
+            WeatherSnapshotView snapshot = byLocation.get(locationId);
+            if (snapshot != null) {
+                ordered.put(locationId, snapshot);
+            }
+        }
+        return ordered;
+    }
+    
+    /**
+     * Validator of the latest snapshot served or synced for the location, or null when not known in memory.
+     */
+    public WeatherVersionMap.Version getCurrentWeatherVersion(Long locationId) {
+        return versionMap.currentWeather(locationId);
+    }
+    
+    /**
+     * Validator of the cached forecast, or null when there is none or it has expired.
+     */
+    public WeatherVersionMap.Version getForecastVersion(Long locationId) {
+        WeatherVersionMap.Version version = versionMap.forecast(locationId);
+        return version != null && isFresh(version.lastModified()) ? version : null;
     }
     
+    @Transactional(readOnly = true)
     public List<WeatherSnapshot> getWeatherHistory(Long locationId) {
         return weatherRepository.findByLocationIdOrderByTimestampDesc(locationId);
     }
     
+    @Transactional(readOnly = true)
     public List<WeatherSnapshot> getWeatherHistorySince(Long locationId, LocalDateTime since) {
         return weatherRepository.findByLocationIdSince(locationId, since);
     }
     
+    /**
+     * Latest snapshot as a projection for read endpoints; records its version like {@link #getCurrentWeather(Long)}.
+     */
+    @Transactional(readOnly = true)
+    public WeatherSnapshotView getCurrentWeatherView(Long locationId) {
+        return findCurrentWeatherView(locationId)
+            .orElseThrow(() -> new IllegalArgumentException("No weather data found for location"));
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<WeatherSnapshotView> findCurrentWeatherView(Long locationId) {
+        Optional<WeatherSnapshotView> snapshot = weatherRepository.findLatestViewByLocationId(locationId);
+        snapshot.ifPresent(view -> versionMap.recordSnapshot(locationId, view.id(), view.timestamp()));
+        return snapshot;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<WeatherSnapshotView> getWeatherHistoryViews(Long locationId) {
+        return weatherRepository.findViewsByLocationId(locationId);
+    }
+    
+    /**
+     * Full history in the given units. Each unit system's list is cached under the validator of the latest
+     * snapshot it contains and served from memory until a newer snapshot is recorded, so a converted
+     * history is loaded and converted once per sync rather than once per request. The cache holds at most
+     * {@link #MAX_CACHED_HISTORY_ROWS} rows across all lists and drops the least recently read first.
+     */
+    @Transactional(readOnly = true)
+    public List<WeatherSnapshotView> getWeatherHistoryViews(Long locationId, UnitSystem units) {
+        long lookupStart = System.nanoTime();
+        HistoryKey key = new HistoryKey(locationId, units);
+        WeatherVersionMap.Version known = versionMap.currentWeather(locationId);
+        HistoryVariant cached;
+        synchronized (historyVariants) {
+            cached = historyVariants.get(key);
+        }
+        boolean hit = known != null && cached != null && cached.version().equals(known);
+        RequestTiming.recordCacheLookup(hit, System.nanoTime() - lookupStart);
+        if (hit) {
+            return cached.views();
+        }
+        
+        List<WeatherSnapshotView> views = UnitConverter.convert(weatherRepository.findViewsByLocationId(locationId), units);
+        if (!views.isEmpty()) {
+            WeatherSnapshotView latest = views.get(0);
+            versionMap.recordSnapshot(locationId, latest.id(), latest.timestamp());
+            if (views.size() <= MAX_CACHED_HISTORY_ROWS) {
+                cacheHistory(key, new HistoryVariant(
+                    WeatherVersionMap.snapshotVersion(latest.id(), latest.timestamp()), List.copyOf(views)));
+            }
+        }
+        return views;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<WeatherSnapshotView> getWeatherHistoryViewsSince(Long locationId, LocalDateTime since) {
+        return weatherRepository.findViewsByLocationIdSince(locationId, since);
+    }
+    
+    /**
+     * Up to {@code limit} history rows, newest first, that come after {@code after} (the last row of the
+     * previous page, or null for the first). Every page is its own short read, so a caller can pause between
+     * pages without holding a cursor open. A null {@code since} covers the full history.
+     */
+    @Transactional(readOnly = true)
+    public List<WeatherSnapshotView> getHistoryViewPage(Long locationId, LocalDateTime since, WeatherSnapshotView after, int limit) {
+        return weatherRepository.findHistoryPage(locationId,
+            since != null ? since : HISTORY_START,
+            after != null ? after.timestamp() : HISTORY_END,
+            after != null ? after.id() : Long.MAX_VALUE,
+            PageRequest.of(0, limit));
+    }
+    
     public WeatherSnapshot syncWeatherData(Long locationId) {
         Location location = locationService.getLocationById(locationId)
             .orElseThrow(() -> new IllegalArgumentException("Location not found with id: " + locationId));
         
+        Timer.Sample sample = metrics.start();
+        Exception failure = null;
         try {
             OpenWeatherResponse weatherResponse = weatherClient.getCurrentWeatherByCoordinates(
                 location.getLatitude(), location.getLongitude(), apiKey, "metric");
             
             WeatherSnapshot snapshot = convertToWeatherSnapshot(weatherResponse, location);
             snapshot = weatherRepository.save(snapshot);
+            versionMap.recordSnapshot(locationId, snapshot.getId(), snapshot.getTimestamp());
+            eventBroadcaster.publish(locationId, snapshot);
             
-            locationService.updateLastSyncTime(locationId);
+            locationService.updateLastSyncTime(locationId, snapshot.getTimestamp());
             
             return snapshot;
         } catch (Exception e) {
+            failure = e;
             throw new RuntimeException("Failed to sync weather data: " + e.getMessage(), e);
+        } finally {
+            metrics.recordSync(sample, failure);
         }
     }
     
     public ForecastResponse getForecast(Long locationId) {
+        return getVersionedForecast(locationId).forecast();
+    }
+    
+    /**
+     * Returns the forecast together with the validator it was recorded under. Served from memory while
+     * that version is fresh; deleting the location drops the version and with it the cached body.
+     */
+    public VersionedForecast getVersionedForecast(Long locationId) {
+        long lookupStart = System.nanoTime();
+        WeatherVersionMap.Version version = getForecastVersion(locationId);
+        VersionedForecast cached = forecasts.get(locationId);
+        boolean hit = version != null && cached != null && cached.version().equals(version);
+        RequestTiming.recordCacheLookup(hit, System.nanoTime() - lookupStart);
+        if (hit) {
+            return cached;
+        }
+        
         Location location = locationService.getLocationById(locationId)
             .orElseThrow(() -> new IllegalArgumentException("Location not found with id: " + locationId));
         
+        ForecastResponse forecast;
         try {
-            return weatherClient.getForecastByCoordinates(
+            forecast = weatherClient.getForecastByCoordinates(
                 location.getLatitude(), location.getLongitude(), apiKey, "metric");
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch forecast data: " + e.getMessage(), e);
         }
+        
+        VersionedForecast fetched = new VersionedForecast(forecast,
+            versionMap.recordForecast(locationId, System.currentTimeMillis()));
+        forecasts.put(locationId, fetched);
+        return fetched;
+    }
+    
+    /**
+     * The last forecast fetched for the location, however old, without calling the weather API.
+     */
+    public Optional<VersionedForecast> getCachedForecast(Long locationId) {
+        return Optional.ofNullable(forecasts.get(locationId));
     }
     
     public void cleanupOldData() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
-        List<Location> allLocations = locationService.getAllLocations();
-        
-        for (Location location : allLocations) {
-            weatherRepository.deleteByLocationIdAndTimestampBefore(location.getId(), cutoff);
+        Timer.Sample sample = metrics.start();
+        boolean success = false;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+            List<Location> allLocations = locationService.getAllLocations();
+            
+            for (Location location : allLocations) {
+                weatherRepository.deleteByLocationIdAndTimestampBefore(location.getId(), cutoff);
+            }
+            versionMap.forgetCurrentWeather();
+            synchronized (historyVariants) {
+                historyVariants.clear();
+                cachedHistoryRows = 0;
+            }
+            success = true;
+        } finally {
+            metrics.recordCleanup(sample, success);
         }
     }
     
-    private WeatherSnapshot convertToWeatherSnapshot(OpenWeatherResponse response, Location location) {
+    static WeatherSnapshot convertToWeatherSnapshot(OpenWeatherResponse response, Location location) {
         WeatherSnapshot snapshot = new WeatherSnapshot();
         snapshot.setLocation(location);
         snapshot.setTemperature(response.getMain().getTemp());
@@ -117,14 +328,64 @@ public class WeatherService {
         return snapshot;
     }
     
+    /**
+     * Syncs every location. Each location commits in its own transaction, so a snapshot becomes visible
+     * right after it is saved rather than when the whole run ends.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void syncAllLocations() {
-        List<Location> locations = locationService.getAllLocations();
-        for (Location location : locations) {
-            try {
-                syncWeatherData(location.getId());
-            } catch (Exception e) {
-                System.err.println("Failed to sync weather for location " + location.getId() + ": " + e.getMessage());
+        syncLocations(locationService.getAllLocations());
+    }
+    
+    /**
+     * Syncs only the locations whose {@code nextSyncDueAt} has passed, so running this often syncs each
+     * location about once per {@link LocationService#SYNC_INTERVAL}. Commits per location like
+     * {@link #syncAllLocations()}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void syncDueLocations() {
+        syncLocations(locationService.getLocationsNeedingSync());
+    }
+    
+    private void syncLocations(List<Location> locations) {
+        Timer.Sample sample = metrics.start();
+        boolean success = false;
+        try {
+            for (Location location : locations) {
+                try {
+                    syncTransaction.execute(status -> syncWeatherData(location.getId()));
+                } catch (Exception e) {
+                    logger.warn("Failed to sync weather for location {}: {}", location.getId(), e.getMessage());
+                }
+            }
+            success = true;
+        } finally {
+            metrics.recordSyncAll(sample, success);
+        }
+    }
+    
+    private void cacheHistory(HistoryKey key, HistoryVariant variant) {
+        synchronized (historyVariants) {
+            HistoryVariant replaced = historyVariants.put(key, variant);
+            cachedHistoryRows += variant.views().size() - (replaced != null ? replaced.views().size() : 0);
+            Iterator<HistoryVariant> eldest = historyVariants.values().iterator();
+            while (cachedHistoryRows > MAX_CACHED_HISTORY_ROWS) {
+                cachedHistoryRows -= eldest.next().views().size();
+                eldest.remove();
             }
         }
     }
+    
+    private boolean isFresh(long fetchedAt) {
+        return System.currentTimeMillis() - fetchedAt < forecastTtlMillis;
+    }
+    
+    public record VersionedForecast(ForecastResponse forecast, WeatherVersionMap.Version version) {
+    }
+    
+    private record HistoryKey(Long locationId, UnitSystem units) {
+    }
+    
+    private record HistoryVariant(WeatherVersionMap.Version version, List<WeatherSnapshotView> views) {
+    }
 }
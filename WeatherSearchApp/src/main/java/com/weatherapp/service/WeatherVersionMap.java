@@ -0,0 +1,76 @@
+package com.weatherapp.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest known validator per location for current weather and forecast responses, so conditional
+ * requests are answered from memory. A missing entry only means the next request loads the resource
+ * and records it again.
+ */
+@Component
+public class WeatherVersionMap {
+
+    private final Map<Long, Version> current = new ConcurrentHashMap<>();
+    private final Map<Long, Version> forecasts = new ConcurrentHashMap<>();
+
+    public Version currentWeather(Long locationId) {
+        return current.get(locationId);
+    }
+
+    public Version forecast(Long locationId) {
+        return forecasts.get(locationId);
+    }
+
+    /**
+     * Records the snapshot as current unless a newer one is already known. Inside a transaction the
+     * entry is written only after commit, so no client is handed an ETag for a rolled-back snapshot.
+     */
+    public void recordSnapshot(Long locationId, Long snapshotId, LocalDateTime timestamp) {
+        Version version = snapshotVersion(snapshotId, timestamp);
+        Runnable record = () -> current.merge(locationId, version, (known, candidate) ->
+            candidate.sequence() >= known.sequence() ? candidate : known);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+
+    public Version recordForecast(Long locationId, long fetchedAtMillis) {
+        Version version = new Version("\"f" + locationId + "-" + fetchedAtMillis + "\"", fetchedAtMillis, fetchedAtMillis);
+        forecasts.put(locationId, version);
+        return version;
+    }
+
+    public void forget(Long locationId) {
+        current.remove(locationId);
+        forecasts.remove(locationId);
+    }
+
+    public void forgetCurrentWeather() {
+        current.clear();
+    }
+
+    /**
+     * Snapshots are immutable once saved, so the id alone identifies the representation.
+     */
+    public static Version snapshotVersion(Long snapshotId, LocalDateTime timestamp) {
+        long lastModified = timestamp != null ? timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+        return new Version("\"s" + snapshotId + "\"", lastModified, snapshotId != null ? snapshotId : 0);
+    }
+
+    public record Version(String etag, long lastModified, long sequence) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.weatherapp.units;
+
+import com.weatherapp.dto.WeatherSnapshotView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts snapshot views column by column: the converted fields are copied into primitive arrays, with
+ * NaN standing in for null, and each array is scaled in one branch-free loop before the views are
+ * rebuilt. Converted values are rounded to two decimals.
+ */
+public final class UnitConverter {
+
+    private UnitConverter() {}
+
+    public static WeatherSnapshotView convert(WeatherSnapshotView view, UnitSystem units) {
+        return units.isStored() ? view : convert(List.of(view), units).get(0);
+    }
+
+    /**
+     * Returns {@code views} itself for stored units, otherwise a new list in the same order.
+     */
+    public static List<WeatherSnapshotView> convert(List<WeatherSnapshotView> views, UnitSystem units) {
+        if (units.isStored() || views.isEmpty()) {
+            return views;
+        }
+        int size = views.size();
+        double[] temperatures = new double[size];
+        double[] windSpeeds = new double[size];
+        double[] pressures = new double[size];
+        for (int i = 0; i < size; i++) {
+            WeatherSnapshotView view = views.get(i);
+            temperatures[i] = unbox(view.temperature());
+            windSpeeds[i] = unbox(view.windSpeed());
+            pressures[i] = unbox(view.pressure());
+        }
+
+        scale(temperatures, units.temperature().scale, units.temperature().offset);
+        scale(windSpeeds, units.windSpeed().scale, 0);
+        scale(pressures, units.pressure().scale, 0);
+
+        List<WeatherSnapshotView> converted = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            WeatherSnapshotView view = views.get(i);
+            converted.add(new WeatherSnapshotView(view.id(), box(temperatures[i]), view.humidity(), box(pressures[i]),
+                box(windSpeeds[i]), view.windDirection(), view.visibility(), view.uvIndex(), view.weatherMain(),
+                view.weatherDescription(), view.weatherIcon(), view.timestamp(), view.dataTimestamp()));
+        }
+        return converted;
+    }
+
+    static void scale(double[] values, double scale, double offset) {
+        if (scale == 1 && offset == 0) {
+            return;
+        }
+        for (int i = 0; i < values.length; i++) {
+            // rint keeps NaN, so null columns need no branch here
+            values[i] = Math.rint((values[i] * scale + offset) * 100) / 100;
+        }
+    }
+
+    private static double unbox(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double box(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,127 @@
+package com.weatherapp.units;
+
+import com.weatherapp.entity.UserPreferences;
+
+import java.util.Locale;
+
+/**
+ * Units a weather response is expressed in. Snapshots are stored as the weather API returns them with
+ * {@code units=metric}: degrees Celsius, metres per second and hectopascals. Every target unit is a
+ * linear function {@code value * scale + offset} of the stored one.
+ */
+public record UnitSystem(TemperatureUnit temperature, SpeedUnit windSpeed, PressureUnit pressure) {
+
+    public static final UnitSystem METRIC = new UnitSystem(TemperatureUnit.CELSIUS, SpeedUnit.METERS_PER_SECOND, PressureUnit.HECTOPASCAL);
+    public static final UnitSystem IMPERIAL = new UnitSystem(TemperatureUnit.FAHRENHEIT, SpeedUnit.MILES_PER_HOUR, PressureUnit.INCHES_OF_MERCURY);
+    public static final UnitSystem STANDARD = new UnitSystem(TemperatureUnit.KELVIN, SpeedUnit.METERS_PER_SECOND, PressureUnit.HECTOPASCAL);
+
+    /**
+     * Resolves {@code metric}, {@code imperial} or {@code standard}, the names the weather API uses.
+     */
+    public static UnitSystem parse(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "metric":
+                return METRIC;
+            case "imperial":
+                return IMPERIAL;
+            case "standard":
+                return STANDARD;
+            default:
+                throw new IllegalArgumentException("Unknown unit system: " + name);
+        }
+    }
+
+    /**
+     * The units a user picked; unset or unrecognised choices fall back to the stored unit.
+     */
+    public static UnitSystem of(UserPreferences preferences) {
+        return new UnitSystem(
+            TemperatureUnit.fromCode(preferences.getTemperatureUnit()),
+            SpeedUnit.fromCode(preferences.getWindSpeedUnit()),
+            PressureUnit.fromCode(preferences.getPressureUnit()));
+    }
+
+    public boolean isStored() {
+        return equals(METRIC);
+    }
+
+    /**
+     * Stable name of the combination, e.g. {@code fahrenheit-mph-inHg}, for headers and entity tags.
+     */
+    public String key() {
+        return temperature.code + "-" + windSpeed.code + "-" + pressure.code;
+    }
+
+    public enum TemperatureUnit {
+        CELSIUS("celsius", 1, 0),
+        FAHRENHEIT("fahrenheit", 1.8, 32),
+        KELVIN("kelvin", 1, 273.15);
+
+        final String code;
+        final double scale;
+        final double offset;
+
+        TemperatureUnit(String code, double scale, double offset) {
+            this.code = code;
+            this.scale = scale;
+            this.offset = offset;
+        }
+
+        static TemperatureUnit fromCode(String code) {
+            for (TemperatureUnit unit : values()) {
+                if (unit.code.equalsIgnoreCase(code)) {
+                    return unit;
+                }
+            }
+            return CELSIUS;
+        }
+    }
+
+    public enum SpeedUnit {
+        METERS_PER_SECOND("ms", 1),
+        KILOMETERS_PER_HOUR("kmh", 3.6),
+        MILES_PER_HOUR("mph", 2.236936292),
+        KNOTS("knots", 1.943844492);
+
+        final String code;
+        final double scale;
+
+        SpeedUnit(String code, double scale) {
+            this.code = code;
+            this.scale = scale;
+        }
+
+        static SpeedUnit fromCode(String code) {
+            for (SpeedUnit unit : values()) {
+                if (unit.code.equalsIgnoreCase(code)) {
+                    return unit;
+                }
+            }
+            return METERS_PER_SECOND;
+        }
+    }
+
+    public enum PressureUnit {
+        HECTOPASCAL("hPa", 1),
+        KILOPASCAL("kPa", 0.1),
+        INCHES_OF_MERCURY("inHg", 0.0295299831),
+        MILLIMETERS_OF_MERCURY("mmHg", 0.750061683);
+
+        final String code;
+        final double scale;
+
+        PressureUnit(String code, double scale) {
+            this.code = code;
+            this.scale = scale;
+        }
+
+        static PressureUnit fromCode(String code) {
+            for (PressureUnit unit : values()) {
+                if (unit.code.equalsIgnoreCase(code)) {
+                    return unit;
+                }
+            }
+            return HECTOPASCAL;
+        }
+    }
+}
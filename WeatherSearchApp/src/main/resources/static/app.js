@@ -1,4 +1,4 @@
-const { useState, useEffect } = React;
+const { useState, useEffect, useRef } = React;
 
 const API_BASE = '/api';
 
@@ -10,6 +10,7 @@ const WeatherApp = () => {
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState(null);
     const [showAddModal, setShowAddModal] = useState(false);
+    const [conditions, setConditions] = useState({});
     const [preferences, setPreferences] = useState({
         temperatureUnit: 'celsius',
         windSpeedUnit: 'kmh',
@@ -23,23 +24,35 @@ const WeatherApp = () => {
         fetchPreferences();
     }, []);
 
+    const locationIds = locations.map(location => location.id).join(',');
+    const selectedLocationId = useRef(null);
+    selectedLocationId.current = selectedLocation ? selectedLocation.id : null;
+
+    // Live updates: the server pushes each new snapshot as it is synced instead of the client polling
     useEffect(() => {
-        if (!preferences.autoRefresh) return;
-        const interval = setInterval(() => {
-            fetchLocations();
-            if (selectedLocation) {
-                fetchWeatherData(selectedLocation.id);
+        if (!preferences.autoRefresh || !locationIds) return;
+        const events = new EventSource(`${API_BASE}/weather/events?ids=${locationIds}`);
+        events.addEventListener('snapshot', (event) => {
+            const { locationId, snapshot } = JSON.parse(event.data);
+            setConditions(previous => ({
+                ...previous,
+                [locationId]: { ...previous[locationId], current: snapshot }
+            }));
+            if (selectedLocationId.current === locationId) {
+                setWeatherData(snapshot);
             }
-        }, preferences.refreshInterval * 60 * 1000);
-        return () => clearInterval(interval);
-    }, [preferences.autoRefresh, preferences.refreshInterval, selectedLocation]);
+        });
+        return () => events.close();
+    }, [preferences.autoRefresh, locationIds]);
 
     const fetchLocations = async () => {
         try {
-            const response = await fetch(`${API_BASE}/locations`);
+            // One request for the whole sidebar: locations, latest snapshot and cached forecast summary
+            const response = await fetch(`${API_BASE}/dashboard`, { cache: 'no-store' });
             if (response.ok) {
-                const data = await response.json();
-                setLocations(data);
+                const entries = await response.json();
+                setLocations(entries.map(entry => entry.location));
+                setConditions(Object.fromEntries(entries.map(entry => [entry.location.id, entry])));
             }
         } catch (err) {
             setError('Failed to fetch locations');
@@ -75,14 +88,15 @@ const WeatherApp = () => {
         setLoading(true);
         setError(null);
         try {
-            const [weatherResponse, forecastResponse] = await Promise.all([
-                fetch(`${API_BASE}/weather/current/${locationId}`),
-                fetch(`${API_BASE}/weather/forecast/${locationId}`)
-            ]);
+            const response = await fetch(`${API_BASE}/locations/${locationId}/detail`);
+            if (!response.ok) {
+                throw new Error('Failed to fetch location detail');
+            }
+            const detail = await response.json();
+            setForecastData(detail.forecast);
 
-            if (weatherResponse.ok) {
-                const weather = await weatherResponse.json();
-                setWeatherData(weather);
+            if (detail.current) {
+                setWeatherData(detail.current);
             } else {
                 await fetch(`${API_BASE}/weather/sync/${locationId}`, { method: 'POST' });
                 const retryResponse = await fetch(`${API_BASE}/weather/current/${locationId}`);
@@ -91,11 +105,6 @@ const WeatherApp = () => {
                     setWeatherData(weather);
                 }
             }
-
-            if (forecastResponse.ok) {
-                const forecast = await forecastResponse.json();
-                setForecastData(forecast);
-            }
         } catch (err) {
             setError('Failed to fetch weather data');
         } finally {
@@ -230,6 +239,7 @@ const WeatherApp = () => {
                                         }`}
                                         onClick={() => {
                                             setSelectedLocation(location);
+                                            setWeatherData(conditions[location.id]?.current || null);
                                             fetchWeatherData(location.id);
                                         }}
                                     >
@@ -241,6 +251,18 @@ const WeatherApp = () => {
                                                         <i className="fas fa-star text-yellow-500 ml-2"></i>
                                                     )}
                                                 </div>
+                                                {conditions[location.id]?.current && (
+                                                    <div className="text-sm text-gray-700">
+                                                        {formatTemperature(conditions[location.id].current.temperature)}
+                                                        {conditions[location.id].forecast?.minTemperature != null && (
+                                                            <span className="text-gray-500 ml-2">
+                                                                {formatTemperature(conditions[location.id].forecast.minTemperature)}
+                                                                {' / '}
+                                                                {formatTemperature(conditions[location.id].forecast.maxTemperature)}
+                                                            </span>
+                                                        )}
+                                                    </div>
+                                                )}
                                                 <div className="text-sm text-gray-500">
                                                     {location.lastSyncAt
                                                         ? `Last sync: ${new Date(location.lastSyncAt).toLocaleTimeString()}`
@@ -0,0 +1,127 @@
+package com.weatherapp.benchmark;
+
+import com.weatherapp.dto.GazetteerCity;
+import com.weatherapp.gazetteer.CityGazetteer;
+
+import java.io.BufferedWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures startup cost of {@link CityGazetteer} for a 200k-city file: load time from disk, retained
+ * heap (compared with one {@link GazetteerCity} object per row), and exact lookup / autocomplete latency.
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes com.weatherapp.benchmark.CityGazetteerBenchmark}
+ */
+public class CityGazetteerBenchmark {
+
+    private static final String[] ONSETS = {
+        "b", "br", "c", "ch", "d", "f", "g", "gr", "h", "k", "l", "m", "n", "p", "r", "s", "st", "t", "tr", "v", "w", "z"
+    };
+    private static final String[] VOWELS = {"a", "e", "i", "o", "u", "ai", "ou"};
+    private static final String[] CODAS = {"", "n", "r", "s", "l", "m"};
+    private static final String[] COUNTRIES = {"GB", "FR", "DE", "ES", "IT", "AT", "NO", "EG", "JP", "ZA", "CL", "PT", "US"};
+    private static final int QUERIES = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(42);
+        String[] names = new String[size];
+        String[] countries = new String[size];
+
+        Path file = Files.createTempFile("cities", ".tsv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < size; i++) {
+                names[i] = cityName(random);
+                countries[i] = COUNTRIES[random.nextInt(COUNTRIES.length)];
+                out.write(names[i] + "\t" + countries[i] + "\t" + (random.nextDouble() * 180 - 90) + "\t"
+                    + (random.nextDouble() * 360 - 180) + "\t" + (int) Math.exp(random.nextDouble() * 15));
+                out.newLine();
+            }
+        }
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                new CityGazetteer().load(reader);
+            }
+        }
+
+        long before = usedHeap();
+        CityGazetteer gazetteer = new CityGazetteer();
+        long start = System.nanoTime();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            gazetteer.load(reader);
+        }
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        long compactBytes = usedHeap() - before;
+
+        before = usedHeap();
+        List<GazetteerCity> objects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            objects.add(new GazetteerCity(new String(names[i]), new String(countries[i]),
+                random.nextDouble(), random.nextDouble(), i));
+        }
+        long objectBytes = usedHeap() - before;
+
+        System.out.printf("%,d cities: load %d ms, retained heap %.1f MB (%d bytes/city); one object per city %.1f MB%n",
+            gazetteer.size(), loadMillis, compactBytes / 1e6, compactBytes / size, objectBytes / 1e6);
+
+        long[] findNanos = new long[QUERIES];
+        long[] autocompleteNanos = new long[QUERIES];
+        long checksum = objects.size();
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < QUERIES; i++) {
+                int row = random.nextInt(size);
+                String prefix = names[row].substring(0, Math.min(names[row].length(), 1 + random.nextInt(4)));
+
+                long t = System.nanoTime();
+                checksum += gazetteer.find(names[row], countries[row]).isPresent() ? 1 : 0;
+                findNanos[i] = System.nanoTime() - t;
+
+                t = System.nanoTime();
+                checksum += gazetteer.autocomplete(prefix, null, 10).size();
+                autocompleteNanos[i] = System.nanoTime() - t;
+            }
+        }
+
+        report("  find(name, country)    ", findNanos);
+        report("  autocomplete 1-4 chars ", autocompleteNanos);
+        System.out.println("  checksum " + checksum);
+        Files.delete(file);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s p50 %7.1f us   p99 %7.1f us%n", label,
+            sorted[sorted.length / 2] / 1e3, sorted[(int) (sorted.length * 0.99)] / 1e3);
+    }
+
+    private static String cityName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(ONSETS[random.nextInt(ONSETS.length)])
+                .append(VOWELS[random.nextInt(VOWELS.length)])
+                .append(CODAS[random.nextInt(CODAS.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.weatherapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.WeatherSearchAppApplication;
+import com.weatherapp.entity.Location;
+import com.weatherapp.repository.LocationRepository;
+import com.weatherapp.repository.WeatherSnapshotRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the history endpoint's work for one location with 10k snapshots (H2, test profile): loading
+ * entities in a read-write transaction as before, entities in a read-only transaction, and the
+ * {@code WeatherSnapshotView} record projection in a read-only transaction. Each call includes the
+ * Jackson serialization the endpoint performs. Allocation is measured on the calling thread.
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.benchmark.HistoryProjectionBenchmark}
+ * where cp.txt comes from {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+public class HistoryProjectionBenchmark {
+
+    private static final int WARMUP = 30;
+    private static final int RUNS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(WeatherSearchAppApplication.class)
+            .run("--spring.profiles.active=test", "--spring.main.web-application-type=none", "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN", "--logging.level.com.weatherapp=WARN", "--logging.level.org.springframework.web=WARN");
+        try {
+            Location location = context.getBean(LocationRepository.class).save(new Location("London", "GB", 51.5074, -0.1278));
+            populate(context.getBean(JdbcTemplate.class), location.getId(), rows);
+
+            WeatherSnapshotRepository repository = context.getBean(WeatherSnapshotRepository.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            System.out.printf("History of %,d snapshots, fetch + serialize:%n", rows);
+            report("  entities, read-write transaction  ", objectMapper,
+                () -> readWrite.execute(status -> repository.findByLocationIdOrderByTimestampDesc(location.getId())));
+            report("  entities, read-only transaction   ", objectMapper,
+                () -> readOnly.execute(status -> repository.findByLocationIdOrderByTimestampDesc(location.getId())));
+            report("  record projection, read-only      ", objectMapper,
+                () -> readOnly.execute(status -> repository.findViewsByLocationId(location.getId())));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void populate(JdbcTemplate jdbcTemplate, Long locationId, int rows) {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(rows);
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Timestamp timestamp = Timestamp.valueOf(start.plusMinutes(i));
+            batch.add(new Object[] {locationId, 10 + (i % 150) / 10.0, 40 + i % 50, 1000.0 + i % 30, 3.5, i % 360,
+                10000, "Clouds", "scattered clouds", "03d", timestamp, timestamp});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO weather_snapshots (location_id, temperature, humidity, pressure, wind_speed, " +
+            "wind_direction, visibility, weather_main, weather_description, weather_icon, timestamp, data_timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private static void report(String label, ObjectMapper objectMapper, Supplier<List<?>> load) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            objectMapper.writeValueAsBytes(load.get());
+        }
+
+        long[] micros = new long[RUNS];
+        long allocated = 0;
+        int bytes = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            bytes = objectMapper.writeValueAsBytes(load.get()).length;
+            micros[i] = (System.nanoTime() - start) / 1_000;
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        Arrays.sort(micros);
+        System.out.printf("%s p50 %6.2f ms  p90 %6.2f ms  allocated %6.1f MB/call  (%,d bytes JSON)%n", label,
+            micros[RUNS / 2] / 1000.0, micros[RUNS * 9 / 10] / 1000.0, allocated / (double) RUNS / 1e6, bytes);
+    }
+}
@@ -0,0 +1,128 @@
+package com.weatherapp.benchmark;
+
+import com.weatherapp.index.LocationIndexEntry;
+import com.weatherapp.index.LocationSearchIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares p50/p99 search latency of {@link LocationSearchIndex} against a linear substring scan
+ * (what {@code LIKE %term%} does without a usable index) at 100k and 1M synthetic locations.
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes com.weatherapp.benchmark.LocationSearchBenchmark}
+ */
+public class LocationSearchBenchmark {
+
+    private static final String[] ONSETS = {
+        "b", "br", "c", "ch", "d", "f", "g", "gr", "h", "k", "l", "m", "n", "p", "r", "s", "st", "t", "tr", "v", "w", "z"
+    };
+    private static final String[] VOWELS = {"a", "e", "i", "o", "u", "ai", "ou"};
+    private static final String[] CODAS = {"", "n", "r", "s", "l", "m"};
+    private static final String[] COUNTRIES = {"GB", "FR", "DE", "ES", "IT", "AT", "NO", "EG", "JP", "ZA", "CL", "PT", "US"};
+    private static final int QUERIES = 2_000;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {100_000, 1_000_000};
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        Random random = new Random(42);
+        List<LocationIndexEntry> entries = new ArrayList<>(size);
+        String[] cityNames = new String[size];
+        String[] displayNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            String city = cityName(random);
+            String country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+            cityNames[i] = city;
+            displayNames[i] = city + ", " + country;
+            entries.add(entry((long) i + 1, cityNames[i], displayNames[i]));
+        }
+
+        LocationSearchIndex index = new LocationSearchIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild(entries);
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String source = cityNames[random.nextInt(size)];
+            int length = Math.min(source.length(), 3 + random.nextInt(4));
+            int start = random.nextInt(source.length() - length + 1);
+            queries[i] = source.substring(start, start + length);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            index.search(queries[i]);
+            scan(cityNames, displayNames, queries[i]);
+        }
+
+        long[] indexNanos = new long[QUERIES];
+        long[] scanNanos = new long[QUERIES];
+        long checksum = 0;
+        long totalMatches = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            int matches = index.search(queries[i]).size();
+            indexNanos[i] = System.nanoTime() - start;
+            checksum += matches;
+            totalMatches += matches;
+
+            start = System.nanoTime();
+            checksum -= scan(cityNames, displayNames, queries[i]).size();
+            scanNanos[i] = System.nanoTime() - start;
+        }
+
+        System.out.printf("%,d locations (index build %d ms, avg %d matches/query, checksum %d)%n",
+            size, buildMillis, totalMatches / QUERIES, checksum);
+        report("  trigram index", indexNanos);
+        report("  linear scan  ", scanNanos);
+    }
+
+    private static List<Long> scan(String[] cityNames, String[] displayNames, String term) {
+        List<Long> matches = new ArrayList<>();
+        for (int i = 0; i < cityNames.length; i++) {
+            if (cityNames[i].contains(term) || displayNames[i].contains(term)) {
+                matches.add((long) i + 1);
+            }
+        }
+        return matches;
+    }
+
+    private static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s p50 %8.3f ms   p99 %8.3f ms%n", label,
+            sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+
+    private static String cityName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(ONSETS[random.nextInt(ONSETS.length)])
+                .append(VOWELS[random.nextInt(VOWELS.length)])
+                .append(CODAS[random.nextInt(CODAS.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private static LocationIndexEntry entry(Long id, String cityName, String displayName) {
+        return new LocationIndexEntry() {
+            public Long getId() { return id; }
+            public String getCityName() { return cityName; }
+            public String getDisplayName() { return displayName; }
+            public Double getLatitude() { return null; }
+            public Double getLongitude() { return null; }
+        };
+    }
+}
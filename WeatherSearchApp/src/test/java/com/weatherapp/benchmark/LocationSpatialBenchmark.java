@@ -0,0 +1,95 @@
+package com.weatherapp.benchmark;
+
+import com.weatherapp.index.LocationIndexEntry;
+import com.weatherapp.index.LocationSpatialIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures k-nearest and viewport (bounding-box) latency of {@link LocationSpatialIndex}
+ * over 1M synthetic locations, half clustered around metro areas and half spread uniformly.
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes com.weatherapp.benchmark.LocationSpatialBenchmark}
+ */
+public class LocationSpatialBenchmark {
+
+    private static final int METROS = 500;
+    private static final int QUERIES = 20_000;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+
+        double[][] metros = new double[METROS][];
+        for (int i = 0; i < METROS; i++) {
+            metros[i] = new double[] {random.nextDouble() * 120 - 55, random.nextDouble() * 360 - 180};
+        }
+
+        List<LocationIndexEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double lat;
+            double lon;
+            if (i % 2 == 0) {
+                double[] metro = metros[random.nextInt(METROS)];
+                lat = clamp(metro[0] + random.nextGaussian() * 0.3, -90, 90);
+                lon = clamp(metro[1] + random.nextGaussian() * 0.3, -180, 180);
+            } else {
+                lat = random.nextDouble() * 140 - 60;
+                lon = random.nextDouble() * 360 - 180;
+            }
+            entries.add(entry((long) i + 1, lat, lon));
+        }
+
+        LocationSpatialIndex index = new LocationSpatialIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild(entries);
+        System.out.printf("%,d locations (index build %d ms)%n", size, (System.nanoTime() - buildStart) / 1_000_000);
+
+        long[] nearestNanos = new long[QUERIES];
+        long[] boxNanos = new long[QUERIES];
+        long checksum = 0;
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < QUERIES; i++) {
+                double lat = random.nextDouble() * 140 - 60;
+                double lon = random.nextDouble() * 360 - 180;
+
+                long start = System.nanoTime();
+                checksum += index.nearest(lat, lon, 10).size();
+                nearestNanos[i] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                checksum += index.withinBoundingBox(lat - 0.5, lon - 0.75, lat + 0.5, lon + 0.75, 500).size();
+                boxNanos[i] = System.nanoTime() - start;
+            }
+        }
+
+        report("  nearest k=10         ", nearestNanos);
+        report("  bbox 1x1.5 deg (500) ", boxNanos);
+        System.out.println("  checksum " + checksum);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s p50 %7.1f us   p99 %7.1f us%n", label,
+            sorted[sorted.length / 2] / 1e3, sorted[(int) (sorted.length * 0.99)] / 1e3);
+    }
+
+    private static LocationIndexEntry entry(Long id, double latitude, double longitude) {
+        return new LocationIndexEntry() {
+            public Long getId() { return id; }
+            public String getCityName() { return null; }
+            public String getDisplayName() { return null; }
+            public Double getLatitude() { return latitude; }
+            public Double getLongitude() { return longitude; }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.weatherapp.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.weatherapp.dto.WeatherSnapshotView;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and encode/decode time of a 10k-row snapshot history in the formats the weather
+ * endpoints negotiate: JSON, gzipped JSON (as {@code server.compression} sends it), Smile and CBOR. The
+ * mappers are configured like the application's: ISO date strings in JSON, numeric date arrays in the
+ * binary formats. Smile with ISO strings is included to show what the date encoding alone costs.
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.benchmark.PayloadFormatBenchmark}
+ * where cp.txt comes from {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+public class PayloadFormatBenchmark {
+
+    private static final int WARMUP = 100;
+    private static final int RUNS = 100;
+    private static final TypeReference<List<WeatherSnapshotView>> HISTORY = new TypeReference<>() {};
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        List<WeatherSnapshotView> history = history(rows);
+
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper smile = json.copyWith(new SmileFactory()).enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper cbor = json.copyWith(new CBORFactory()).enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        System.out.printf("History of %,d snapshots:%n", rows);
+        report("  JSON                    ", history, json, false);
+        report("  JSON + gzip             ", history, json, true);
+        report("  Smile, ISO date strings ", history, json.copyWith(new SmileFactory()), false);
+        report("  Smile                   ", history, smile, false);
+        report("  CBOR                    ", history, cbor, false);
+    }
+
+    private static List<WeatherSnapshotView> history(int rows) {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 0, 0);
+        List<WeatherSnapshotView> history = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime timestamp = start.plusMinutes(10L * i);
+            history.add(new WeatherSnapshotView((long) i + 1, 5 + (i % 2500) / 100.0, 40 + i % 50, 995.0 + (i % 400) / 10.0,
+                (i % 180) / 10.0, i % 360, 10000, null, "Clouds", "scattered clouds", "03d", timestamp, timestamp.minusSeconds(37)));
+        }
+        return history;
+    }
+
+    private static void report(String label, List<WeatherSnapshotView> history, ObjectMapper mapper, boolean gzip) throws Exception {
+        byte[] encoded = encode(history, mapper, gzip);
+        for (int i = 0; i < WARMUP; i++) {
+            decode(encode(history, mapper, gzip), mapper, gzip);
+        }
+
+        long[] encodeMicros = new long[RUNS];
+        long[] decodeMicros = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            encoded = encode(history, mapper, gzip);
+            encodeMicros[i] = (System.nanoTime() - start) / 1_000;
+            start = System.nanoTime();
+            List<WeatherSnapshotView> decoded = decode(encoded, mapper, gzip);
+            decodeMicros[i] = (System.nanoTime() - start) / 1_000;
+            if (decoded.size() != history.size()) {
+                throw new IllegalStateException("Round trip lost rows");
+            }
+        }
+        Arrays.sort(encodeMicros);
+        Arrays.sort(decodeMicros);
+        System.out.printf("%s %,10d bytes   encode p50 %6.2f ms   decode p50 %6.2f ms%n", label, encoded.length,
+            encodeMicros[RUNS / 2] / 1000.0, decodeMicros[RUNS / 2] / 1000.0);
+    }
+
+    private static byte[] encode(List<WeatherSnapshotView> history, ObjectMapper mapper, boolean gzip) throws Exception {
+        if (!gzip) {
+            return mapper.writeValueAsBytes(history);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(out, history);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<WeatherSnapshotView> decode(byte[] encoded, ObjectMapper mapper, boolean gzip) throws Exception {
+        if (!gzip) {
+            return mapper.readValue(encoded, HISTORY);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(encoded))) {
+            return mapper.readValue(in, HISTORY);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.weatherapp.benchmark;
+
+import com.weatherapp.WeatherSearchAppApplication;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.service.WeatherEventBroadcaster;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Opens many concurrent Server-Sent Events subscriptions against the embedded Tomcat (test profile, H2)
+ * and measures how long one published snapshot takes to reach every subscriber, together with the
+ * server's request-thread count while the streams are open. All subscribers watch the same location,
+ * the worst case for fan-out. Client and server share one JVM, so heap and thread totals include the
+ * client's connections.
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.benchmark.SseFanOutBenchmark 5000 20}
+ * where cp.txt comes from {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}. Needs an open
+ * file limit of a little over twice the subscriber count.
+ */
+public class SseFanOutBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int subscribers = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(WeatherSearchAppApplication.class)
+            .run("--spring.profiles.active=test", "--server.port=0",
+                "--server.tomcat.max-connections=" + (subscribers + 100), "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN", "--logging.level.com.weatherapp=WARN", "--logging.level.org.springframework.web=WARN");
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            WeatherEventBroadcaster broadcaster = context.getBean(WeatherEventBroadcaster.class);
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/weather/events?ids=1")).build();
+
+            long heapBefore = usedHeap();
+            AtomicReference<CountDownLatch> delivered = new AtomicReference<>(new CountDownLatch(0));
+            long start = System.nanoTime();
+            for (int i = 0; i < subscribers; i++) {
+                client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new EventCounter(delivered)));
+            }
+            while (broadcaster.getConnectionCount() < subscribers) {
+                if (System.nanoTime() - start > TimeUnit.MINUTES.toNanos(2)) {
+                    throw new IllegalStateException("Only " + broadcaster.getConnectionCount() + " subscribers connected");
+                }
+                Thread.sleep(10);
+            }
+            System.out.printf("%,d subscribers connected in %d ms%n", subscribers, (System.nanoTime() - start) / 1_000_000);
+            System.out.printf("  JVM threads: %d, Tomcat request threads: %d%n",
+                ManagementFactory.getThreadMXBean().getThreadCount(), countThreads("http-nio-"));
+            System.out.printf("  heap growth with streams open (server + client): %.1f MB%n",
+                (usedHeap() - heapBefore) / 1e6);
+
+            WeatherSnapshot snapshot = new WeatherSnapshot();
+            snapshot.setTemperature(15.5);
+            long[] micros = new long[events];
+            for (int event = 0; event < events; event++) {
+                CountDownLatch latch = new CountDownLatch(subscribers);
+                delivered.set(latch);
+                snapshot.setId((long) event + 1);
+                long publishedAt = System.nanoTime();
+                broadcaster.publish(1L, snapshot);
+                if (!latch.await(1, TimeUnit.MINUTES)) {
+                    throw new IllegalStateException(latch.getCount() + " subscribers missed event " + event);
+                }
+                micros[event] = (System.nanoTime() - publishedAt) / 1_000;
+            }
+            Arrays.sort(micros);
+            System.out.printf("  publish -> all %,d subscribers received: p50 %.1f ms, max %.1f ms (%,.0f deliveries/s at p50)%n",
+                subscribers, micros[events / 2] / 1000.0, micros[events - 1] / 1000.0,
+                subscribers / (micros[events / 2] / 1e6));
+        } finally {
+            context.close();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long countThreads(String prefix) {
+        return Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().startsWith(prefix)).count();
+    }
+
+    private static final class EventCounter implements Flow.Subscriber<String> {
+
+        private final AtomicReference<CountDownLatch> delivered;
+
+        EventCounter(AtomicReference<CountDownLatch> delivered) {
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("event:snapshot")) {
+                delivered.get().countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
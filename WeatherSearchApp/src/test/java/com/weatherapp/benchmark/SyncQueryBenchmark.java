@@ -0,0 +1,95 @@
+package com.weatherapp.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Compares the old correlated-subquery form of {@code findLocationsNeedingSync} with the range scan over
+ * the denormalized {@code next_sync_due_at} column, on an H2 file database holding 10k locations and
+ * 10M weather snapshots (snapshot location_id indexed, as the foreign key gets in H2). 5% of the
+ * locations are due, so both queries return the same 500 rows.
+ *
+ * Run after {@code mvn test-compile} with the test classpath (H2 is a test dependency), e.g.
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.benchmark.SyncQueryBenchmark}
+ * where cp.txt comes from {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+public class SyncQueryBenchmark {
+
+    private static final String OLD_QUERY = "SELECT l.id FROM locations l WHERE l.last_sync_at IS NULL OR l.last_sync_at < " +
+        "(SELECT MAX(w.timestamp) FROM weather_snapshots w WHERE w.location_id = l.id)";
+    private static final String NEW_QUERY = "SELECT l.id FROM locations l WHERE l.next_sync_due_at <= ? ORDER BY l.next_sync_due_at";
+    private static final int RUNS = 7;
+
+    public static void main(String[] args) throws Exception {
+        int locations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long snapshots = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+        Path dir = Files.createTempDirectory("sync-bench");
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + dir.resolve("db") + ";CACHE_SIZE=1048576;QUERY_CACHE_SIZE=0;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "")) {
+            long start = System.nanoTime();
+            populate(connection, locations, snapshots);
+            System.out.printf("%,d locations, %,d snapshots (populated in %d s)%n",
+                locations, snapshots, (System.nanoTime() - start) / 1_000_000_000);
+
+            report("  correlated MAX subquery     ", connection, OLD_QUERY, false);
+            report("  next_sync_due_at range scan ", connection, NEW_QUERY, true);
+        } finally {
+            try (var paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void populate(Connection connection, int locations, long snapshots) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE locations (id BIGINT PRIMARY KEY, city_name VARCHAR(255) NOT NULL, " +
+                "last_sync_at TIMESTAMP(6), last_snapshot_at TIMESTAMP(6), next_sync_due_at TIMESTAMP(6))");
+            statement.execute("CREATE TABLE weather_snapshots (id BIGINT PRIMARY KEY, location_id BIGINT NOT NULL, " +
+                "temperature DOUBLE PRECISION NOT NULL, timestamp TIMESTAMP(6) NOT NULL, " +
+                "FOREIGN KEY (location_id) REFERENCES locations(id))");
+
+            // Every 20th location has never been synced and is due; the rest synced just now and are due in 6 hours.
+            statement.execute("INSERT INTO locations SELECT X, 'City ' || X, " +
+                "CASEWHEN(MOD(X, 20) = 0, NULL, LOCALTIMESTAMP), CASEWHEN(MOD(X, 20) = 0, NULL, LOCALTIMESTAMP), " +
+                "CASEWHEN(MOD(X, 20) = 0, DATEADD('MINUTE', -X, LOCALTIMESTAMP), DATEADD('HOUR', 6, LOCALTIMESTAMP)) " +
+                "FROM SYSTEM_RANGE(1, " + locations + ")");
+            statement.execute("INSERT INTO weather_snapshots SELECT X, MOD(X - 1, " + locations + ") + 1, 15.0, " +
+                "DATEADD('MINUTE', -(X - 1) / " + locations + " * 15 - 1, LOCALTIMESTAMP) FROM SYSTEM_RANGE(1, " + snapshots + ")");
+            statement.execute("CREATE INDEX idx_locations_next_sync_due_at ON locations (next_sync_due_at)");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private static void report(String label, Connection connection, String sql, boolean withNow) throws Exception {
+        long[] nanos = new long[RUNS];
+        int rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int run = -2; run < RUNS; run++) {
+                if (withNow) {
+                    statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                }
+                long start = System.nanoTime();
+                rows = 0;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                    }
+                }
+                if (run >= 0) {
+                    nanos[run] = System.nanoTime() - start;
+                }
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s %d rows   p50 %9.2f ms   max %9.2f ms%n", label, rows, nanos[RUNS / 2] / 1e6, nanos[RUNS - 1] / 1e6);
+    }
+}
@@ -0,0 +1,69 @@
+package com.weatherapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.units.UnitConverter;
+import com.weatherapp.units.UnitSystem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Measures what unit conversion adds to a history response: serializing 10k metric views, converting
+ * them to imperial and serializing, and the conversion alone. Runs without Spring or a database.
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.benchmark.UnitConversionBenchmark}
+ */
+public class UnitConversionBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int RUNS = 500;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LocalDateTime start = LocalDateTime.now().minusMinutes(rows);
+        List<WeatherSnapshotView> views = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime timestamp = start.plusMinutes(i);
+            views.add(new WeatherSnapshotView((long) i, 10 + (i % 150) / 10.0, 40 + i % 50, 1000.0 + i % 30, 3.5,
+                i % 360, 10000, null, "Clouds", "scattered clouds", "03d", timestamp, timestamp));
+        }
+
+        System.out.printf("History of %,d views:%n", rows);
+        report("  metric, serialize          ", () -> write(objectMapper, views));
+        report("  imperial, convert+serialize", () -> write(objectMapper, UnitConverter.convert(views, UnitSystem.IMPERIAL)));
+        report("  imperial, convert only     ", () -> UnitConverter.convert(views, UnitSystem.IMPERIAL).size());
+    }
+
+    private static int write(ObjectMapper objectMapper, List<WeatherSnapshotView> views) {
+        try {
+            return objectMapper.writeValueAsBytes(views).length;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void report(String label, Supplier<Integer> run) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += run.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long begin = System.nanoTime();
+            sink += run.get();
+            nanos[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s p50 %6.2f ms  p90 %6.2f ms  (%d)%n", label, nanos[RUNS / 2] / 1e6, nanos[RUNS * 9 / 10] / 1e6, sink % 10);
+    }
+}
@@ -0,0 +1,52 @@
+package com.weatherapp.client;
+
+import com.weatherapp.metrics.WeatherMetrics;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamMetricsCapabilityTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UpstreamMetricsCapability capability = new UpstreamMetricsCapability(new WeatherMetrics(registry));
+
+    @Test
+    void enrich_TimesRequestsByEndpointAndStatus() throws IOException {
+        Client upstream = (request, options) -> Response.builder()
+            .request(request).status(429).headers(Map.of()).body("{}", StandardCharsets.UTF_8).build();
+        Client client = capability.enrich(upstream);
+
+        client.execute(request("https://api.openweathermap.org/data/2.5/forecast?lat=1&lon=2&appid=k"), new Request.Options());
+
+        Timer timer = registry.get(WeatherMetrics.UPSTREAM_REQUESTS)
+            .tag("endpoint", "forecast").tag("status", "429").tag("outcome", "failure").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void enrich_RecordsIoErrors() {
+        Client upstream = (request, options) -> {
+            throw new IOException("connection refused");
+        };
+        Client client = capability.enrich(upstream);
+
+        assertThrows(IOException.class,
+            () -> client.execute(request("https://api.openweathermap.org/data/2.5/weather?q=Oslo"), new Request.Options()));
+
+        assertEquals(1, registry.get(WeatherMetrics.UPSTREAM_REQUESTS)
+            .tag("endpoint", "weather").tag("status", "IO_ERROR").timer().count());
+    }
+
+    private static Request request(String url) {
+        return Request.create(Request.HttpMethod.GET, url, Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
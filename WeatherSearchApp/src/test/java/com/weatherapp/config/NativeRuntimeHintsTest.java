@@ -0,0 +1,33 @@
+package com.weatherapp.config;
+
+import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.entity.Location;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registerHints_CoversBindingFeignJdbcProxiesAndGazetteer() throws Exception {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(OpenWeatherResponse.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(OpenWeatherResponse.Main.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Location.class.getMethod("getCityName")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+            .onMethod(OpenWeatherMapClient.class.getMethod("getCurrentWeather", String.class, String.class, String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(OpenWeatherMapClient.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("gazetteer/cities.tsv").test(hints));
+    }
+}
@@ -0,0 +1,51 @@
+package com.weatherapp.controller;
+
+import com.weatherapp.dto.DashboardEntry;
+import com.weatherapp.dto.ForecastSummary;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.service.DashboardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DashboardController.class)
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @Test
+    void getDashboard_ReturnsLocationsWithWeather() throws Exception {
+        Location london = new Location("London", "GB", 51.5074, -0.1278);
+        london.setId(1L);
+        WeatherSnapshot current = new WeatherSnapshot(london, 15.5, 65, 1013.0);
+        ForecastSummary forecast = new ForecastSummary();
+        forecast.setMaxTemperature(18.0);
+        Location paris = new Location("Paris", "FR", 48.8566, 2.3522);
+        paris.setId(2L);
+
+        when(dashboardService.getDashboard()).thenReturn(List.of(
+            new DashboardEntry(london, current, forecast),
+            new DashboardEntry(paris, null, null)));
+
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].location.cityName").value("London"))
+                .andExpect(jsonPath("$[0].current.temperature").value(15.5))
+                .andExpect(jsonPath("$[0].forecast.maxTemperature").value(18.0))
+                .andExpect(jsonPath("$[1].location.id").value(2))
+                .andExpect(jsonPath("$[1].current").isEmpty());
+    }
+}
@@ -1,5 +1,6 @@
 package com.weatherapp.controller;
 
+import com.weatherapp.dto.GazetteerCity;
 import com.weatherapp.entity.Location;
 import com.weatherapp.service.LocationServiceInterface;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +16,8 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,6 +48,65 @@ class LocationControllerTest {
                 .andExpect(jsonPath("$[1].cityName").value("Paris"));
     }
 
+    @Test
+    void getAllLocations_NotModifiedWithoutLoading() throws Exception {
+        when(locationService.getLocationsETag()).thenReturn("\"v1-3\"");
+
+        mockMvc.perform(get("/api/locations").header("If-None-Match", "W/\"v1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1-3\""));
+
+        verify(locationService, never()).getAllLocations();
+    }
+
+    @Test
+    void getAllLocations_ReturnsETagWhenChanged() throws Exception {
+        when(locationService.getLocationsETag()).thenReturn("\"v1-4\"");
+        when(locationService.getAllLocations()).thenReturn(Arrays.asList(new Location("London", "GB", 51.5074, -0.1278)));
+
+        mockMvc.perform(get("/api/locations").header("If-None-Match", "\"v1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1-4\""))
+                .andExpect(jsonPath("$[0].cityName").value("London"));
+    }
+
+    @Test
+    void getAllLocations_PageWithCursor() throws Exception {
+        Location london = new Location("London", "GB", 51.5074, -0.1278);
+        london.setId(3L);
+        Location paris = new Location("Paris", "FR", 48.8566, 2.3522);
+        paris.setId(5L);
+        Location berlin = new Location("Berlin", "DE", 52.52, 13.405);
+        berlin.setId(8L);
+
+        when(locationService.getLocationsPage(1L, 3)).thenReturn(Arrays.asList(london, paris, berlin));
+
+        mockMvc.perform(get("/api/locations").param("after", "1").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "5"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].cityName").value("Paris"));
+    }
+
+    @Test
+    void getAllLocations_LastPageHasNoCursor() throws Exception {
+        Location london = new Location("London", "GB", 51.5074, -0.1278);
+        london.setId(3L);
+
+        when(locationService.getLocationsPage(null, 11)).thenReturn(Arrays.asList(london));
+
+        mockMvc.perform(get("/api/locations").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void getAllLocations_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/locations").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getLocationById_Success() throws Exception {
         Location location = new Location("London", "GB", 51.5074, -0.1278);
@@ -81,6 +143,55 @@ class LocationControllerTest {
                 .andExpect(jsonPath("$[0].isFavorite").value(true));
     }
 
+    @Test
+    void getNearestLocations_Success() throws Exception {
+        Location location = new Location("London", "GB", 51.5074, -0.1278);
+        location.setId(1L);
+
+        when(locationService.findNearestLocations(51.5, -0.1, 3)).thenReturn(Arrays.asList(location));
+
+        mockMvc.perform(get("/api/locations/nearest").param("lat", "51.5").param("lon", "-0.1").param("k", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cityName").value("London"));
+    }
+
+    @Test
+    void getNearestLocations_InvalidCoordinates() throws Exception {
+        mockMvc.perform(get("/api/locations/nearest").param("lat", "91").param("lon", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void autocompleteCities_Success() throws Exception {
+        GazetteerCity city = new GazetteerCity("London", "GB", 51.5085, -0.1257, 8961989);
+
+        when(locationService.autocompleteCities("Lon", null, 10)).thenReturn(Arrays.asList(city));
+
+        mockMvc.perform(get("/api/locations/autocomplete").param("q", "Lon"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("London"))
+                .andExpect(jsonPath("$[0].population").value(8961989));
+    }
+
+    @Test
+    void autocompleteCities_BlankQuery() throws Exception {
+        mockMvc.perform(get("/api/locations/autocomplete").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getLocationsWithin_Success() throws Exception {
+        Location location = new Location("Paris", "FR", 48.8566, 2.3522);
+        location.setId(2L);
+
+        when(locationService.findLocationsWithin(48.0, 2.0, 49.0, 3.0, 500)).thenReturn(Arrays.asList(location));
+
+        mockMvc.perform(get("/api/locations/within")
+                .param("minLat", "48").param("minLon", "2").param("maxLat", "49").param("maxLon", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cityName").value("Paris"));
+    }
+
     @Test
     void addLocation_Success() throws Exception {
         Location newLocation = new Location("London", "GB", 51.5074, -0.1278);
@@ -0,0 +1,59 @@
+package com.weatherapp.controller;
+
+import com.weatherapp.dto.LocationDetail;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.Location;
+import com.weatherapp.service.LocationDetailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LocationDetailController.class)
+class LocationDetailControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LocationDetailService detailService;
+
+    @Test
+    void getLocationDetail_ReturnsLocationWeatherAndForecast() throws Exception {
+        Location london = new Location("London", "GB", 51.5074, -0.1278);
+        london.setId(1L);
+        WeatherSnapshotView current = new WeatherSnapshotView(42L, 15.5, 65, 1013.0, 5.2, 230, 10000, null,
+            "Clouds", "scattered clouds", "03d", LocalDateTime.of(2024, 5, 1, 12, 0), null);
+        when(detailService.getLocationDetail(1L)).thenReturn(new LocationDetail(london, current, null));
+
+        mockMvc.perform(get("/api/locations/1/detail"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.location.cityName").value("London"))
+                .andExpect(jsonPath("$.current.temperature").value(15.5))
+                .andExpect(jsonPath("$.forecast").isEmpty());
+    }
+
+    @Test
+    void getLocationDetail_UnknownLocationIsNotFound() throws Exception {
+        when(detailService.getLocationDetail(9L)).thenThrow(new IllegalArgumentException("Location not found with id: 9"));
+
+        mockMvc.perform(get("/api/locations/9/detail"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getLocationDetail_DeadlineIsGatewayTimeout() throws Exception {
+        when(detailService.getLocationDetail(1L)).thenThrow(new TimeoutException("slow"));
+
+        mockMvc.perform(get("/api/locations/1/detail"))
+                .andExpect(status().isGatewayTimeout());
+    }
+}
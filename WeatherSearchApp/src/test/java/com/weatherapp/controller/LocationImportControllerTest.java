@@ -0,0 +1,61 @@
+package com.weatherapp.controller;
+
+import com.weatherapp.dto.LocationImportResult;
+import com.weatherapp.dto.LocationImportSummary;
+import com.weatherapp.service.LocationImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LocationImportController.class)
+class LocationImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LocationImportService importService;
+
+    @Test
+    void importJson_StreamsRowsAndSummaryWithEstimatedTimeout() throws Exception {
+        when(importService.estimateTimeout(anyList())).thenReturn(Duration.ofMinutes(10));
+        doAnswer(invocation -> {
+            Consumer<LocationImportResult> results = invocation.getArgument(1);
+            results.accept(new LocationImportResult(1, "London", "GB", LocationImportResult.Status.CREATED, 7L, null));
+            LocationImportSummary summary = new LocationImportSummary();
+            summary.setTotal(1);
+            summary.setCreated(1);
+            return summary;
+        }).when(importService).importLocations(anyList(), any());
+
+        MvcResult pending = mockMvc.perform(post("/api/locations/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"cityName\":\"London\",\"countryCode\":\"GB\"}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        pending.getAsyncResult(5000);
+
+        assertEquals(Duration.ofMinutes(10).toMillis(), pending.getRequest().getAsyncContext().getTimeout());
+        assertEquals("application/x-ndjson", pending.getResponse().getContentType());
+        String[] lines = pending.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"status\":\"CREATED\""));
+        assertTrue(lines[1].startsWith("{\"summary\":"));
+        assertTrue(lines[1].contains("\"created\":1"));
+    }
+}
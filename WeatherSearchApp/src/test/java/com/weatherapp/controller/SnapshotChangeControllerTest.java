@@ -0,0 +1,64 @@
+package com.weatherapp.controller;
+
+import com.weatherapp.dto.SnapshotChangePage;
+import com.weatherapp.dto.WeatherSnapshotChange;
+import com.weatherapp.service.SnapshotChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SnapshotChangeController.class)
+class SnapshotChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SnapshotChangeFeed changeFeed;
+
+    @Test
+    void getChanges_ReturnsPageWithCursor() throws Exception {
+        WeatherSnapshotChange change = new WeatherSnapshotChange(43L, 7L, 15.5, 65, 1013.0, 5.2, 230, 10000, null,
+            "Clouds", "scattered clouds", "03d", LocalDateTime.of(2024, 5, 1, 12, 0), null);
+        DeferredResult<SnapshotChangePage> result = new DeferredResult<>();
+        result.setResult(new SnapshotChangePage(List.of(change), 43L, true));
+        when(changeFeed.awaitChanges(42L, 1, 10_000L)).thenReturn(result);
+
+        MvcResult pending = mockMvc.perform(get("/api/weather/changes").param("after", "42").param("limit", "1").param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].id").value(43))
+                .andExpect(jsonPath("$.changes[0].locationId").value(7))
+                .andExpect(jsonPath("$.cursor").value(43))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getChanges_RejectsOversizedPageAndLongWait() throws Exception {
+        mockMvc.perform(get("/api/weather/changes").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/weather/changes").param("wait", "600"))
+                .andExpect(status().isBadRequest());
+
+        verify(changeFeed, never()).awaitChanges(anyLong(), anyInt(), anyLong());
+    }
+}
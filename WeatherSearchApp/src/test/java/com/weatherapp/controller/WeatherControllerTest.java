@@ -0,0 +1,335 @@
+package com.weatherapp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.weatherapp.config.BinaryFormatConfig;
+import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.UserPreferences;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.service.UserPreferencesService;
+import com.weatherapp.service.WeatherEventBroadcaster;
+import com.weatherapp.service.WeatherService;
+import com.weatherapp.service.WeatherVersionMap;
+import com.weatherapp.units.UnitSystem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(WeatherController.class)
+@Import({WeatherEventBroadcaster.class, BinaryFormatConfig.class})
+class WeatherControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WeatherEventBroadcaster eventBroadcaster;
+
+    @MockBean
+    private WeatherService weatherService;
+
+    @MockBean
+    private UserPreferencesService preferencesService;
+
+    @Test
+    void getCurrentWeather_ReturnsValidators() throws Exception {
+        WeatherSnapshotView snapshot = view(42L, 15.5, LocalDateTime.of(2024, 5, 1, 12, 0));
+
+        when(weatherService.getCurrentWeatherView(1L)).thenReturn(snapshot);
+
+        mockMvc.perform(get("/api/weather/current/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"s42\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.temperature").value(15.5));
+    }
+
+    @Test
+    void getCurrentWeather_NotModifiedFromVersionMap() throws Exception {
+        when(weatherService.getCurrentWeatherVersion(1L))
+            .thenReturn(WeatherVersionMap.snapshotVersion(42L, LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/weather/current/1").header(HttpHeaders.IF_NONE_MATCH, "\"s42\""))
+                .andExpect(status().isNotModified());
+
+        verify(weatherService, never()).getCurrentWeatherView(anyLong());
+    }
+
+    @Test
+    void getCurrentWeather_IfModifiedSince() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(weatherService.getCurrentWeatherVersion(1L)).thenReturn(WeatherVersionMap.snapshotVersion(42L, timestamp));
+        String lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            ZonedDateTime.ofInstant(timestamp.atZone(java.time.ZoneId.systemDefault()).toInstant(), ZoneOffset.UTC));
+
+        mockMvc.perform(get("/api/weather/current/1").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getCurrentWeather_StaleETagLoadsSnapshot() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.now();
+        when(weatherService.getCurrentWeatherVersion(1L)).thenReturn(WeatherVersionMap.snapshotVersion(43L, timestamp));
+        when(weatherService.getCurrentWeatherView(1L)).thenReturn(view(43L, 12.0, timestamp));
+
+        mockMvc.perform(get("/api/weather/current/1").header(HttpHeaders.IF_NONE_MATCH, "\"s42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"s43\""));
+    }
+
+    @Test
+    void getCurrentWeather_ConvertsToRequestedUnits() throws Exception {
+        when(weatherService.getCurrentWeatherView(1L)).thenReturn(view(42L, 15.5, LocalDateTime.of(2024, 5, 1, 12, 0)));
+
+        mockMvc.perform(get("/api/weather/current/1").param("units", "imperial"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"s42-fahrenheit-mph-inHg\""))
+                .andExpect(header().string("X-Units", "fahrenheit-mph-inHg"))
+                .andExpect(jsonPath("$.temperature").value(59.9))
+                .andExpect(jsonPath("$.windSpeed").value(11.63))
+                .andExpect(jsonPath("$.pressure").value(29.91))
+                .andExpect(jsonPath("$.humidity").value(65));
+    }
+
+    @Test
+    void getCurrentWeather_UnitVariantsHaveTheirOwnValidator() throws Exception {
+        when(weatherService.getCurrentWeatherVersion(1L))
+            .thenReturn(WeatherVersionMap.snapshotVersion(42L, LocalDateTime.now()));
+        when(weatherService.getCurrentWeatherView(1L)).thenReturn(view(42L, 15.5, LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/weather/current/1").param("units", "standard")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"s42-kelvin-ms-hPa\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/weather/current/1").param("units", "standard")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"s42\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.temperature").value(288.65));
+    }
+
+    @Test
+    void getCurrentWeather_UnknownUnitsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/weather/current/1").param("units", "nautical"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getForecast_NotModifiedFromVersionMap() throws Exception {
+        WeatherVersionMap versions = new WeatherVersionMap();
+        WeatherVersionMap.Version version = versions.recordForecast(1L, 1_700_000_000_000L);
+        when(weatherService.getForecastVersion(1L)).thenReturn(version);
+
+        mockMvc.perform(get("/api/weather/forecast/1").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                .andExpect(status().isNotModified());
+
+        verify(weatherService, never()).getVersionedForecast(anyLong());
+    }
+
+    @Test
+    void getForecast_ReturnsValidators() throws Exception {
+        WeatherVersionMap versions = new WeatherVersionMap();
+        WeatherVersionMap.Version version = versions.recordForecast(1L, 1_700_000_000_000L);
+        when(weatherService.getVersionedForecast(1L))
+            .thenReturn(new WeatherService.VersionedForecast(new ForecastResponse(), version));
+
+        mockMvc.perform(get("/api/weather/forecast/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void getCurrentWeatherBatch_StreamsLatestSnapshotPerLocation() throws Exception {
+        Map<Long, WeatherSnapshotView> latest = new LinkedHashMap<>();
+        latest.put(2L, view(43L, 18.0, LocalDateTime.now()));
+        latest.put(1L, view(42L, 15.5, LocalDateTime.now()));
+        when(weatherService.getCurrentWeather(Set.of(2L, 1L, 3L))).thenReturn(latest);
+
+        MvcResult result = mockMvc.perform(get("/api/weather/current").param("ids", "2,1,3,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.2.temperature").value(18.0))
+                .andExpect(jsonPath("$.1.temperature").value(15.5))
+                .andExpect(jsonPath("$.3").doesNotExist());
+    }
+
+    @Test
+    void getCurrentWeatherBatch_ConvertsToRequestedUnits() throws Exception {
+        when(weatherService.getCurrentWeather(Set.of(1L))).thenReturn(Map.of(1L, view(42L, 15.5, LocalDateTime.now())));
+
+        MvcResult result = mockMvc.perform(get("/api/weather/current").param("ids", "1").param("units", "imperial"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Units", "fahrenheit-mph-inHg"))
+                .andExpect(jsonPath("$.1.temperature").value(59.9))
+                .andExpect(jsonPath("$.1.id").value(42));
+    }
+
+    @Test
+    void getCurrentWeatherBatch_RejectsTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 1001).mapToObj(Long::toString).collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/weather/current").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        verify(weatherService, never()).getCurrentWeather(anyCollection());
+    }
+
+    @Test
+    void subscribe_StreamsSnapshotsForSubscribedLocations() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/weather/events").param("ids", "1,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        WeatherSnapshot other = new WeatherSnapshot();
+        other.setId(40L);
+        eventBroadcaster.publish(3L, other);
+        WeatherSnapshot snapshot = new WeatherSnapshot();
+        snapshot.setId(42L);
+        snapshot.setTemperature(15.5);
+        eventBroadcaster.publish(2L, snapshot);
+
+        String body = awaitContent(result, "id:42");
+        assertTrue(body.contains("event:snapshot"));
+        assertTrue(body.contains("\"locationId\":2"));
+        assertTrue(body.contains("\"temperature\":15.5"));
+        assertFalse(body.contains("id:40"));
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, result.getResponse().getContentType());
+    }
+
+    @Test
+    void subscribe_RequiresLocationIds() throws Exception {
+        mockMvc.perform(get("/api/weather/events").param("ids", ""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getWeatherHistory_ReturnsProjections() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(weatherService.getWeatherHistoryViews(1L, UnitSystem.METRIC))
+            .thenReturn(List.of(view(43L, 16.0, timestamp.plusHours(1)), view(42L, 15.5, timestamp)));
+
+        mockMvc.perform(get("/api/weather/history/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(43))
+                .andExpect(jsonPath("$[1].temperature").value(15.5))
+                .andExpect(jsonPath("$[1].timestamp").value("2024-05-01T12:00:00"));
+    }
+
+    @Test
+    void getWeatherHistory_UsesUserPreferredUnits() throws Exception {
+        UserPreferences preferences = new UserPreferences("alice");
+        preferences.setTemperatureUnit("fahrenheit");
+        preferences.setWindSpeedUnit("kmh");
+        preferences.setPressureUnit("hPa");
+        when(preferencesService.getUserPreferences("alice")).thenReturn(preferences);
+        UnitSystem units = UnitSystem.of(preferences);
+        when(weatherService.getWeatherHistoryViews(1L, units)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/weather/history/1").param("user", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Units", "fahrenheit-kmh-hPa"));
+
+        verify(weatherService).getWeatherHistoryViews(1L, units);
+    }
+
+    @Test
+    void getWeatherHistory_NegotiatesSmile() throws Exception {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(weatherService.getWeatherHistoryViews(1L, UnitSystem.METRIC)).thenReturn(List.of(view(42L, 15.5, timestamp)));
+
+        MvcResult result = mockMvc.perform(get("/api/weather/history/1").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        JsonNode history = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(15.5, history.get(0).get("temperature").asDouble());
+        assertEquals(2024, history.get(0).get("timestamp").get(0).asInt());
+        assertEquals(12, history.get(0).get("timestamp").get(3).asInt());
+    }
+
+    @Test
+    void getWeatherHistory_DefaultsToJson() throws Exception {
+        when(weatherService.getWeatherHistoryViews(1L, UnitSystem.METRIC)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/weather/history/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getCurrentWeatherBatch_NegotiatesCbor() throws Exception {
+        when(weatherService.getCurrentWeather(Set.of(1L))).thenReturn(Map.of(1L, view(42L, 15.5, LocalDateTime.now())));
+
+        MvcResult result = mockMvc.perform(get("/api/weather/current").param("ids", "1")
+                        .accept("application/json;q=0.5, application/cbor"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult dispatched = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        JsonNode latest = new ObjectMapper(new CBORFactory()).readTree(dispatched.getResponse().getContentAsByteArray());
+        assertEquals(15.5, latest.get("1").get("temperature").asDouble());
+    }
+
+    @Test
+    void getCurrentWeatherBatch_UnsupportedAcceptIsNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/weather/current").param("ids", "1").accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isNotAcceptable());
+
+        verify(weatherService, never()).getCurrentWeather(anyCollection());
+    }
+
+    private WeatherSnapshotView view(Long id, Double temperature, LocalDateTime timestamp) {
+        return new WeatherSnapshotView(id, temperature, 65, 1013.0, 5.2, 230, 10000, null,
+            "Clouds", "scattered clouds", "03d", timestamp, timestamp);
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+}
@@ -0,0 +1,83 @@
+package com.weatherapp.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = database("routing-primary");
+    private final DataSource replica = database("routing-replica");
+    private final AtomicBoolean replicaUsable = new AtomicBoolean(true);
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(primary).execute("create table if not exists marker (name varchar(20))");
+        new JdbcTemplate(primary).execute("merge into marker key (name) values ('primary')");
+        new JdbcTemplate(replica).execute("create table if not exists marker (name varchar(20))");
+        new JdbcTemplate(replica).execute("merge into marker key (name) values ('replica')");
+
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, replicaUsable::get));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbc = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnly.execute(status -> marker()));
+        assertEquals("primary", readWrite.execute(status -> marker()));
+        assertEquals("primary", marker());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhileReplicaIsUnusable() {
+        replicaUsable.set(false);
+
+        assertEquals("primary", readOnly.execute(status -> marker()));
+    }
+
+    @Test
+    void replicaLagMonitor_UsesReplicaOnlyWithinLagLimit() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReplicaLagMonitor withinLimit = new ReplicaLagMonitor(replica, "select 2.5", 30, registry);
+        assertFalse(withinLimit.isUsable());
+
+        withinLimit.check();
+        assertTrue(withinLimit.isUsable());
+        assertEquals(2.5, registry.get("weather.datasource.replica.lag").gauge().value());
+        assertEquals(1, registry.get("weather.datasource.replica.usable").gauge().value());
+
+        ReplicaLagMonitor behind = new ReplicaLagMonitor(replica, "select 45", 30, new SimpleMeterRegistry());
+        behind.check();
+        assertFalse(behind.isUsable());
+
+        ReplicaLagMonitor failing = new ReplicaLagMonitor(replica, "select pg_last_xact_replay_timestamp()", 30, new SimpleMeterRegistry());
+        failing.check();
+        assertFalse(failing.isUsable());
+        assertTrue(Double.isNaN(failing.getLagSeconds()));
+    }
+
+    private String marker() {
+        return jdbc.queryForObject("select name from marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,83 @@
+package com.weatherapp.gazetteer;
+
+import com.weatherapp.dto.GazetteerCity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CityGazetteerTest {
+
+    private static final String CITIES = String.join("\n",
+        "# name\tcountry\tlat\tlon\tpopulation",
+        "London\tGB\t51.5085\t-0.1257\t8961989",
+        "Londonderry\tGB\t54.9966\t-7.3086\t83652",
+        "London\tCA\t42.9834\t-81.2330\t422324",
+        "Paris\tFR\t48.8534\t2.3488\t2138551",
+        "Paris\tUS\t33.6609\t-95.5555\t24476",
+        "Zürich\tCH\t47.3667\t8.5500\t421878",
+        "",
+        "São Paulo\tBR\t-23.5475\t-46.6361\t12400232",
+        "Lond\tGB\t50.0\t0.0");
+
+    private CityGazetteer gazetteer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gazetteer = new CityGazetteer();
+        gazetteer.load(new StringReader(CITIES));
+    }
+
+    @Test
+    void load_SkipsCommentsAndBlankLines() {
+        assertTrue(gazetteer.isLoaded());
+        assertEquals(8, gazetteer.size());
+    }
+
+    @Test
+    void find_MatchesCountryIgnoringCaseAndAccents() {
+        GazetteerCity zurich = gazetteer.find("zurich", "ch").orElseThrow();
+        assertEquals("Zürich", zurich.getName());
+        assertEquals(47.3667, zurich.getLatitude());
+
+        assertEquals("São Paulo", gazetteer.find("SAO  paulo", "BR").orElseThrow().getName());
+        assertEquals(-95.5555, gazetteer.find("Paris", "US").orElseThrow().getLongitude());
+        assertTrue(gazetteer.find("Paris", "DE").isEmpty());
+        assertTrue(gazetteer.find("Pari", "FR").isEmpty());
+    }
+
+    @Test
+    void find_WithoutCountryPrefersMostPopulous() {
+        assertEquals("FR", gazetteer.find("paris", null).orElseThrow().getCountryCode());
+    }
+
+    @Test
+    void autocomplete_OrdersByPopulationAndHonoursLimit() {
+        List<GazetteerCity> results = gazetteer.autocomplete("lon", null, 3);
+
+        assertEquals(3, results.size());
+        assertEquals("GB", results.get(0).getCountryCode());
+        assertEquals("CA", results.get(1).getCountryCode());
+        assertEquals("Londonderry", results.get(2).getName());
+    }
+
+    @Test
+    void autocomplete_FiltersByCountry() {
+        List<GazetteerCity> results = gazetteer.autocomplete("Lon", "GB", 10);
+
+        assertEquals(List.of("London", "Londonderry", "Lond"), results.stream().map(GazetteerCity::getName).toList());
+        assertTrue(gazetteer.autocomplete("xyz", null, 10).isEmpty());
+        assertTrue(gazetteer.autocomplete("  ", null, 10).isEmpty());
+    }
+
+    @Test
+    void load_RejectsMalformedLine() {
+        CityGazetteer broken = new CityGazetteer();
+        assertThrows(IllegalArgumentException.class,
+            () -> broken.load(new StringReader("London\tGB\tnorth\t0.1\n")));
+        assertFalse(broken.isLoaded());
+    }
+}
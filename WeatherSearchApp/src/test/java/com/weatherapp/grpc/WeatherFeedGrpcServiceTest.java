@@ -0,0 +1,269 @@
+package com.weatherapp.grpc;
+
+import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.grpc.proto.CurrentWeatherRequest;
+import com.weatherapp.grpc.proto.CurrentWeatherResponse;
+import com.weatherapp.grpc.proto.HistoryRequest;
+import com.weatherapp.grpc.proto.LocationWeather;
+import com.weatherapp.grpc.proto.Snapshot;
+import com.weatherapp.grpc.proto.SubscribeRequest;
+import com.weatherapp.grpc.proto.WeatherFeedGrpc;
+import com.weatherapp.repository.LocationRepository;
+import com.weatherapp.repository.WeatherSnapshotRepository;
+import com.weatherapp.service.WeatherEventBroadcaster;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WeatherFeedGrpcServiceTest {
+
+    @Autowired
+    private WeatherFeedGrpcService weatherFeed;
+
+    @Autowired
+    private WeatherEventBroadcaster eventBroadcaster;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private WeatherSnapshotRepository weatherRepository;
+
+    @MockBean
+    private OpenWeatherMapClient weatherClient;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        weatherRepository.deleteAll();
+        locationRepository.deleteAll();
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(weatherFeed).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void getCurrentWeather_AllLocationsWithLatestSnapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        Location paris = locationRepository.save(new Location("Paris", "FR", 48.8566, 2.3522));
+        weatherRepository.save(snapshotAt(london, 10.0, now.minusHours(1)));
+        WeatherSnapshot latest = weatherRepository.save(snapshotAt(london, 12.0, now));
+
+        CurrentWeatherResponse response = WeatherFeedGrpc.newBlockingStub(channel)
+            .getCurrentWeather(CurrentWeatherRequest.getDefaultInstance());
+
+        assertEquals(2, response.getEntriesCount());
+        LocationWeather first = response.getEntries(0);
+        assertEquals(london.getId(), first.getLocation().getId());
+        assertEquals("London", first.getLocation().getCityName());
+        assertEquals(latest.getId(), first.getCurrent().getId());
+        assertEquals(12.0, first.getCurrent().getTemperature());
+        assertFalse(first.getCurrent().hasWindSpeed());
+        assertEquals(WeatherProtoMapper.toTimestamp(latest.getTimestamp()).getSeconds(),
+            first.getCurrent().getTimestamp().getSeconds());
+        assertEquals(paris.getId(), response.getEntries(1).getLocation().getId());
+        assertFalse(response.getEntries(1).hasCurrent());
+
+        CurrentWeatherResponse selected = WeatherFeedGrpc.newBlockingStub(channel)
+            .getCurrentWeather(CurrentWeatherRequest.newBuilder().addLocationIds(paris.getId()).build());
+        assertEquals(1, selected.getEntriesCount());
+        assertEquals(paris.getId(), selected.getEntries(0).getLocation().getId());
+    }
+
+    @Test
+    void streamHistory_NewestFirstAndFilteredBySince() {
+        LocalDateTime now = LocalDateTime.now();
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        for (int i = 0; i < 5; i++) {
+            weatherRepository.save(snapshotAt(london, 10.0 + i, now.minusHours(5 - i)));
+        }
+
+        List<Double> temperatures = new ArrayList<>();
+        WeatherFeedGrpc.newBlockingStub(channel)
+            .streamHistory(HistoryRequest.newBuilder().setLocationId(london.getId()).build())
+            .forEachRemaining(snapshot -> temperatures.add(snapshot.getTemperature()));
+        assertEquals(List.of(14.0, 13.0, 12.0, 11.0, 10.0), temperatures);
+
+        Iterator<Snapshot> recent = WeatherFeedGrpc.newBlockingStub(channel).streamHistory(HistoryRequest.newBuilder()
+            .setLocationId(london.getId())
+            .setSince(WeatherProtoMapper.toTimestamp(now.minusHours(2).minusMinutes(1)))
+            .build());
+        int count = 0;
+        while (recent.hasNext()) {
+            assertEquals(london.getId(), recent.next().getLocationId());
+            count++;
+        }
+        assertEquals(2, count);
+    }
+
+    @Test
+    void streamHistory_PagesThroughRowsSharingTimestamps() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        List<WeatherSnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < 1203; i++) {
+            // Three rows per timestamp, so page boundaries fall between rows with equal timestamps
+            snapshots.add(snapshotAt(london, i, now.minusMinutes(i / 3)));
+        }
+        weatherRepository.saveAll(snapshots);
+
+        List<Long> ids = new ArrayList<>();
+        WeatherFeedGrpc.newBlockingStub(channel)
+            .streamHistory(HistoryRequest.newBuilder().setLocationId(london.getId()).build())
+            .forEachRemaining(snapshot -> ids.add(snapshot.getId()));
+
+        assertEquals(1203, ids.size());
+        assertEquals(1203, ids.stream().distinct().count());
+        List<Long> expected = weatherRepository.findByLocationIdOrderByTimestampDesc(london.getId()).stream()
+            .sorted((a, b) -> a.getTimestamp().equals(b.getTimestamp())
+                ? Long.compare(b.getId(), a.getId()) : b.getTimestamp().compareTo(a.getTimestamp()))
+            .map(WeatherSnapshot::getId)
+            .toList();
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void subscribe_KeepsOnlyLatestSnapshotPerLocationWhileClientIsNotReady() throws Exception {
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        Location paris = locationRepository.save(new Location("Paris", "FR", 48.8566, 2.3522));
+        BlockingQueue<Snapshot> received = new LinkedBlockingQueue<>();
+        List<ClientCallStreamObserver<SubscribeRequest>> calls = new ArrayList<>();
+
+        WeatherFeedGrpc.newStub(channel).subscribe(SubscribeRequest.newBuilder().addLocationIds(london.getId()).build(),
+            new ClientResponseObserver<SubscribeRequest, Snapshot>() {
+                @Override
+                public void beforeStart(ClientCallStreamObserver<SubscribeRequest> requestStream) {
+                    // Ask for one message only; afterwards the server sees the call as not ready
+                    requestStream.disableAutoRequestWithInitial(1);
+                    calls.add(requestStream);
+                }
+
+                @Override
+                public void onNext(Snapshot value) {
+                    received.add(value);
+                }
+
+                @Override
+                public void onError(Throwable t) {}
+
+                @Override
+                public void onCompleted() {}
+            });
+
+        Snapshot first = null;
+        for (int attempt = 0; attempt < 50 && first == null; attempt++) {
+            eventBroadcaster.publish(london.getId(), withId(snapshotAt(london, 10.0, LocalDateTime.now()), 1L));
+            first = received.poll(100, TimeUnit.MILLISECONDS);
+        }
+        assertNotNull(first);
+        received.clear();
+
+        for (long id = 2; id <= 4; id++) {
+            eventBroadcaster.publish(london.getId(), withId(snapshotAt(london, 10.0 + id, LocalDateTime.now()), id));
+        }
+        // Events are dispatched in order, so once this one is seen the London events have been offered
+        CountDownLatch dispatched = new CountDownLatch(1);
+        Runnable removeListener = eventBroadcaster.addListener(List.of(paris.getId()), (locationId, snapshot) -> dispatched.countDown());
+        eventBroadcaster.publish(paris.getId(), withId(snapshotAt(paris, 20.0, LocalDateTime.now()), 5L));
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        removeListener.run();
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+
+        calls.get(0).request(10);
+
+        Snapshot latest = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(latest);
+        assertEquals(4L, latest.getId());
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_ReceivesPublishedSnapshots() throws Exception {
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        WeatherSnapshot snapshot = weatherRepository.save(snapshotAt(london, 15.0, LocalDateTime.now()));
+        BlockingQueue<Snapshot> received = new LinkedBlockingQueue<>();
+
+        WeatherFeedGrpc.newStub(channel).subscribe(SubscribeRequest.newBuilder().addLocationIds(london.getId()).build(),
+            new StreamObserver<>() {
+                @Override
+                public void onNext(Snapshot value) {
+                    received.add(value);
+                }
+
+                @Override
+                public void onError(Throwable t) {}
+
+                @Override
+                public void onCompleted() {}
+            });
+
+        // The subscription registers asynchronously, so publish until the first event arrives
+        Snapshot event = null;
+        for (int attempt = 0; attempt < 50 && event == null; attempt++) {
+            eventBroadcaster.publish(london.getId(), snapshot);
+            event = received.poll(100, TimeUnit.MILLISECONDS);
+        }
+
+        assertNotNull(event);
+        assertEquals(snapshot.getId(), event.getId());
+        assertEquals(london.getId(), event.getLocationId());
+        assertEquals(15.0, event.getTemperature());
+    }
+
+    @Test
+    void subscribe_WithoutLocationsIsRejected() {
+        Iterator<Snapshot> stream = WeatherFeedGrpc.newBlockingStub(channel).subscribe(SubscribeRequest.getDefaultInstance());
+
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class, stream::hasNext);
+        assertEquals(Status.Code.INVALID_ARGUMENT, error.getStatus().getCode());
+    }
+
+    private WeatherSnapshot withId(WeatherSnapshot snapshot, Long id) {
+        snapshot.setId(id);
+        return snapshot;
+    }
+
+    private WeatherSnapshot snapshotAt(Location location, double temperature, LocalDateTime timestamp) {
+        WeatherSnapshot snapshot = new WeatherSnapshot(location, temperature, 60, 1012.0);
+        snapshot.setTimestamp(timestamp);
+        return snapshot;
+    }
+}
@@ -0,0 +1,93 @@
+package com.weatherapp.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationSearchIndexTest {
+
+    private LocationSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LocationSearchIndex();
+        index.rebuild(List.of(
+            entry(1L, "London", "London, GB"),
+            entry(2L, "Paris", "Paris, FR"),
+            entry(3L, "Londrina", null),
+            entry(4L, "New York", "Big Apple")
+        ));
+    }
+
+    @Test
+    void rebuild_MarksIndexReady() {
+        assertFalse(new LocationSearchIndex().isReady());
+        assertTrue(index.isReady());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void search_MatchesCityAndDisplayNameSubstrings() {
+        assertEquals(List.of(1L, 3L), index.search("Lond"));
+        assertEquals(List.of(4L), index.search("Apple"));
+        assertEquals(List.of(2L), index.search("s, FR"));
+    }
+
+    @Test
+    void search_IsCaseSensitiveLikeRepositoryQuery() {
+        assertEquals(List.of(), index.search("london"));
+    }
+
+    @Test
+    void search_ShortTermsFallBackToScan() {
+        assertEquals(List.of(1L, 3L), index.search("Lo"));
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.search(""));
+    }
+
+    @Test
+    void search_RequiresContiguousMatchNotJustSharedTrigrams() {
+        index.index(20L, "abcd", "bcde");
+
+        assertEquals(List.of(), index.search("abcde"));
+        assertEquals(List.of(20L), index.search("bcde"));
+    }
+
+    @Test
+    void index_ReplacesExistingDocument() {
+        index.index(2L, "Paris", "City of Light");
+
+        assertEquals(List.of(), index.search("s, FR"));
+        assertEquals(List.of(2L), index.search("Light"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void index_OutOfOrderIdsStaySorted() {
+        index.index(10L, "Londonderry", null);
+        index.index(5L, "East London", null);
+
+        assertEquals(List.of(1L, 3L, 5L, 10L), index.search("Lond"));
+    }
+
+    @Test
+    void remove_DropsDocumentFromResults() {
+        index.remove(1L);
+        index.remove(99L);
+
+        assertEquals(List.of(3L), index.search("Lond"));
+        assertEquals(3, index.size());
+    }
+
+    private static LocationIndexEntry entry(Long id, String cityName, String displayName) {
+        return new LocationIndexEntry() {
+            public Long getId() { return id; }
+            public String getCityName() { return cityName; }
+            public String getDisplayName() { return displayName; }
+            public Double getLatitude() { return null; }
+            public Double getLongitude() { return null; }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.weatherapp.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationSpatialIndexTest {
+
+    private LocationSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LocationSpatialIndex();
+        index.rebuild(List.of(
+            entry(1L, 51.5074, -0.1278),
+            entry(2L, 48.8566, 2.3522),
+            entry(3L, 52.5200, 13.4050),
+            entry(4L, 40.7128, -74.0060),
+            entry(5L, -36.8485, 174.7633),
+            entry(6L, -17.7134, -178.0650)
+        ));
+    }
+
+    @Test
+    void nearest_OrdersByDistance() {
+        List<LocationSpatialIndex.Neighbor> neighbors = index.nearest(51.0, 0.5, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(neighbors));
+        assertTrue(neighbors.get(0).distanceKm() < neighbors.get(1).distanceKm());
+    }
+
+    @Test
+    void nearest_ReturnsEverythingWhenKExceedsSize() {
+        assertEquals(6, index.nearest(0, 0, 50).size());
+        assertEquals(List.of(), index.nearest(0, 0, 0));
+    }
+
+    @Test
+    void nearest_WrapsAcrossAntimeridian() {
+        assertEquals(List.of(6L), ids(index.nearest(-17.0, 179.5, 1)));
+    }
+
+    @Test
+    void nearest_MatchesBruteForceOnRandomPoints() {
+        Random random = new Random(7);
+        List<LocationIndexEntry> entries = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            entries.add(entry(id, random.nextDouble() * 170 - 85, random.nextDouble() * 360 - 180));
+        }
+        index.rebuild(entries);
+
+        for (int i = 0; i < 50; i++) {
+            double lat = random.nextDouble() * 170 - 85;
+            double lon = random.nextDouble() * 360 - 180;
+            List<Long> expected = entries.stream()
+                .sorted(Comparator.comparingDouble(e -> LocationSpatialIndex.distanceKm(lat, lon, e.getLatitude(), e.getLongitude())))
+                .limit(5)
+                .map(LocationIndexEntry::getId)
+                .collect(Collectors.toList());
+            assertEquals(expected, ids(index.nearest(lat, lon, 5)));
+        }
+    }
+
+    @Test
+    void nearest_FarFromClusteredPointsMatchesBruteForce() {
+        Random random = new Random(11);
+        double[][] clusters = {{51.5, -0.1}, {40.7, -74.0}, {35.7, 139.7}, {-33.9, 151.2}};
+        List<LocationIndexEntry> entries = new ArrayList<>();
+        for (long id = 1; id <= 4000; id++) {
+            double[] center = clusters[(int) (id % clusters.length)];
+            entries.add(entry(id, center[0] + random.nextGaussian(), center[1] + random.nextGaussian()));
+        }
+        index.rebuild(entries);
+
+        double[][] queries = {{-45.0, -130.0}, {0.0, -30.0}, {-60.0, 60.0}, {85.0, 179.9}, {-89.9, 0.0}};
+        for (double[] query : queries) {
+            List<Long> expected = entries.stream()
+                .sorted(Comparator.comparingDouble(e -> LocationSpatialIndex.distanceKm(query[0], query[1], e.getLatitude(), e.getLongitude())))
+                .limit(5)
+                .map(LocationIndexEntry::getId)
+                .collect(Collectors.toList());
+            assertEquals(expected, ids(index.nearest(query[0], query[1], 5)));
+        }
+    }
+
+    @Test
+    void withinBoundingBox_ReturnsContainedPoints() {
+        List<Long> europe = index.withinBoundingBox(45, -5, 55, 15, 100);
+
+        assertEquals(List.of(1L, 2L, 3L), europe.stream().sorted().collect(Collectors.toList()));
+        assertEquals(1, index.withinBoundingBox(45, -5, 55, 15, 1).size());
+    }
+
+    @Test
+    void withinBoundingBox_CrossingAntimeridian() {
+        List<Long> pacific = index.withinBoundingBox(-40, 170, -10, -170, 100);
+
+        assertEquals(List.of(5L, 6L), pacific.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void addAndRemove_UpdateIndex() {
+        index.add(7L, 51.45, -0.97);
+        index.remove(1L);
+        index.add(2L, 51.75, -1.25);
+
+        assertEquals(List.of(7L, 2L), ids(index.nearest(51.5, -1.0, 2)));
+        assertEquals(6, index.size());
+    }
+
+    private static List<Long> ids(List<LocationSpatialIndex.Neighbor> neighbors) {
+        return neighbors.stream().map(LocationSpatialIndex.Neighbor::id).collect(Collectors.toList());
+    }
+
+    private static LocationIndexEntry entry(Long id, double latitude, double longitude) {
+        return new LocationIndexEntry() {
+            public Long getId() { return id; }
+            public String getCityName() { return "City " + id; }
+            public String getDisplayName() { return null; }
+            public Double getLatitude() { return latitude; }
+            public Double getLongitude() { return longitude; }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.weatherapp.integration;
+
+import com.weatherapp.datasource.ReplicaLagMonitor;
+import com.weatherapp.entity.Location;
+import com.weatherapp.repository.LocationRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The replica is the in-memory test database itself, so both pools see the same data and the test
+ * checks which pool holds the connection.
+ */
+@SpringBootTest(properties = {
+    "weather.datasource.replica.url=jdbc:h2:mem:testdb",
+    "weather.datasource.replica.lag-query=SELECT 0"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplicaPoolAndWritesUsePrimary() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Location saved = readWrite.execute(status -> {
+            Location location = locationRepository.save(new Location("Oslo", "NO", 59.91, 10.75));
+            assertEquals(1, primary.getHikariPoolMXBean().getActiveConnections());
+            return location;
+        });
+
+        readOnly.executeWithoutResult(status -> {
+            assertTrue(locationRepository.findById(saved.getId()).isPresent());
+            assertEquals(1, replica.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, primary.getHikariPoolMXBean().getActiveConnections());
+        });
+
+        readWrite.executeWithoutResult(status -> locationRepository.deleteById(saved.getId()));
+    }
+}
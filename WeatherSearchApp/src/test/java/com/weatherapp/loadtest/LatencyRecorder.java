@@ -0,0 +1,64 @@
+package com.weatherapp.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples and outcome counts for one kind of request. Samples are kept in full, which
+ * is fine for the few hundred thousand requests of a load-test run.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private long[] nanos = new long[1024];
+    private int count;
+    private long errors;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void record(long latencyNanos, boolean success) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        return new Summary(name, count, errors, count / seconds,
+            percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 0.999),
+            count > 0 ? sorted[count - 1] / 1e6 : 0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    public record Summary(String name, long count, long errors, double throughput,
+                          double p50, double p90, double p99, double p999, double max) {
+
+        static String header() {
+            return String.format("%-12s %9s %7s %9s %9s %9s %9s %9s %9s",
+                "request", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, count, errors, throughput, p50, p90, p99, p999, max);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.weatherapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.WeatherSearchAppApplication;
+import com.weatherapp.service.WeatherService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Open-loop load test of the REST API against the {@link OpenWeatherMapStub}, runnable offline. Starts the
+ * stub and the app (test profile, in-memory H2, random port, weather API pointed at the stub), adds
+ * locations through the API so geocoding and the first sync go through the stub, then sends requests at a
+ * fixed rate drawn from a weighted endpoint mix. Latency is measured from each request's scheduled send
+ * time, so a stalled server shows up as latency rather than as a lower request rate. While the load
+ * runs, the scheduled sync of all locations is triggered periodically and timed.
+ *
+ * Options ({@code --name=value}):
+ * <ul>
+ * <li>{@code rps} (50), {@code duration} (60 s), {@code warmup} (10 s, not reported), {@code locations} (20)</li>
+ * <li>{@code mix} - endpoint weights, default
+ *     {@code current:35,history:15,batch:10,forecast:15,detail:10,dashboard:10,sync:5}</li>
+ * <li>{@code scheduler-interval} - seconds between full syncs (15, 0 disables)</li>
+ * <li>{@code latency}, {@code error-rate}, {@code error-status}, {@code payload-dir} - stub behaviour</li>
+ * <li>{@code api-rate-limit} - {@code weather.api.rate-limit-per-minute} for the app (60000)</li>
+ * <li>{@code target} - base URL of an already running app instead of starting one; it must use the
+ *     stub at {@code stub-port} (8089), and the scheduler is not triggered</li>
+ * <li>{@code app.<property>} - passed to the app as {@code --<property>}</li>
+ * </ul>
+ *
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.loadtest.LoadDriver --rps=200 --duration=120}
+ * where cp.txt comes from {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+public class LoadDriver {
+
+    private static final String DEFAULT_MIX = "current:35,history:15,batch:10,forecast:15,detail:10,dashboard:10,sync:5";
+
+    public static void main(String[] argv) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        int rps = args.getInt("rps", 50);
+        int durationSeconds = args.getInt("duration", 60);
+        int warmupSeconds = args.getInt("warmup", 10);
+        int locationCount = args.getInt("locations", 20);
+        int schedulerInterval = args.getInt("scheduler-interval", 15);
+        Map<String, Integer> mix = parseMix(args.get("mix", DEFAULT_MIX));
+        String target = args.get("target", null);
+
+        OpenWeatherMapStub stub = OpenWeatherMapStub.fromArgs(args, target != null ? 8089 : 0).start();
+        ConfigurableApplicationContext context = null;
+        ExecutorService clientExecutor = Executors.newCachedThreadPool();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            if (target == null) {
+                context = startApp(argv, stub, args.getInt("api-rate-limit", 60_000));
+                target = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            }
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).connectTimeout(Duration.ofSeconds(5)).build();
+            List<Long> locationIds = seedLocations(client, target, locationCount);
+            System.out.printf("Seeded %d locations; %d req/s for %d s after %d s warm-up against %s%n",
+                locationIds.size(), rps, durationSeconds, warmupSeconds, target);
+
+            LatencyRecorder schedulerRuns = new LatencyRecorder("scheduler");
+            if (context != null && schedulerInterval > 0) {
+                WeatherService weatherService = context.getBean(WeatherService.class);
+                scheduler.scheduleWithFixedDelay(() -> {
+                    long start = System.nanoTime();
+                    weatherService.syncAllLocations();
+                    schedulerRuns.record(System.nanoTime() - start, true);
+                }, schedulerInterval, schedulerInterval, TimeUnit.SECONDS);
+            }
+
+            Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+            mix.keySet().forEach(name -> recorders.put(name, new LatencyRecorder(name)));
+            LatencyRecorder all = new LatencyRecorder("all");
+            run(client, target, locationIds, mix, recorders, all, rps, warmupSeconds, durationSeconds);
+
+            scheduler.shutdownNow();
+            System.out.println(LatencyRecorder.Summary.header());
+            for (LatencyRecorder recorder : recorders.values()) {
+                System.out.println(recorder.summarize(durationSeconds));
+            }
+            System.out.println(all.summarize(durationSeconds));
+            if (schedulerInterval > 0 && context != null) {
+                System.out.println(schedulerRuns.summarize(warmupSeconds + durationSeconds));
+            }
+            System.out.printf("Stub: %d current-weather and %d forecast calls, %d injected errors%n",
+                stub.getCurrentRequests(), stub.getForecastRequests(), stub.getInjectedErrors());
+        } finally {
+            scheduler.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+            stub.close();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApp(String[] argv, OpenWeatherMapStub stub, int apiRateLimit) {
+        List<String> appArgs = new ArrayList<>(List.of("--spring.profiles.active=test", "--server.port=0",
+            "--weather.api.base-url=" + stub.getBaseUrl(), "--weather.api.rate-limit-per-minute=" + apiRateLimit,
+            "--spring.jpa.show-sql=false", "--logging.level.root=WARN", "--logging.level.com.weatherapp=WARN",
+            "--logging.level.org.springframework.web=WARN"));
+        for (String arg : argv) {
+            if (arg.startsWith("--app.")) {
+                appArgs.add("--" + arg.substring("--app.".length()));
+            }
+        }
+        return new SpringApplicationBuilder(WeatherSearchAppApplication.class).run(appArgs.toArray(String[]::new));
+    }
+
+    /**
+     * Adds locations by name, so the app geocodes them through the stub, and syncs each once.
+     */
+    private static List<Long> seedLocations(HttpClient client, String target, int count) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String body = "{\"cityName\":\"Loadtown " + i + "\",\"countryCode\":\"GB\"}";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/locations"))
+                .header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            // Geocoding goes through the stub, so injected errors can fail an attempt
+            for (int attempt = 1; response.statusCode() >= 500 && attempt < 5; attempt++) {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            }
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Adding a location failed with status " + response.statusCode()
+                    + "; a location with that name may already exist, or the stub returned an error");
+            }
+            JsonNode location = objectMapper.readTree(response.body());
+            ids.add(location.get("id").asLong());
+        }
+        for (Long id : ids) {
+            client.send(HttpRequest.newBuilder(URI.create(target + "/api/weather/sync/" + id))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+        }
+        return ids;
+    }
+
+    private static void run(HttpClient client, String target, List<Long> locationIds, Map<String, Integer> mix,
+                            Map<String, LatencyRecorder> recorders, LatencyRecorder all,
+                            int rps, int warmupSeconds, int durationSeconds) {
+        List<String> names = new ArrayList<>(mix.keySet());
+        int[] cumulative = new int[names.size()];
+        int total = 0;
+        for (int i = 0; i < names.size(); i++) {
+            total += mix.get(names.get(i));
+            cumulative[i] = total;
+        }
+        String batchIds = locationIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int pick = random.nextInt(total);
+            int index = 0;
+            while (cumulative[index] <= pick) {
+                index++;
+            }
+            String name = names.get(index);
+            HttpRequest request = request(name, target, locationIds.get(random.nextInt(locationIds.size())), batchIds);
+            long sendAt = scheduled;
+            boolean measured = scheduled >= measureFrom;
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).handle((response, error) -> {
+                if (measured) {
+                    long latency = System.nanoTime() - sendAt;
+                    boolean success = error == null && response.statusCode() < 400;
+                    recorders.get(name).record(latency, success);
+                    all.record(latency, success);
+                }
+                return null;
+            }));
+            if (inFlight.size() >= 10_000) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Some requests had not completed 60 s after the run: " + e);
+        }
+    }
+
+    private static HttpRequest request(String name, String target, Long locationId, String batchIds) {
+        HttpRequest.Builder builder;
+        switch (name) {
+            case "current":
+                builder = HttpRequest.newBuilder(URI.create(target + "/api/weather/current/" + locationId));
+                break;
+            case "history":
+                builder = HttpRequest.newBuilder(URI.create(target + "/api/weather/history/" + locationId));
+                break;
+            case "batch":
+                builder = HttpRequest.newBuilder(URI.create(target + "/api/weather/current?ids=" + batchIds));
+                break;
+            case "forecast":
+                builder = HttpRequest.newBuilder(URI.create(target + "/api/weather/forecast/" + locationId));
+                break;
+            case "detail":
+                builder = HttpRequest.newBuilder(URI.create(target + "/api/locations/" + locationId + "/detail"));
+                break;
+            case "dashboard":
+                builder = HttpRequest.newBuilder(URI.create(target + "/api/dashboard"));
+                break;
+            case "sync":
+                builder = HttpRequest.newBuilder(URI.create(target + "/api/weather/sync/" + locationId))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown request type in mix: " + name);
+        }
+        return builder.timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                mix.put(parts[0], weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Request mix has no positive weights: " + spec);
+        }
+        return mix;
+    }
+}
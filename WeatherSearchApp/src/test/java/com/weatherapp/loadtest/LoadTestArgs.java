@@ -0,0 +1,41 @@
+package com.weatherapp.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --name=value} command-line options shared by the stub server and the load driver.
+ */
+public class LoadTestArgs {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public LoadTestArgs(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+    }
+
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public int[] getIntList(String name, String defaultValue) {
+        return Arrays.stream(get(name, defaultValue).split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,227 @@
+package com.weatherapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the OpenWeatherMap API serving {@code /data/2.5/weather} and {@code /data/2.5/forecast}
+ * by city name or coordinates. Bodies come from {@code current.json} and {@code forecast.json} (the
+ * classpath {@code owm/} fixtures unless a payload directory is given), with the requested city,
+ * coordinates, timestamps and a jittered temperature filled in. Each request is delayed by a sample of
+ * the latency distribution and fails with one of the error statuses at the configured rate.
+ *
+ * {@link LoadDriver} starts one in-process. To run it on its own and start the app with
+ * {@code --weather.api.base-url=<printed url>}:
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.loadtest.OpenWeatherMapStub
+ * --port=8089 --latency=lognormal:40:400 --error-rate=0.01}
+ */
+public class OpenWeatherMapStub implements AutoCloseable {
+
+    private static final DateTimeFormatter DT_TXT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final int[] errorStatuses;
+    private final JsonNode currentTemplate;
+    private final JsonNode forecastTemplate;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final LongAdder currentRequests = new LongAdder();
+    private final LongAdder forecastRequests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    public OpenWeatherMapStub(int port, LatencyDistribution latency, double errorRate, int[] errorStatuses, Path payloadDir) throws IOException {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.errorStatuses = errorStatuses;
+        this.currentTemplate = readPayload(payloadDir, "current.json");
+        this.forecastTemplate = readPayload(payloadDir, "forecast.json");
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 256);
+        server.createContext("/data/2.5/weather", exchange -> handle(exchange, true));
+        server.createContext("/data/2.5/forecast", exchange -> handle(exchange, false));
+        server.setExecutor(executor);
+    }
+
+    public OpenWeatherMapStub start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Value for {@code weather.api.base-url}.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort() + "/data/2.5";
+    }
+
+    public long getCurrentRequests() {
+        return currentRequests.sum();
+    }
+
+    public long getForecastRequests() {
+        return forecastRequests.sum();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, boolean current) throws IOException {
+        try (exchange) {
+            (current ? currentRequests : forecastRequests).increment();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = latency.sampleMillis(random);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                injectedErrors.increment();
+                int status = errorStatuses[random.nextInt(errorStatuses.length)];
+                send(exchange, status, "{\"cod\":" + status + ",\"message\":\"stub error\"}");
+                return;
+            }
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            ObjectNode body = current ? currentBody(query, random) : forecastBody(query, random);
+            send(exchange, 200, objectMapper.writeValueAsString(body));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ObjectNode currentBody(Map<String, String> query, ThreadLocalRandom random) {
+        ObjectNode body = currentTemplate.deepCopy();
+        Place place = place(query);
+        body.put("name", place.name());
+        ((ObjectNode) body.get("sys")).put("country", place.country());
+        ((ObjectNode) body.get("coord")).put("lat", place.lat()).put("lon", place.lon());
+        ObjectNode main = (ObjectNode) body.get("main");
+        main.put("temp", Math.rint((main.get("temp").asDouble() + random.nextDouble(-5, 5)) * 100) / 100);
+        body.put("dt", Instant.now().getEpochSecond());
+        return body;
+    }
+
+    private ObjectNode forecastBody(Map<String, String> query, ThreadLocalRandom random) {
+        ObjectNode body = forecastTemplate.deepCopy();
+        Place place = place(query);
+        ObjectNode city = (ObjectNode) body.get("city");
+        city.put("name", place.name()).put("country", place.country());
+        ((ObjectNode) city.get("coord")).put("lat", place.lat()).put("lon", place.lon());
+        long dt = (Instant.now().getEpochSecond() / 10800 + 1) * 10800;
+        double shift = random.nextDouble(-5, 5);
+        for (JsonNode item : body.get("list")) {
+            ObjectNode entry = (ObjectNode) item;
+            entry.put("dt", dt);
+            entry.put("dt_txt", DT_TXT.format(Instant.ofEpochSecond(dt)));
+            ObjectNode main = (ObjectNode) entry.get("main");
+            main.put("temp", Math.rint((main.get("temp").asDouble() + shift) * 100) / 100);
+            dt += 10800;
+        }
+        return body;
+    }
+
+    /**
+     * City lookups get stable made-up coordinates; coordinate lookups get a name derived from them.
+     */
+    private static Place place(Map<String, String> query) {
+        String q = query.get("q");
+        if (q != null) {
+            String[] parts = q.split(",", 2);
+            int hash = parts[0].hashCode();
+            return new Place(parts[0], parts.length > 1 ? parts[1] : "GB",
+                Math.floorMod(hash, 12000) / 100.0 - 60, Math.floorMod(hash / 12000, 36000) / 100.0 - 180);
+        }
+        double lat = Double.parseDouble(query.getOrDefault("lat", "0"));
+        double lon = Double.parseDouble(query.getOrDefault("lon", "0"));
+        return new Place(String.format("Stub %.2f,%.2f", lat, lon), "GB", lat, lon);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private JsonNode readPayload(Path payloadDir, String name) throws IOException {
+        if (payloadDir != null) {
+            return objectMapper.readTree(Files.readAllBytes(payloadDir.resolve(name)));
+        }
+        try (InputStream input = OpenWeatherMapStub.class.getResourceAsStream("/owm/" + name)) {
+            return objectMapper.readTree(input);
+        }
+    }
+
+    public static OpenWeatherMapStub fromArgs(LoadTestArgs args, int defaultPort) throws IOException {
+        String payloadDir = args.get("payload-dir", null);
+        return new OpenWeatherMapStub(
+            args.getInt("stub-port", defaultPort),
+            LatencyDistribution.parse(args.get("latency", "lognormal:40:400")),
+            args.getDouble("error-rate", 0.0),
+            args.getIntList("error-status", "500,503,429"),
+            payloadDir != null ? Path.of(payloadDir) : null);
+    }
+
+    public static void main(String[] argv) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        OpenWeatherMapStub stub = fromArgs(args, args.getInt("port", 8089)).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("OpenWeatherMap stub listening; set weather.api.base-url=" + stub.getBaseUrl());
+        Thread.currentThread().join();
+    }
+
+    private record Place(String name, String country, double lat, double lon) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.weatherapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenWeatherMapStubTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void currentWeather_FillsInRequestedCity() throws Exception {
+        try (OpenWeatherMapStub stub = new OpenWeatherMapStub(0, LatencyDistribution.fixed(0), 0, new int[] {500}, null).start()) {
+            HttpResponse<String> response = get(stub.getBaseUrl() + "/weather?q=Oslo,NO&appid=key&units=metric");
+            JsonNode body = objectMapper.readTree(response.body());
+
+            assertEquals(200, response.statusCode());
+            assertEquals("Oslo", body.get("name").asText());
+            assertEquals("NO", body.get("sys").get("country").asText());
+            assertEquals(1, stub.getCurrentRequests());
+        }
+    }
+
+    @Test
+    void forecast_UsesRequestedCoordinates() throws Exception {
+        try (OpenWeatherMapStub stub = new OpenWeatherMapStub(0, LatencyDistribution.fixed(0), 0, new int[] {500}, null).start()) {
+            JsonNode body = objectMapper.readTree(get(stub.getBaseUrl() + "/forecast?lat=51.5&lon=-0.13&appid=key&units=metric").body());
+
+            assertEquals(51.5, body.get("city").get("coord").get("lat").asDouble());
+            assertEquals(40, body.get("list").size());
+            long first = body.get("list").get(0).get("dt").asLong();
+            assertEquals(first + 10800, body.get("list").get(1).get("dt").asLong());
+        }
+    }
+
+    @Test
+    void errorRate_ReturnsConfiguredStatuses() throws Exception {
+        try (OpenWeatherMapStub stub = new OpenWeatherMapStub(0, LatencyDistribution.fixed(0), 1.0, new int[] {429}, null).start()) {
+            HttpResponse<String> response = get(stub.getBaseUrl() + "/weather?q=Oslo&appid=key&units=metric");
+
+            assertEquals(429, response.statusCode());
+            assertEquals(1, stub.getInjectedErrors());
+        }
+    }
+
+    @Test
+    void latencyDistribution_LogNormalMatchesMedianAndTail() {
+        LatencyDistribution latency = LatencyDistribution.parse("lognormal:40:400");
+        Random random = new Random(42);
+        long[] samples = new long[20_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = latency.sampleMillis(random);
+        }
+        Arrays.sort(samples);
+
+        assertEquals(40, samples[samples.length / 2], 3);
+        assertEquals(400, samples[samples.length * 99 / 100], 60);
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("gamma:1:2"));
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,200 @@
+package com.weatherapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cold-start comparison of the packaged app: the plain JVM jar, the same jar with the AOT-generated
+ * initializers ({@code -Dspring.aot.enabled=true}, needs a jar built with {@code mvn -Pnative package})
+ * and the native executable from {@code mvn -Pnative native:compile}. Each mode is started {@code runs}
+ * times as a fresh process with the weather API pointed at the {@link OpenWeatherMapStub}. A run measures
+ * the time from launching the process to the first successful response from {@code path}. It also records
+ * the resident set size (VmRSS) right after that response and the peak RSS (VmHWM) up to then. Modes whose
+ * artifact is missing are skipped. Medians are printed and every run is written to {@code output}.
+ *
+ * Options ({@code --name=value}):
+ * <ul>
+ * <li>{@code modes} ({@code jvm,jvm-aot,native}), {@code runs} (5), {@code port} (18080),
+ *     {@code path} ({@code /api/locations}), {@code timeout} (120 s per start)</li>
+ * <li>{@code jar} ({@code target/WeatherSearchApp-1.0-SNAPSHOT.jar}), {@code native}
+ *     ({@code target/weather-search-app})</li>
+ * <li>{@code java-opts} - JVM options, default those of the Dockerfile:
+ *     {@code -Xmx512m -Xms256m -XX:+UseG1GC}</li>
+ * <li>{@code loader-path} - extra jars for the JVM modes, e.g. a JDBC driver (uses Boot's PropertiesLauncher)</li>
+ * <li>{@code output} ({@code target/startup-benchmark.json})</li>
+ * <li>{@code app.<property>} - passed to the app as {@code --<property>}, e.g. the datasource</li>
+ * </ul>
+ *
+ * The app needs its database: start the compose Postgres ({@code docker compose up -d postgres}) and pass
+ * {@code --app.spring.datasource.url=jdbc:postgresql://localhost:5434/weatherapp}. Run after
+ * {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) com.weatherapp.loadtest.StartupBenchmark --runs=10}
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STATUS_KB = Pattern.compile("(VmRSS|VmHWM):\\s+(\\d+) kB");
+
+    public static void main(String[] argv) throws Exception {
+        LoadTestArgs args = new LoadTestArgs(argv);
+        List<String> modes = List.of(args.get("modes", "jvm,jvm-aot,native").split(","));
+        int runs = args.getInt("runs", 5);
+        int port = args.getInt("port", 18080);
+        Path jar = Path.of(args.get("jar", "target/WeatherSearchApp-1.0-SNAPSHOT.jar"));
+        Path nativeImage = Path.of(args.get("native", "target/weather-search-app"));
+        Path output = Path.of(args.get("output", "target/startup-benchmark.json"));
+        URI firstRequest = URI.create("http://localhost:" + port + args.get("path", "/api/locations"));
+        Duration timeout = Duration.ofSeconds(args.getInt("timeout", 120));
+
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        try (OpenWeatherMapStub stub = OpenWeatherMapStub.fromArgs(args, 0).start()) {
+            List<String> appArgs = appArgs(argv, stub, port);
+            for (String mode : modes) {
+                List<String> command = command(mode.trim(), args, jar, nativeImage);
+                if (command == null) {
+                    System.out.printf("Skipping %s: %s not found%n", mode, mode.trim().equals("native") ? nativeImage : jar);
+                    continue;
+                }
+                command.addAll(appArgs);
+                List<Run> modeRuns = new ArrayList<>();
+                for (int i = 1; i <= runs; i++) {
+                    Run run = measure(command, firstRequest, timeout, output.resolveSibling("startup-" + mode.trim() + "-" + i + ".log"));
+                    System.out.printf("%-8s run %d: first request %7.0f ms, RSS %6.1f MB, peak %6.1f MB%n",
+                        mode, i, run.firstRequestMillis(), run.rssMb(), run.peakRssMb());
+                    modeRuns.add(run);
+                }
+                results.put(mode.trim(), modeRuns);
+            }
+        }
+
+        System.out.printf("%n%-8s %6s %18s %12s %12s%n", "mode", "runs", "first request ms", "RSS MB", "peak RSS MB");
+        for (Map.Entry<String, List<Run>> mode : results.entrySet()) {
+            List<Run> modeRuns = mode.getValue();
+            System.out.printf("%-8s %6d %18.0f %12.1f %12.1f%n", mode.getKey(), modeRuns.size(),
+                median(modeRuns, Run::firstRequestMillis), median(modeRuns, Run::rssMb), median(modeRuns, Run::peakRssMb));
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        System.out.println("Runs written to " + output);
+    }
+
+    private static List<String> appArgs(String[] argv, OpenWeatherMapStub stub, int port) {
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=" + port, "--weather.api.base-url=" + stub.getBaseUrl(),
+            "--weather.api.key=startup-benchmark", "--weather.grpc.port=-1", "--spring.jpa.show-sql=false"));
+        for (String arg : argv) {
+            if (arg.startsWith("--app.")) {
+                appArgs.add("--" + arg.substring("--app.".length()));
+            }
+        }
+        return appArgs;
+    }
+
+    private static List<String> command(String mode, LoadTestArgs args, Path jar, Path nativeImage) {
+        if (mode.equals("native")) {
+            return Files.isExecutable(nativeImage) ? new ArrayList<>(List.of(nativeImage.toString())) : null;
+        }
+        if (!Files.isRegularFile(jar)) {
+            return null;
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(args.get("java-opts", "-Xmx512m -Xms256m -XX:+UseG1GC").trim().split("\\s+")));
+        if (mode.equals("jvm-aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        } else if (!mode.equals("jvm")) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        String loaderPath = args.get("loader-path", null);
+        if (loaderPath != null) {
+            command.addAll(List.of("-Dloader.path=" + loaderPath, "-cp", jar.toString(),
+                "org.springframework.boot.loader.launch.PropertiesLauncher"));
+        } else {
+            command.addAll(List.of("-jar", jar.toString()));
+        }
+        return command;
+    }
+
+    private static Run measure(List<String> command, URI firstRequest, Duration timeout, Path log)
+            throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(firstRequest).timeout(Duration.ofSeconds(10)).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("App exited with " + process.exitValue() + " before serving " + firstRequest + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No response from " + firstRequest + " within " + timeout + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2) {
+                        break;
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            double firstRequestMillis = (System.nanoTime() - start) / 1e6;
+            Map<String, Long> memory = memoryKb(process.pid());
+            return new Run(firstRequestMillis, memory.getOrDefault("VmRSS", 0L) / 1024.0, memory.getOrDefault("VmHWM", 0L) / 1024.0);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * VmRSS and VmHWM of the process from {@code /proc}; falls back to {@code ps} (RSS only) elsewhere.
+     */
+    private static Map<String, Long> memoryKb(long pid) throws IOException, InterruptedException {
+        Map<String, Long> memory = new LinkedHashMap<>();
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (Files.isReadable(status)) {
+            Matcher matcher = STATUS_KB.matcher(Files.readString(status));
+            while (matcher.find()) {
+                memory.put(matcher.group(1), Long.parseLong(matcher.group(2)));
+            }
+            return memory;
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String rss = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        if (!rss.isEmpty()) {
+            memory.put("VmRSS", Long.parseLong(rss));
+            memory.put("VmHWM", Long.parseLong(rss));
+        }
+        return memory;
+    }
+
+    private static double median(List<Run> runs, ToDoubleFunction<Run> metric) {
+        double[] values = runs.stream().mapToDouble(metric).sorted().toArray();
+        return values.length == 0 ? Double.NaN : values[values.length / 2];
+    }
+
+    public record Run(double firstRequestMillis, double rssMb, double peakRssMb) {
+    }
+}
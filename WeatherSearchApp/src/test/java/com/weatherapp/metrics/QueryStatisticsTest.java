@@ -0,0 +1,86 @@
+package com.weatherapp.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryStatisticsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueryStatistics statistics = new QueryStatistics(registry, 3, 5);
+
+    @AfterEach
+    void unbind() {
+        RequestTiming.unbind();
+    }
+
+    @Test
+    void normalize_CollapsesLiteralsInListsAndWhitespace() {
+        assertEquals("select l1_0.id from locations l1_0 where l1_0.name=? and l1_0.id in (?) limit ?",
+            QueryStatistics.normalize("select l1_0.id\n  from locations l1_0 where l1_0.name='O''Hare' and l1_0.id in (?, ?,?) limit 10"));
+    }
+
+    @Test
+    void recordRequest_FlagsRepeatedSelectAsNPlusOne() {
+        RequestTiming timing = RequestTiming.bind();
+        statistics.recordExecution("select * from locations", 1_000_000);
+        for (int id = 1; id <= 6; id++) {
+            statistics.recordExecution("select * from weather_snapshots where location_id=" + id, 2_000_000);
+        }
+        for (int i = 0; i < 6; i++) {
+            statistics.recordExecution("update sync_state set version=? where id=?", 500_000);
+        }
+        statistics.recordRequest("GET /api/locations", timing);
+
+        QueryStatistics.QueryReport report = statistics.report(10);
+
+        assertEquals(1, report.nPlusOne().size());
+        QueryStatistics.NPlusOneSuspect suspect = report.nPlusOne().get(0);
+        assertEquals("GET /api/locations", suspect.endpoint());
+        assertEquals("select * from weather_snapshots where location_id=?", suspect.sql());
+        assertEquals(6, suspect.maxRepetitions());
+        assertEquals(List.of(new QueryStatistics.EndpointSummary("GET /api/locations", 1, 13, 13)), report.endpoints());
+        assertEquals(6, report.mostFrequent().get(0).count());
+        assertEquals(2.0, report.slowest().get(0).maxMillis());
+        assertEquals(3, registry.find(QueryStatistics.QUERY_TIMER).timers().size());
+    }
+
+    @Test
+    void recordExecution_SharesOneEntryBeyondTrackingLimit() {
+        for (int table = 1; table <= 5; table++) {
+            statistics.recordExecution("select * from table_" + (char) ('a' + table), 1_000);
+        }
+
+        QueryStatistics.QueryReport report = statistics.report(10);
+
+        assertEquals(4, report.mostFrequent().size());
+        assertEquals(QueryStatistics.OTHER, report.mostFrequent().get(0).id());
+        assertEquals(2, report.mostFrequent().get(0).count());
+
+        statistics.reset();
+        assertTrue(statistics.report(10).mostFrequent().isEmpty());
+        assertTrue(registry.find(QueryStatistics.QUERY_TIMER).timers().isEmpty());
+    }
+
+    @Test
+    void queryTimingDataSource_TimesPreparedAndPlainStatements() {
+        DriverManagerDataSource target = new DriverManagerDataSource("jdbc:h2:mem:query-timing;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(new QueryTimingDataSource(target, () -> statistics));
+        RequestTiming timing = RequestTiming.bind();
+
+        jdbc.execute("create table readings (id bigint, temperature double)");
+        jdbc.update("insert into readings values (?, ?)", 1L, 12.5);
+        jdbc.update("insert into readings values (?, ?)", 2L, 14.0);
+        Double max = jdbc.queryForObject("select max(temperature) from readings", Double.class);
+
+        assertEquals(14.0, max);
+        assertEquals(List.of(1L, 1L, 2L), timing.statementCounts().values().stream().sorted().toList());
+        assertEquals(1.0 + 2.0 + 1.0, registry.find(QueryStatistics.QUERY_TIMER).timers().stream().mapToLong(t -> t.count()).sum());
+    }
+}
@@ -0,0 +1,99 @@
+package com.weatherapp.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingFilterTest {
+
+    private final QueryStatistics queries = new QueryStatistics(new SimpleMeterRegistry(), 500, 5);
+
+    @Test
+    void doFilter_AddsServerTimingBeforeBodyIsWritten() throws Exception {
+        SlowRequestLog log = new SlowRequestLog(500, 10);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestTimingFilter(log, queries).doFilter(new MockHttpServletRequest("GET", "/api/weather/forecast/1"), response,
+            new MockFilterChain(servlet((request, out) -> {
+                RequestTiming.record(RequestTiming.Phase.UPSTREAM, 2_000_000);
+                out.getOutputStream().write('x');
+                out.flushBuffer();
+            })));
+
+        assertTrue(response.getHeader(RequestTimingFilter.SERVER_TIMING).startsWith("upstream;dur=2.00, total;dur="));
+        assertEquals("x", response.getContentAsString());
+        assertTrue(log.getEntries().isEmpty());
+    }
+
+    @Test
+    void doFilter_RecordsSlowRequestsNewestFirstWithinCapacity() throws Exception {
+        SlowRequestLog log = new SlowRequestLog(0, 2);
+        RequestTimingFilter filter = new RequestTimingFilter(log, queries);
+
+        for (int id = 1; id <= 3; id++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/weather/current/" + id);
+            request.setQueryString("units=imperial");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain(servlet((req, out) -> {
+                RequestTiming.record(RequestTiming.Phase.DB, 1_000_000);
+                out.setStatus(404);
+            })));
+            assertNotNull(response.getHeader(RequestTimingFilter.SERVER_TIMING));
+        }
+
+        assertEquals(2, log.getEntries().size());
+        SlowRequestLog.SlowRequest newest = log.getEntries().get(0);
+        assertEquals("/api/weather/current/3?units=imperial", newest.uri());
+        assertEquals(404, newest.status());
+        assertEquals(1.0, newest.phases().get("db").millis());
+    }
+
+    @Test
+    void doFilter_SlowLogIncludesPhasesRecordedAfterTheHeaderWentOut() throws Exception {
+        SlowRequestLog log = new SlowRequestLog(0, 10);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestTimingFilter(log, queries).doFilter(new MockHttpServletRequest("GET", "/api/weather/history/1"), response,
+            new MockFilterChain(servlet((request, out) -> {
+                out.getOutputStream().write('[');
+                RequestTiming.record(RequestTiming.Phase.SERIALIZATION, 3_000_000);
+                out.getOutputStream().write(']');
+            })));
+
+        assertFalse(response.getHeader(RequestTimingFilter.SERVER_TIMING).contains("serialization"));
+        assertEquals(3.0, log.getEntries().get(0).phases().get("serialization").millis());
+    }
+
+    @Test
+    void doFilter_SkipsNonApiRequests() throws Exception {
+        SlowRequestLog log = new SlowRequestLog(0, 10);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestTimingFilter(log, queries).doFilter(new MockHttpServletRequest("GET", "/index.html"), response, new MockFilterChain());
+
+        assertNull(response.getHeader(RequestTimingFilter.SERVER_TIMING));
+        assertTrue(log.getEntries().isEmpty());
+    }
+
+    private interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+
+    private static HttpServlet servlet(Handler handler) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                handler.handle(request, response);
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.weatherapp.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.unbind();
+    }
+
+    @Test
+    void toServerTiming_ListsEnteredPhasesAndTotal() {
+        RequestTiming timing = RequestTiming.bind();
+        RequestTiming.record(RequestTiming.Phase.DB, 2_500_000);
+        RequestTiming.record(RequestTiming.Phase.DB, 1_000_000);
+        RequestTiming.recordCacheLookup(true, 10_000);
+
+        String header = timing.toServerTiming();
+
+        assertTrue(header.startsWith("db;dur=3.50, cache;desc=\"hit\";dur=0.01, total;dur="), header);
+        assertEquals(2, timing.phases().get("db").count());
+        assertFalse(timing.phases().containsKey("upstream"));
+    }
+
+    @Test
+    void recordCacheLookup_DescribesMixedOutcomes() {
+        RequestTiming timing = RequestTiming.bind();
+        RequestTiming.recordCacheLookup(true, 0);
+        RequestTiming.recordCacheLookup(false, 0);
+
+        assertEquals("1 hit 1 miss", timing.phases().get("cache").description());
+    }
+
+    @Test
+    void record_WithoutBoundTimingIsIgnored() {
+        assertDoesNotThrow(() -> RequestTiming.record(RequestTiming.Phase.UPSTREAM, 1_000));
+    }
+
+    @Test
+    void wrap_CarriesTimingIntoExecutorTasks() throws Exception {
+        RequestTiming timing = RequestTiming.bind();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(RequestTiming.wrap(() -> RequestTiming.record(RequestTiming.Phase.UPSTREAM, 5_000_000))).get();
+            executor.submit(() -> RequestTiming.record(RequestTiming.Phase.UPSTREAM, 5_000_000)).get();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, timing.phases().get("upstream").count());
+        assertEquals(5.0, timing.phases().get("upstream").millis());
+    }
+}
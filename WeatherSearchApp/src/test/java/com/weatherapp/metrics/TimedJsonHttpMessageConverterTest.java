@@ -0,0 +1,87 @@
+package com.weatherapp.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedJsonHttpMessageConverterTest {
+
+    private final TimedJsonHttpMessageConverter converter = new TimedJsonHttpMessageConverter(new ObjectMapper(), 1024);
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.unbind();
+    }
+
+    @Test
+    void write_SmallBodyIsTimedBeforeTheResponseIsOpened() throws Exception {
+        RequestTiming timing = RequestTiming.bind();
+        RecordingOutputMessage output = new RecordingOutputMessage(timing);
+
+        converter.write(Map.of("temperature", 15.5), MediaType.APPLICATION_JSON, output);
+
+        assertEquals("{\"temperature\":15.5}", output.body.toString());
+        assertTrue(output.serializationTimedWhenOpened);
+        assertEquals(1, timing.phases().get("serialization").count());
+    }
+
+    @Test
+    void write_LargeBodyStreamsPastTheLimitAndIsStillTimed() throws Exception {
+        RequestTiming timing = RequestTiming.bind();
+        RecordingOutputMessage output = new RecordingOutputMessage(timing);
+        List<String> large = Collections.nCopies(500, "scattered clouds");
+
+        converter.write(large, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(new ObjectMapper().writeValueAsString(large), output.body.toString());
+        assertFalse(output.serializationTimedWhenOpened);
+        assertEquals(1, timing.phases().get("serialization").count());
+    }
+
+    @Test
+    void write_WithoutBoundTimingWritesStraightThrough() throws Exception {
+        RecordingOutputMessage output = new RecordingOutputMessage(null);
+
+        converter.write(Map.of("humidity", 65), MediaType.APPLICATION_JSON, output);
+
+        assertEquals("{\"humidity\":65}", output.body.toString());
+    }
+
+    private static final class RecordingOutputMessage implements HttpOutputMessage {
+
+        private final RequestTiming timing;
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private boolean opened;
+        private boolean serializationTimedWhenOpened;
+
+        RecordingOutputMessage(RequestTiming timing) {
+            this.timing = timing;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            if (!opened && timing != null) {
+                serializationTimedWhenOpened = timing.phases().containsKey("serialization");
+            }
+            opened = true;
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.weatherapp.service;
+
+import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.ForecastSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardServiceTest {
+
+    @Test
+    void summarize_UsesNextDayOfForecastSlots() {
+        List<ForecastResponse.ForecastItem> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // The last two slots fall outside the 24-hour window and must not widen the range
+            items.add(item(i < 8 ? 10.0 + i : -20.0, i < 8 ? 12.0 + i : 40.0, i == 3 ? 0.6 : 0.1));
+        }
+        ForecastResponse forecast = new ForecastResponse();
+        forecast.setList(items);
+
+        ForecastSummary summary = DashboardService.summarize(forecast, 1_700_000_000_000L);
+
+        assertEquals(10.0, summary.getMinTemperature());
+        assertEquals(19.0, summary.getMaxTemperature());
+        assertEquals(0.6, summary.getPrecipitationProbability());
+        assertEquals("Clouds", summary.getWeatherMain());
+        assertEquals("03d", summary.getWeatherIcon());
+        assertNotNull(summary.getFetchedAt());
+    }
+
+    @Test
+    void summarize_EmptyForecastHasNoSummary() {
+        assertNull(DashboardService.summarize(new ForecastResponse(), 0));
+    }
+
+    private ForecastResponse.ForecastItem item(double min, double max, double pop) {
+        ForecastResponse.Main main = new ForecastResponse.Main();
+        main.setTemp_min(min);
+        main.setTemp_max(max);
+        ForecastResponse.Weather weather = new ForecastResponse.Weather();
+        weather.setMain("Clouds");
+        weather.setIcon("03d");
+
+        ForecastResponse.ForecastItem item = new ForecastResponse.ForecastItem();
+        item.setMain(main);
+        item.setWeather(List.of(weather));
+        item.setPop(pop);
+        return item;
+    }
+}
@@ -0,0 +1,112 @@
+package com.weatherapp.service;
+
+import com.weatherapp.gazetteer.CityGazetteer;
+import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.entity.GeocodeCacheEntry;
+import com.weatherapp.repository.GeocodeCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringReader;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeocodingServiceTest {
+
+    @Mock
+    private OpenWeatherMapClient weatherClient;
+
+    @Mock
+    private GeocodeCacheRepository cacheRepository;
+
+    private GeocodingService geocodingService;
+
+    @BeforeEach
+    void setUp() {
+        geocodingService = new GeocodingService(weatherClient, "test-api-key", cacheRepository, new CityGazetteer());
+    }
+
+    @Test
+    void resolve_CallsApiOnceThenServesFromMemory() {
+        when(cacheRepository.findByLookupKey("london,GB")).thenReturn(Optional.empty());
+        when(weatherClient.getCurrentWeather("London,GB", "test-api-key", "metric"))
+            .thenReturn(createMockWeatherResponse("London", "GB", 51.5074, -0.1278));
+
+        GeocodeCacheEntry first = geocodingService.resolve("London", "GB");
+        GeocodeCacheEntry second = geocodingService.resolve(" london ", "gb");
+
+        assertEquals("London", first.getCityName());
+        assertEquals(51.5074, first.getLatitude());
+        assertSame(first, second);
+        verify(weatherClient, times(1)).getCurrentWeather(anyString(), anyString(), anyString());
+        verify(cacheRepository).save(any(GeocodeCacheEntry.class));
+    }
+
+    @Test
+    void resolve_UsesStoredEntryWithoutCallingApi() {
+        GeocodeCacheEntry stored = new GeocodeCacheEntry("paris,FR", "Paris", "FR", 48.8566, 2.3522);
+        when(cacheRepository.findByLookupKey("paris,FR")).thenReturn(Optional.of(stored));
+
+        assertSame(stored, geocodingService.resolve("Paris", "FR"));
+        assertTrue(geocodingService.findCached("PARIS", "fr").isPresent());
+        verify(cacheRepository, times(1)).findByLookupKey("paris,FR");
+        verifyNoInteractions(weatherClient);
+    }
+
+    @Test
+    void resolve_ApiFailure_ThrowsAndCachesNothing() {
+        when(cacheRepository.findByLookupKey("nowhere,XX")).thenReturn(Optional.empty());
+        when(weatherClient.getCurrentWeather(anyString(), anyString(), anyString()))
+            .thenThrow(new RuntimeException("city not found"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> geocodingService.resolve("Nowhere", "XX"));
+
+        assertTrue(exception.getMessage().contains("Failed to fetch location data from API"));
+        verify(cacheRepository, never()).save(any());
+    }
+
+    @Test
+    void resolve_UsesGazetteerWithoutCallingApiOrDatabase() throws Exception {
+        CityGazetteer gazetteer = new CityGazetteer();
+        gazetteer.load(new StringReader("Berlin\tDE\t52.5244\t13.4105\t3677472\n"));
+        geocodingService = new GeocodingService(weatherClient, "test-api-key", cacheRepository, gazetteer);
+
+        GeocodeCacheEntry entry = geocodingService.resolve("berlin", "DE");
+
+        assertEquals("Berlin", entry.getCityName());
+        assertEquals(52.5244, entry.getLatitude());
+        assertEquals(1, geocodingService.autocomplete("Ber", null, 5).size());
+        verifyNoInteractions(weatherClient, cacheRepository);
+    }
+
+    @Test
+    void lookupKey_NormalizesCaseAndWhitespace() {
+        assertEquals("new york,US", GeocodingService.lookupKey("  New   York ", "us"));
+    }
+
+    private OpenWeatherResponse createMockWeatherResponse(String name, String country, double lat, double lon) {
+        OpenWeatherResponse response = new OpenWeatherResponse();
+        response.setName(name);
+
+        OpenWeatherResponse.Sys sys = new OpenWeatherResponse.Sys();
+        sys.setCountry(country);
+        response.setSys(sys);
+
+        OpenWeatherResponse.Coord coord = new OpenWeatherResponse.Coord();
+        coord.setLat(lat);
+        coord.setLon(lon);
+        response.setCoord(coord);
+
+        return response;
+    }
+}
@@ -0,0 +1,57 @@
+package com.weatherapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationChangeTrackerTest {
+
+    private final LocationChangeTracker tracker = new LocationChangeTracker();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void markChanged_OutsideTransactionBumpsImmediately() {
+        String before = tracker.currentETag();
+
+        tracker.markChanged();
+
+        assertNotEquals(before, tracker.currentETag());
+        assertTrue(tracker.currentETag().startsWith("\""));
+    }
+
+    @Test
+    void markChanged_InsideTransactionBumpsOnlyAfterCommit() {
+        String before = tracker.currentETag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.markChanged();
+        assertEquals(before, tracker.currentETag());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertNotEquals(before, tracker.currentETag());
+    }
+
+    @Test
+    void markChanged_RolledBackTransactionKeepsVersion() {
+        String before = tracker.currentETag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.markChanged();
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertEquals(before, tracker.currentETag());
+    }
+}
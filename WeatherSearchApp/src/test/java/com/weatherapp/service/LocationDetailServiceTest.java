@@ -0,0 +1,138 @@
+package com.weatherapp.service;
+
+import com.weatherapp.dto.ForecastResponse;
+import com.weatherapp.dto.LocationDetail;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.Location;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationDetailServiceTest {
+
+    @Mock
+    private LocationServiceInterface locationService;
+
+    @Mock
+    private WeatherService weatherService;
+
+    private ThreadPoolTaskExecutor executor;
+    private Location london;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        london = new Location("London", "GB", 51.5074, -0.1278);
+        london.setId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void getLocationDetail_RunsReadsInParallel() throws Exception {
+        WeatherSnapshotView current = new WeatherSnapshotView(42L, 15.5, 65, 1013.0, 5.2, 230, 10000, null,
+            "Clouds", "scattered clouds", "03d", LocalDateTime.now(), null);
+        ForecastResponse forecast = new ForecastResponse();
+        when(locationService.getLocationById(1L)).thenReturn(Optional.of(london));
+        when(weatherService.findCurrentWeatherView(1L)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return Optional.of(current);
+        });
+        when(weatherService.getForecast(1L)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return forecast;
+        });
+
+        long start = System.nanoTime();
+        LocationDetail detail = service(5000).getLocationDetail(1L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertSame(london, detail.getLocation());
+        assertSame(current, detail.getCurrent());
+        assertSame(forecast, detail.getForecast());
+        assertTrue(elapsedMillis < 550, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void getLocationDetail_NoSnapshotYetLeavesCurrentEmpty() throws Exception {
+        when(locationService.getLocationById(1L)).thenReturn(Optional.of(london));
+        when(weatherService.findCurrentWeatherView(1L)).thenReturn(Optional.empty());
+        when(weatherService.getForecast(1L)).thenReturn(new ForecastResponse());
+
+        assertNull(service(5000).getLocationDetail(1L).getCurrent());
+    }
+
+    @Test
+    void getLocationDetail_FailureCancelsOtherFork() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(locationService.getLocationById(1L)).thenReturn(Optional.of(london));
+        when(weatherService.findCurrentWeatherView(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return Optional.empty();
+        });
+        // Fail only once the other fork is running, so cancelling it has to interrupt it
+        when(weatherService.getForecast(1L)).thenAnswer(invocation -> {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            throw new RuntimeException("Failed to fetch forecast data: upstream down");
+        });
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> service(5000).getLocationDetail(1L));
+
+        assertTrue(error.getMessage().contains("upstream down"));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getLocationDetail_UnknownLocation() {
+        when(locationService.getLocationById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service(5000).getLocationDetail(9L));
+    }
+
+    @Test
+    void getLocationDetail_DeadlineCancelsSlowFork() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(locationService.getLocationById(1L)).thenReturn(Optional.of(london));
+        when(weatherService.findCurrentWeatherView(1L)).thenReturn(Optional.empty());
+        when(weatherService.getForecast(1L)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        assertThrows(TimeoutException.class, () -> service(200).getLocationDetail(1L));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    private LocationDetailService service(long timeoutMillis) {
+        return new LocationDetailService(locationService, weatherService, executor, timeoutMillis);
+    }
+}
@@ -0,0 +1,152 @@
+package com.weatherapp.service;
+
+import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.LocationImportResult;
+import com.weatherapp.dto.LocationImportRow;
+import com.weatherapp.dto.LocationImportSummary;
+import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.entity.Location;
+import com.weatherapp.repository.LocationRepository;
+import com.weatherapp.repository.WeatherSnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "weather.api.rate-limit-per-minute=60000")
+@ActiveProfiles("test")
+class LocationImportServiceTest {
+
+    @Autowired
+    private LocationImportService importService;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private WeatherSnapshotRepository weatherRepository;
+
+    @MockBean
+    private OpenWeatherMapClient weatherClient;
+
+    @BeforeEach
+    void setUp() {
+        weatherRepository.deleteAll();
+        locationRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherRepository.deleteAll();
+        locationRepository.deleteAll();
+    }
+
+    @Test
+    void importLocations_ReportsEveryRow() {
+        locationRepository.save(new Location("Paris", "FR", 48.8566, 2.3522));
+        when(weatherClient.getCurrentWeather(eq("Berlin,DE"), anyString(), anyString()))
+            .thenReturn(createMockWeatherResponse("Berlin", "DE", 52.52, 13.405));
+        when(weatherClient.getCurrentWeather(eq("Nowhere,XX"), anyString(), anyString()))
+            .thenThrow(new RuntimeException("city not found"));
+
+        List<LocationImportRow> rows = List.of(
+            new LocationImportRow("London", "GB", 51.5074, -0.1278),
+            new LocationImportRow("London", "GB", 51.5074, -0.1278),
+            new LocationImportRow("Paris", "FR", 48.8566, 2.3522),
+            new LocationImportRow("Berlin", "DE", null, null),
+            new LocationImportRow("Nowhere", "XX", null, null),
+            new LocationImportRow("", "GB", 1.0, 1.0)
+        );
+        List<LocationImportResult> results = new ArrayList<>();
+
+        LocationImportSummary summary = importService.importLocations(rows, results::add);
+
+        assertEquals(6, summary.getTotal());
+        assertEquals(2, summary.getCreated());
+        assertEquals(1, summary.getDuplicates());
+        assertEquals(1, summary.getExisting());
+        assertEquals(2, summary.getFailed());
+        assertEquals(1, summary.getGeocoded());
+        assertEquals(6, results.size());
+
+        assertEquals(LocationImportResult.Status.CREATED, statusOfRow(results, 1));
+        assertEquals(LocationImportResult.Status.DUPLICATE, statusOfRow(results, 2));
+        assertEquals(LocationImportResult.Status.EXISTS, statusOfRow(results, 3));
+        assertEquals(LocationImportResult.Status.CREATED, statusOfRow(results, 4));
+        assertEquals(LocationImportResult.Status.FAILED, statusOfRow(results, 5));
+        assertEquals(LocationImportResult.Status.FAILED, statusOfRow(results, 6));
+
+        Location berlin = locationRepository.findByCityNameAndCountryCode("Berlin", "DE").orElseThrow();
+        assertEquals(52.52, berlin.getLatitude());
+        assertEquals("Berlin, DE", berlin.getDisplayName());
+        assertEquals(3, locationRepository.count());
+    }
+
+    @Test
+    void importLocations_UpdatesIndexes() {
+        locationService.searchLocations("Reyk");
+
+        importService.importLocations(List.of(new LocationImportRow("Reykjavik", "IS", 64.1466, -21.9426)), result -> { });
+
+        assertEquals(1, locationService.searchLocations("Reyk").size());
+        assertEquals("Reykjavik", locationService.findNearestLocations(64.0, -22.0, 1).get(0).getCityName());
+    }
+
+    @Test
+    void parseCsv_ReadsHeaderAndQuotedFields() throws Exception {
+        String csv = "countryCode,cityName,latitude,longitude,displayName\n" +
+            "GB,London,51.5074,-0.1278,\"London, UK\"\n" +
+            "\n" +
+            "DE,Berlin,,,\n";
+
+        List<LocationImportRow> rows = LocationImportService.parseCsv(new StringReader(csv));
+
+        assertEquals(2, rows.size());
+        assertEquals("London", rows.get(0).getCityName());
+        assertEquals("London, UK", rows.get(0).getDisplayName());
+        assertEquals(-0.1278, rows.get(0).getLongitude());
+        assertEquals("Berlin", rows.get(1).getCityName());
+        assertNull(rows.get(1).getLatitude());
+    }
+
+    @Test
+    void parseCsv_RequiresCityAndCountryColumns() {
+        assertThrows(IllegalArgumentException.class,
+            () -> LocationImportService.parseCsv(new StringReader("name,lat\nLondon,51.5\n")));
+    }
+
+    private static LocationImportResult.Status statusOfRow(List<LocationImportResult> results, int row) {
+        return results.stream().filter(r -> r.getRow() == row).findFirst().orElseThrow().getStatus();
+    }
+
+    private OpenWeatherResponse createMockWeatherResponse(String name, String country, double lat, double lon) {
+        OpenWeatherResponse response = new OpenWeatherResponse();
+        response.setName(name);
+
+        OpenWeatherResponse.Sys sys = new OpenWeatherResponse.Sys();
+        sys.setCountry(country);
+        response.setSys(sys);
+
+        OpenWeatherResponse.Coord coord = new OpenWeatherResponse.Coord();
+        coord.setLat(lat);
+        coord.setLon(lon);
+        response.setCoord(coord);
+
+        return response;
+    }
+}
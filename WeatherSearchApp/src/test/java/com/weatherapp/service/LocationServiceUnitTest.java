@@ -1,6 +1,10 @@
 package com.weatherapp.service;
 
+import com.weatherapp.gazetteer.CityGazetteer;
 import com.weatherapp.entity.Location;
+import com.weatherapp.index.LocationSearchIndex;
+import com.weatherapp.index.LocationSpatialIndex;
+import com.weatherapp.repository.GeocodeCacheRepository;
 import com.weatherapp.repository.LocationRepository;
 import com.weatherapp.client.OpenWeatherMapClient;
 import com.weatherapp.dto.OpenWeatherResponse;
@@ -10,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,12 +32,15 @@ class LocationServiceUnitTest {
     @Mock
     private OpenWeatherMapClient weatherClient;
 
+    @Mock
+    private GeocodeCacheRepository geocodeCacheRepository;
+
     private LocationService locationService;
     private String testApiKey = "test-api-key";
 
     @BeforeEach
     void setUp() {
-        locationService = new LocationService(locationRepository, weatherClient, testApiKey);
+        locationService = new LocationService(locationRepository, new GeocodingService(weatherClient, testApiKey, geocodeCacheRepository, new CityGazetteer()), new LocationSearchIndex(), new LocationSpatialIndex(), new LocationChangeTracker(), new WeatherVersionMap());
     }
 
     @Test
@@ -109,6 +117,29 @@ class LocationServiceUnitTest {
         verify(locationRepository).findBySearchTerm("Lon");
     }
 
+    @Test
+    void searchLocations_UsesIndexWhenReady() {
+        LocationSearchIndex searchIndex = new LocationSearchIndex();
+        searchIndex.rebuild(List.of());
+        searchIndex.index(2L, "Londonderry", "Londonderry, GB");
+        searchIndex.index(1L, "London", "London, GB");
+        searchIndex.index(3L, "Paris", "Paris, FR");
+        locationService = new LocationService(locationRepository, new GeocodingService(weatherClient, testApiKey, geocodeCacheRepository, new CityGazetteer()), searchIndex, new LocationSpatialIndex(), new LocationChangeTracker(), new WeatherVersionMap());
+
+        Location location1 = new Location("London", "GB", 51.5074, -0.1278);
+        location1.setId(1L);
+        Location location2 = new Location("Londonderry", "GB", 54.9966, -7.3086);
+        location2.setId(2L);
+        when(locationRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(location2, location1));
+
+        List<Location> result = locationService.searchLocations("Lon");
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(2L, result.get(1).getId());
+        verify(locationRepository, never()).findBySearchTerm(anyString());
+    }
+
     @Test
     void addLocation_Success() {
         OpenWeatherResponse mockResponse = createMockWeatherResponse();
@@ -276,9 +307,12 @@ class LocationServiceUnitTest {
         when(locationRepository.findById(1L)).thenReturn(Optional.of(location));
         when(locationRepository.save(any(Location.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        assertDoesNotThrow(() -> locationService.updateLastSyncTime(1L));
+        LocalDateTime snapshotTimestamp = LocalDateTime.now().minusMinutes(5);
+        assertDoesNotThrow(() -> locationService.updateLastSyncTime(1L, snapshotTimestamp));
         
-        assertNotNull(location.getLastSyncAt());
+        assertEquals(snapshotTimestamp, location.getLastSyncAt());
+        assertEquals(snapshotTimestamp, location.getLastSnapshotAt());
+        assertEquals(snapshotTimestamp.plusHours(6), location.getNextSyncDueAt());
         verify(locationRepository).findById(1L);
         verify(locationRepository).save(location);
     }
@@ -287,7 +321,7 @@ class LocationServiceUnitTest {
     void updateLastSyncTime_NotFound_ThrowsException() {
         when(locationRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(IllegalArgumentException.class, () -> locationService.updateLastSyncTime(1L));
+        assertThrows(IllegalArgumentException.class, () -> locationService.updateLastSyncTime(1L, LocalDateTime.now()));
         
         verify(locationRepository).findById(1L);
         verify(locationRepository, never()).save(any(Location.class));
@@ -1,23 +1,42 @@
 package com.weatherapp.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weatherapp.gazetteer.CityGazetteer;
 import com.weatherapp.entity.Location;
 import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.index.LocationSearchIndex;
+import com.weatherapp.index.LocationSpatialIndex;
+import com.weatherapp.repository.GeocodeCacheRepository;
 import com.weatherapp.repository.LocationRepository;
 import com.weatherapp.repository.WeatherSnapshotRepository;
 import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.DashboardEntry;
 import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.dto.WeatherSnapshotChange;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.metrics.WeatherMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +53,18 @@ class RepositoryBasedTest {
     @Autowired
     private WeatherSnapshotRepository weatherRepository;
 
+    @Autowired
+    private GeocodeCacheRepository geocodeCacheRepository;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @MockBean
     private LocationServiceInterface locationService;
 
@@ -134,13 +165,146 @@ class RepositoryBasedTest {
         assertEquals(1, count);
     }
 
+    @Test
+    void testLatestSnapshotPerLocation() {
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        Location paris = locationRepository.save(new Location("Paris", "FR", 48.8566, 2.3522));
+        Location berlin = locationRepository.save(new Location("Berlin", "DE", 52.52, 13.405));
+        LocalDateTime now = LocalDateTime.now();
+
+        weatherRepository.save(snapshotAt(london, 10.0, now.minusHours(2)));
+        WeatherSnapshot londonLatest = weatherRepository.save(snapshotAt(london, 12.0, now));
+        weatherRepository.save(snapshotAt(london, 11.0, now.minusHours(1)));
+        WeatherSnapshot parisLatest = weatherRepository.save(snapshotAt(paris, 18.0, now.minusMinutes(5)));
+        weatherRepository.save(snapshotAt(berlin, 9.0, now));
+
+        List<WeatherSnapshotChange> latest = weatherRepository.findLatestViewsByLocationIds(List.of(london.getId(), paris.getId(), 999L));
+
+        assertEquals(2, latest.size());
+        Map<Long, WeatherSnapshotChange> snapshotByLocation = latest.stream()
+            .collect(Collectors.toMap(WeatherSnapshotChange::locationId, change -> change));
+        assertEquals(londonLatest.getId(), snapshotByLocation.get(london.getId()).id());
+        assertEquals(12.0, snapshotByLocation.get(london.getId()).temperature());
+        assertEquals(parisLatest.getId(), snapshotByLocation.get(paris.getId()).id());
+    }
+
+    @Test
+    void testDashboardLoadsLocationsWithLatestSnapshotInOneQuery() {
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        Location paris = locationRepository.save(new Location("Paris", "FR", 48.8566, 2.3522));
+        LocalDateTime now = LocalDateTime.now();
+        weatherRepository.save(snapshotAt(london, 10.0, now.minusHours(1)));
+        WeatherSnapshot londonLatest = weatherRepository.save(snapshotAt(london, 12.0, now));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            List<DashboardEntry> dashboard = dashboardService.getDashboard();
+
+            assertEquals(2, dashboard.size());
+            assertEquals(london.getId(), dashboard.get(0).getLocation().getId());
+            assertEquals(londonLatest.getId(), dashboard.get(0).getCurrent().getId());
+            assertEquals(paris.getId(), dashboard.get(1).getLocation().getId());
+            assertNull(dashboard.get(1).getCurrent());
+            assertFalse(Hibernate.isInitialized(dashboard.get(0).getLocation().getWeatherSnapshots()));
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void testSnapshotViewProjections() {
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        LocalDateTime now = LocalDateTime.now();
+        weatherRepository.save(snapshotAt(london, 10.0, now.minusHours(2)));
+        WeatherSnapshot latest = weatherRepository.save(snapshotAt(london, 12.0, now));
+
+        List<WeatherSnapshotView> history = weatherRepository.findViewsByLocationId(london.getId());
+        assertEquals(2, history.size());
+        assertEquals(latest.getId(), history.get(0).id());
+        assertEquals(12.0, history.get(0).temperature());
+        assertEquals(60, history.get(0).humidity());
+
+        assertEquals(1, weatherRepository.findViewsByLocationIdSince(london.getId(), now.minusHours(1)).size());
+        assertEquals(latest.getId(), weatherRepository.findLatestViewByLocationId(london.getId()).orElseThrow().id());
+        assertTrue(weatherRepository.findLatestViewByLocationId(-1L).isEmpty());
+    }
+
+    @Test
+    void testLocationKeysetPagination() {
+        Location london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        Location paris = locationRepository.save(new Location("Paris", "FR", 48.8566, 2.3522));
+        Location berlin = locationRepository.save(new Location("Berlin", "DE", 52.52, 13.405));
+
+        List<Location> first = locationRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2));
+        assertEquals(List.of(london.getId(), paris.getId()), first.stream().map(Location::getId).toList());
+
+        List<Location> second = locationRepository.findByIdGreaterThanOrderByIdAsc(paris.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(berlin.getId()), second.stream().map(Location::getId).toList());
+    }
+
+    @Test
+    void testLocationsNeedingSyncUsesSyncState() {
+        Location fresh = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        Location synced = new Location("Paris", "FR", 48.8566, 2.3522);
+        synced.setLastSyncAt(LocalDateTime.now());
+        synced.setNextSyncDueAt(LocalDateTime.now().plusHours(6));
+        locationRepository.save(synced);
+
+        List<Location> due = locationRepository.findLocationsNeedingSync();
+        assertEquals(1, due.size());
+        assertEquals(fresh.getId(), due.get(0).getId());
+
+        assertEquals(2, locationRepository.findLocationsDueForSync(LocalDateTime.now().plusHours(7)).size());
+    }
+
+    @Test
+    void testBackfillSyncState() {
+        Location location = new Location("London", "GB", 51.5074, -0.1278);
+        location.setNextSyncDueAt(null);
+        location = locationRepository.save(location);
+
+        WeatherSnapshot snapshot = new WeatherSnapshot();
+        snapshot.setLocation(location);
+        snapshot.setTemperature(15.5);
+        snapshot.setHumidity(65);
+        snapshot.setPressure(1013.0);
+        snapshot.setTimestamp(LocalDateTime.now().minusHours(1));
+        weatherRepository.saveAndFlush(snapshot);
+
+        assertEquals(1, locationRepository.backfillSyncState(LocationService.SYNC_INTERVAL.toSeconds()));
+        assertEquals(0, locationRepository.backfillSyncState(LocationService.SYNC_INTERVAL.toSeconds()));
+
+        Location backfilled = locationRepository.findById(location.getId()).orElseThrow();
+        assertNotNull(backfilled.getLastSnapshotAt());
+        assertEquals(backfilled.getCreatedAt(), backfilled.getNextSyncDueAt());
+    }
+
+    @Test
+    void testBackfillSyncStateSchedulesSyncedLocationsOneIntervalOn() {
+        LocalDateTime lastSync = LocalDateTime.of(2024, 3, 1, 12, 0);
+        Location location = new Location("London", "GB", 51.5074, -0.1278);
+        location.setLastSyncAt(lastSync);
+        location.setNextSyncDueAt(null);
+        location = locationRepository.saveAndFlush(location);
+
+        assertEquals(1, locationRepository.backfillSyncState(LocationService.SYNC_INTERVAL.toSeconds()));
+
+        Location backfilled = locationRepository.findById(location.getId()).orElseThrow();
+        assertEquals(lastSync.plusHours(6), backfilled.getNextSyncDueAt());
+    }
+
     @Test
     void testLocationServiceWithRealRepository() {
         // Test LocationService with real repository but mocked API
         when(weatherClient.getCurrentWeather(eq("London,GB"), anyString(), anyString()))
             .thenReturn(mockWeatherResponse);
 
-        LocationService locationService = new LocationService(locationRepository, weatherClient, "test-api-key");
+        LocationService locationService = new LocationService(locationRepository, new GeocodingService(weatherClient, "test-api-key", geocodeCacheRepository, new CityGazetteer()), new LocationSearchIndex(), new LocationSpatialIndex(), new LocationChangeTracker(), new WeatherVersionMap());
 
         // Test adding a location
         Location location = locationService.addLocation("London", "GB", null, null, null, null);
@@ -194,7 +358,7 @@ class RepositoryBasedTest {
         when(weatherClient.getCurrentWeatherByCoordinates(anyDouble(), anyDouble(), anyString(), anyString()))
             .thenReturn(mockWeatherResponse);
 
-        WeatherService weatherService = new WeatherService(weatherRepository, mockLocationService, weatherClient, "test-api-key");
+        WeatherService weatherService = new WeatherService(weatherRepository, mockLocationService, weatherClient, "test-api-key", new WeatherVersionMap(), new WeatherEventBroadcaster(new ObjectMapper(), new SimpleAsyncTaskExecutor(), 30, 32), new WeatherMetrics(new SimpleMeterRegistry()), transactionManager, 10);
 
         // Test syncing weather data
         WeatherSnapshot snapshot = weatherService.syncWeatherData(savedLocation.getId());
@@ -220,12 +384,12 @@ class RepositoryBasedTest {
         assertEquals(1, history.size());
 
         verify(weatherClient).getCurrentWeatherByCoordinates(eq(51.5074), eq(-0.1278), anyString(), eq("metric"));
-        verify(mockLocationService).updateLastSyncTime(savedLocation.getId());
+        verify(mockLocationService).updateLastSyncTime(eq(savedLocation.getId()), any());
     }
 
     @Test
     void testErrorHandling() {
-        LocationService locationService = new LocationService(locationRepository, weatherClient, "test-api-key");
+        LocationService locationService = new LocationService(locationRepository, new GeocodingService(weatherClient, "test-api-key", geocodeCacheRepository, new CityGazetteer()), new LocationSearchIndex(), new LocationSpatialIndex(), new LocationChangeTracker(), new WeatherVersionMap());
 
         // Test adding duplicate location
         when(weatherClient.getCurrentWeather(eq("London,GB"), anyString(), anyString()))
@@ -288,8 +452,8 @@ class RepositoryBasedTest {
         assertEquals(2, allSnapshots.size());
 
         // Test cleanup (should delete old snapshot but keep recent one)
-        LocationService locationService = new LocationService(locationRepository, weatherClient, "test-api-key");
-        WeatherService weatherService = new WeatherService(weatherRepository, locationService, weatherClient, "test-api-key");
+        LocationService locationService = new LocationService(locationRepository, new GeocodingService(weatherClient, "test-api-key", geocodeCacheRepository, new CityGazetteer()), new LocationSearchIndex(), new LocationSpatialIndex(), new LocationChangeTracker(), new WeatherVersionMap());
+        WeatherService weatherService = new WeatherService(weatherRepository, locationService, weatherClient, "test-api-key", new WeatherVersionMap(), new WeatherEventBroadcaster(new ObjectMapper(), new SimpleAsyncTaskExecutor(), 30, 32), new WeatherMetrics(new SimpleMeterRegistry()), transactionManager, 10);
 
         weatherService.cleanupOldData();
 
@@ -299,6 +463,12 @@ class RepositoryBasedTest {
         assertEquals(20.0, afterCleanup.get(0).getTemperature());
     }
 
+    private WeatherSnapshot snapshotAt(Location location, double temperature, LocalDateTime timestamp) {
+        WeatherSnapshot snapshot = new WeatherSnapshot(location, temperature, 60, 1012.0);
+        snapshot.setTimestamp(timestamp);
+        return snapshot;
+    }
+
     private OpenWeatherResponse createMockWeatherResponse() {
         OpenWeatherResponse response = new OpenWeatherResponse();
         response.setName("London");
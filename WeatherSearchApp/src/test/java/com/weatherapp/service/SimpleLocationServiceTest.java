@@ -1,12 +1,17 @@
 package com.weatherapp.service;
 
+import com.weatherapp.gazetteer.CityGazetteer;
 import com.weatherapp.entity.Location;
+import com.weatherapp.index.LocationSearchIndex;
+import com.weatherapp.index.LocationSpatialIndex;
+import com.weatherapp.repository.GeocodeCacheRepository;
 import com.weatherapp.repository.LocationRepository;
 import com.weatherapp.client.OpenWeatherMapClient;
 import com.weatherapp.dto.OpenWeatherResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +23,7 @@ class SimpleLocationServiceTest {
 
     private LocationRepository locationRepository;
     private OpenWeatherMapClient weatherClient;
+    private GeocodeCacheRepository geocodeCacheRepository;
     private LocationService locationService;
     private String testApiKey = "test-api-key";
 
@@ -26,9 +32,10 @@ class SimpleLocationServiceTest {
         // Create mock objects manually
         locationRepository = mock(LocationRepository.class);
         weatherClient = mock(OpenWeatherMapClient.class);
+        geocodeCacheRepository = mock(GeocodeCacheRepository.class);
         
         // Create service instance manually
-        locationService = new LocationService(locationRepository, weatherClient, testApiKey);
+        locationService = new LocationService(locationRepository, new GeocodingService(weatherClient, testApiKey, geocodeCacheRepository, new CityGazetteer()), new LocationSearchIndex(), new LocationSpatialIndex(), new LocationChangeTracker(), new WeatherVersionMap());
     }
 
     @Test
@@ -316,7 +323,7 @@ class SimpleLocationServiceTest {
         when(locationRepository.save(any(Location.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act & Assert
-        assertDoesNotThrow(() -> locationService.updateLastSyncTime(1L));
+        assertDoesNotThrow(() -> locationService.updateLastSyncTime(1L, LocalDateTime.now()));
         
         // Verify sync time was updated
         assertNotNull(location.getLastSyncAt());
@@ -330,7 +337,7 @@ class SimpleLocationServiceTest {
         when(locationRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> locationService.updateLastSyncTime(1L));
+        assertThrows(IllegalArgumentException.class, () -> locationService.updateLastSyncTime(1L, LocalDateTime.now()));
         
         verify(locationRepository).findById(1L);
         verify(locationRepository, never()).save(any(Location.class));
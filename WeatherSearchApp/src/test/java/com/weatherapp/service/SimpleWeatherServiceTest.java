@@ -1,12 +1,17 @@
 package com.weatherapp.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.weatherapp.entity.Location;
 import com.weatherapp.entity.WeatherSnapshot;
 import com.weatherapp.repository.WeatherSnapshotRepository;
 import com.weatherapp.client.OpenWeatherMapClient;
 import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.metrics.WeatherMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -32,7 +37,7 @@ class SimpleWeatherServiceTest {
         weatherClient = mock(OpenWeatherMapClient.class);
         
         // Create service instance manually
-        weatherService = new WeatherService(weatherRepository, locationService, weatherClient, testApiKey);
+        weatherService = new WeatherService(weatherRepository, locationService, weatherClient, testApiKey, new WeatherVersionMap(), new WeatherEventBroadcaster(new ObjectMapper(), new SimpleAsyncTaskExecutor(), 30, 32), new WeatherMetrics(new SimpleMeterRegistry()), mock(PlatformTransactionManager.class), 10);
         
         // Setup common test data
         Location testLocation = new Location("London", "GB", 51.5074, -0.1278);
@@ -105,7 +110,7 @@ class SimpleWeatherServiceTest {
         // Verify interactions
         verify(weatherClient).getCurrentWeatherByCoordinates(51.5074, -0.1278, testApiKey, "metric");
         verify(weatherRepository).save(any(WeatherSnapshot.class));
-        verify(locationService).updateLastSyncTime(1L);
+        verify(locationService).updateLastSyncTime(eq(1L), any());
     }
 
     @Test
@@ -202,7 +207,7 @@ class SimpleWeatherServiceTest {
         verify(locationService).getLocationById(2L);
         verify(weatherClient, times(2)).getCurrentWeatherByCoordinates(anyDouble(), anyDouble(), anyString(), anyString());
         verify(weatherRepository, times(2)).save(any(WeatherSnapshot.class));
-        verify(locationService, times(2)).updateLastSyncTime(anyLong());
+        verify(locationService, times(2)).updateLastSyncTime(anyLong(), any());
     }
 
     @Test
@@ -230,7 +235,7 @@ class SimpleWeatherServiceTest {
         // Verify that first location was processed but second failed
         verify(weatherClient, times(2)).getCurrentWeatherByCoordinates(anyDouble(), anyDouble(), anyString(), anyString());
         verify(weatherRepository, times(1)).save(any(WeatherSnapshot.class));
-        verify(locationService, times(1)).updateLastSyncTime(anyLong());
+        verify(locationService, times(1)).updateLastSyncTime(anyLong(), any());
     }
 
     private OpenWeatherResponse createMockWeatherResponse() {
@@ -0,0 +1,158 @@
+package com.weatherapp.service;
+
+import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.SnapshotChangePage;
+import com.weatherapp.dto.WeatherSnapshotChange;
+import com.weatherapp.entity.Location;
+import com.weatherapp.entity.WeatherSnapshot;
+import com.weatherapp.repository.LocationRepository;
+import com.weatherapp.repository.WeatherSnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"weather.changes.settle-ms=300", "weather.changes.gap-timeout-ms=1000", "weather.changes.poll-ms=50"})
+@ActiveProfiles("test")
+class SnapshotChangeFeedTest {
+
+    @Autowired
+    private SnapshotChangeFeed changeFeed;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private WeatherSnapshotRepository weatherRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private OpenWeatherMapClient weatherClient;
+
+    private Location london;
+    private Location paris;
+
+    @BeforeEach
+    void setUp() {
+        weatherRepository.deleteAll();
+        locationRepository.deleteAll();
+        london = locationRepository.save(new Location("London", "GB", 51.5074, -0.1278));
+        paris = locationRepository.save(new Location("Paris", "FR", 48.8566, 2.3522));
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherRepository.deleteAll();
+        locationRepository.deleteAll();
+    }
+
+    @Test
+    void getChanges_PagesAllLocationsInIdOrder() {
+        LocalDateTime earlier = LocalDateTime.now().minusMinutes(5);
+        Long first = save(london, 10.0, earlier).getId();
+        save(paris, 20.0, earlier);
+        save(london, 11.0, earlier);
+
+        SnapshotChangePage page = changeFeed.getChanges(first - 1, 2);
+
+        assertEquals(List.of(london.getId(), paris.getId()), page.changes().stream().map(WeatherSnapshotChange::locationId).toList());
+        assertEquals(first + 1, page.cursor());
+        assertTrue(page.hasMore());
+
+        SnapshotChangePage next = changeFeed.getChanges(page.cursor(), 2);
+        assertEquals(1, next.changes().size());
+        assertEquals(11.0, next.changes().get(0).temperature());
+        assertFalse(next.hasMore());
+        assertEquals(SnapshotChangePage.empty(next.cursor()), changeFeed.getChanges(next.cursor(), 2));
+    }
+
+    @Test
+    void getChanges_HoldsBackSnapshotsUntilSettled() throws Exception {
+        Long fresh = save(paris, 18.0, LocalDateTime.now()).getId();
+
+        assertTrue(changeFeed.getChanges(fresh - 1, 10).changes().isEmpty());
+        Thread.sleep(400);
+        assertEquals(fresh, changeFeed.getChanges(fresh - 1, 10).cursor());
+    }
+
+    @Test
+    void getChanges_StopsAtFirstUnsettledId() throws Exception {
+        Long fresh = save(paris, 18.0, LocalDateTime.now()).getId();
+        save(london, 9.0, LocalDateTime.now().minusMinutes(5));
+
+        // The older snapshot got the higher id; listing it would move the cursor past the fresh one
+        assertTrue(changeFeed.getChanges(fresh - 1, 10).changes().isEmpty());
+        Thread.sleep(400);
+        assertEquals(List.of(paris.getId(), london.getId()),
+            changeFeed.getChanges(fresh - 1, 10).changes().stream().map(WeatherSnapshotChange::locationId).toList());
+    }
+
+    @Test
+    void getChanges_WaitsForUncommittedLowerId() throws Exception {
+        Long cursor = save(london, 9.0, LocalDateTime.now().minusMinutes(5)).getId();
+        assertEquals(cursor, changeFeed.getChanges(cursor - 1, 10).cursor());
+
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Thread slowSync = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            save(paris, 20.0, LocalDateTime.now().minusMinutes(5));
+            inserted.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        slowSync.start();
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+        save(london, 10.0, LocalDateTime.now().minusMinutes(5));
+
+        assertTrue(changeFeed.getChanges(cursor, 10).changes().isEmpty());
+        commit.countDown();
+        slowSync.join();
+        assertEquals(List.of(paris.getId(), london.getId()),
+            changeFeed.getChanges(cursor, 10).changes().stream().map(WeatherSnapshotChange::locationId).toList());
+    }
+
+    @Test
+    void awaitChanges_CompletesWhenSnapshotArrives() throws Exception {
+        Long cursor = save(london, 9.0, LocalDateTime.now().minusMinutes(5)).getId();
+
+        DeferredResult<SnapshotChangePage> result = changeFeed.awaitChanges(cursor, 10, 5000);
+        assertFalse(result.hasResult());
+        assertEquals(1, changeFeed.getWaiterCount());
+
+        Long arrived = save(paris, 21.0, LocalDateTime.now()).getId();
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!result.hasResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        SnapshotChangePage page = (SnapshotChangePage) result.getResult();
+        assertNotNull(page);
+        assertEquals(arrived, page.cursor());
+        assertEquals(paris.getId(), page.changes().get(0).locationId());
+        assertEquals(0, changeFeed.getWaiterCount());
+    }
+
+    private WeatherSnapshot save(Location location, double temperature, LocalDateTime timestamp) {
+        WeatherSnapshot snapshot = new WeatherSnapshot(location, temperature, 60, 1012.0);
+        snapshot.setTimestamp(timestamp);
+        return weatherRepository.save(snapshot);
+    }
+}
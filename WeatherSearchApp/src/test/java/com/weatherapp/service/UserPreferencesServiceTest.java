@@ -0,0 +1,88 @@
+package com.weatherapp.service;
+
+import com.weatherapp.entity.UserPreferences;
+import com.weatherapp.repository.UserPreferencesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPreferencesServiceTest {
+
+    @Mock
+    private UserPreferencesRepository preferencesRepository;
+
+    private UserPreferencesService preferencesService;
+
+    @BeforeEach
+    void setUp() {
+        preferencesService = new UserPreferencesService(preferencesRepository, 100);
+    }
+
+    @Test
+    void getUserPreferences_UnknownUserGetsDefaultsWithoutWrite() {
+        when(preferencesRepository.findByUserId("default")).thenReturn(Optional.empty());
+
+        UserPreferences first = preferencesService.getUserPreferences("default");
+        UserPreferences second = preferencesService.getUserPreferences("default");
+
+        assertEquals("celsius", first.getTemperatureUnit());
+        assertEquals(30, first.getRefreshInterval());
+        assertNull(first.getId());
+        assertSame(first, second);
+        verify(preferencesRepository, times(1)).findByUserId("default");
+        verify(preferencesRepository, never()).save(any());
+    }
+
+    @Test
+    void getUserPreferences_StoredRowReadOnce() {
+        UserPreferences stored = new UserPreferences("alice");
+        stored.setTemperatureUnit("fahrenheit");
+        when(preferencesRepository.findByUserId("alice")).thenReturn(Optional.of(stored));
+
+        preferencesService.getUserPreferences("alice");
+        UserPreferences cached = preferencesService.getUserPreferences("alice");
+
+        assertSame(stored, cached);
+        verify(preferencesRepository, times(1)).findByUserId(anyString());
+    }
+
+    @Test
+    void updateUserPreferences_ReplacesCachedCopy() {
+        when(preferencesRepository.findByUserId("default")).thenReturn(Optional.empty());
+        when(preferencesRepository.save(any(UserPreferences.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        preferencesService.getUserPreferences("default");
+
+        UserPreferences changes = new UserPreferences();
+        changes.setTemperatureUnit("kelvin");
+        preferencesService.updateUserPreferences("default", changes);
+
+        assertEquals("kelvin", preferencesService.getUserPreferences("default").getTemperatureUnit());
+        verify(preferencesRepository, times(2)).findByUserId("default");
+    }
+
+    @Test
+    void getUserPreferences_EvictsLeastRecentlyUsedWhenFull() {
+        preferencesService = new UserPreferencesService(preferencesRepository, 2);
+        when(preferencesRepository.findByUserId(anyString())).thenReturn(Optional.empty());
+
+        preferencesService.getUserPreferences("real");
+        for (int i = 0; i < 5; i++) {
+            preferencesService.getUserPreferences("bogus-" + i);
+        }
+        preferencesService.getUserPreferences("real");
+        preferencesService.getUserPreferences("real");
+
+        // Unknown ids pushed the real user out once; it is cached again after the next read
+        verify(preferencesRepository, times(2)).findByUserId("real");
+    }
+}
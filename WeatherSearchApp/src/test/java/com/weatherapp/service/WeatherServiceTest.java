@@ -1,15 +1,20 @@
 package com.weatherapp.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.weatherapp.entity.Location;
 import com.weatherapp.entity.WeatherSnapshot;
 import com.weatherapp.repository.WeatherSnapshotRepository;
 import com.weatherapp.client.OpenWeatherMapClient;
 import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.metrics.WeatherMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -31,6 +36,9 @@ class WeatherServiceTest {
     @Mock
     private OpenWeatherMapClient weatherClient;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private WeatherService weatherService;
 
     private Location testLocation;
@@ -39,7 +47,7 @@ class WeatherServiceTest {
 
     @BeforeEach
     void setUp() {
-        weatherService = new WeatherService(weatherRepository, locationService, weatherClient, testApiKey);
+        weatherService = new WeatherService(weatherRepository, locationService, weatherClient, testApiKey, new WeatherVersionMap(), new WeatherEventBroadcaster(new ObjectMapper(), new SimpleAsyncTaskExecutor(), 30, 32), new WeatherMetrics(new SimpleMeterRegistry()), transactionManager, 10);
         testLocation = new Location("London", "GB", 51.5074, -0.1278);
         testLocation.setId(1L);
 
@@ -121,7 +129,7 @@ class WeatherServiceTest {
         verify(locationService).getLocationById(1L);
         verify(weatherClient).getCurrentWeatherByCoordinates(51.5074, -0.1278, testApiKey, "metric");
         verify(weatherRepository).save(any(WeatherSnapshot.class));
-        verify(locationService).updateLastSyncTime(1L);
+        verify(locationService).updateLastSyncTime(eq(1L), any());
     }
 
     @Test
@@ -1,17 +1,27 @@
 package com.weatherapp.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.weatherapp.entity.Location;
 import com.weatherapp.entity.WeatherSnapshot;
 import com.weatherapp.repository.WeatherSnapshotRepository;
 import com.weatherapp.client.OpenWeatherMapClient;
+import com.weatherapp.dto.ForecastResponse;
 import com.weatherapp.dto.OpenWeatherResponse;
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.units.UnitSystem;
+import com.weatherapp.metrics.WeatherMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,12 +41,17 @@ class WeatherServiceUnitTest {
     @Mock
     private OpenWeatherMapClient weatherClient;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private WeatherService weatherService;
+    private SimpleMeterRegistry meterRegistry;
     private String testApiKey = "test-api-key";
 
     @BeforeEach
     void setUp() {
-        weatherService = new WeatherService(weatherRepository, locationService, weatherClient, testApiKey);
+        meterRegistry = new SimpleMeterRegistry();
+        weatherService = new WeatherService(weatherRepository, locationService, weatherClient, testApiKey, new WeatherVersionMap(), new WeatherEventBroadcaster(new ObjectMapper(), new SimpleAsyncTaskExecutor(), 30, 32), new WeatherMetrics(meterRegistry), transactionManager, 10);
     }
 
     @Test
@@ -97,7 +112,7 @@ class WeatherServiceUnitTest {
 
         verify(weatherClient).getCurrentWeatherByCoordinates(51.5074, -0.1278, testApiKey, "metric");
         verify(weatherRepository).save(any(WeatherSnapshot.class));
-        verify(locationService).updateLastSyncTime(1L);
+        verify(locationService).updateLastSyncTime(eq(1L), any());
     }
 
     @Test
@@ -135,7 +150,7 @@ class WeatherServiceUnitTest {
         WeatherSnapshot snapshot2 = new WeatherSnapshot();
         
         when(weatherRepository.findByLocationIdOrderByTimestampDesc(1L))
-            .thenReturn(java.util.List.of(snapshot1, snapshot2));
+            .thenReturn(List.of(snapshot1, snapshot2));
 
         var result = weatherService.getWeatherHistory(1L);
 
@@ -150,7 +165,7 @@ class WeatherServiceUnitTest {
         WeatherSnapshot snapshot1 = new WeatherSnapshot();
         
         when(weatherRepository.findByLocationIdSince(anyLong(), any(LocalDateTime.class)))
-            .thenReturn(java.util.List.of(snapshot1));
+            .thenReturn(List.of(snapshot1));
 
         var result = weatherService.getWeatherHistorySince(1L, since);
 
@@ -174,6 +189,81 @@ class WeatherServiceUnitTest {
         assertThrows(RuntimeException.class, () -> weatherService.getForecast(1L));
     }
 
+    @Test
+    void getForecast_ServedFromMemoryWhileFresh() {
+        Location testLocation = new Location("London", "GB", 51.5074, -0.1278);
+        testLocation.setId(1L);
+        ForecastResponse forecast = new ForecastResponse();
+
+        when(locationService.getLocationById(1L)).thenReturn(Optional.of(testLocation));
+        when(weatherClient.getForecastByCoordinates(51.5074, -0.1278, testApiKey, "metric")).thenReturn(forecast);
+
+        assertNull(weatherService.getForecastVersion(1L));
+        WeatherService.VersionedForecast first = weatherService.getVersionedForecast(1L);
+        WeatherService.VersionedForecast second = weatherService.getVersionedForecast(1L);
+
+        assertSame(forecast, second.forecast());
+        assertEquals(first.version(), weatherService.getForecastVersion(1L));
+        verify(weatherClient, times(1)).getForecastByCoordinates(anyDouble(), anyDouble(), anyString(), anyString());
+    }
+
+    @Test
+    void getCurrentWeather_RecordsVersion() {
+        WeatherSnapshot older = new WeatherSnapshot();
+        older.setId(1L);
+        WeatherSnapshot newer = new WeatherSnapshot();
+        newer.setId(2L);
+
+        when(weatherRepository.findTopByLocationIdOrderByTimestampDesc(1L))
+            .thenReturn(Optional.of(newer))
+            .thenReturn(Optional.of(older));
+
+        weatherService.getCurrentWeather(1L);
+        weatherService.getCurrentWeather(1L);
+
+        assertEquals("\"s2\"", weatherService.getCurrentWeatherVersion(1L).etag());
+    }
+
+    @Test
+    void getWeatherHistoryViews_CachesConvertedVariantUntilNewSnapshot() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0);
+        WeatherSnapshotView latest = new WeatherSnapshotView(7L, 20.0, 50, 1010.0, 4.0, 180, 10000, null,
+            "Clear", "clear sky", "01d", timestamp, timestamp);
+        when(weatherRepository.findViewsByLocationId(1L)).thenReturn(List.of(latest));
+
+        List<WeatherSnapshotView> first = weatherService.getWeatherHistoryViews(1L, UnitSystem.IMPERIAL);
+        List<WeatherSnapshotView> second = weatherService.getWeatherHistoryViews(1L, UnitSystem.IMPERIAL);
+        weatherService.getWeatherHistoryViews(1L, UnitSystem.METRIC);
+
+        assertEquals(68.0, first.get(0).temperature());
+        assertEquals(first, second);
+        verify(weatherRepository, times(2)).findViewsByLocationId(1L);
+
+        when(weatherRepository.findTopByLocationIdOrderByTimestampDesc(1L)).thenReturn(Optional.of(snapshot(8L, timestamp.plusHours(1))));
+        weatherService.getCurrentWeather(1L);
+        weatherService.getWeatherHistoryViews(1L, UnitSystem.IMPERIAL);
+
+        verify(weatherRepository, times(3)).findViewsByLocationId(1L);
+    }
+
+    @Test
+    void getWeatherHistoryViews_EvictsLeastRecentlyUsedPastRowBound() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0);
+        WeatherSnapshotView view = new WeatherSnapshotView(7L, 20.0, 50, 1010.0, 4.0, 180, 10000, null,
+            "Clear", "clear sky", "01d", timestamp, timestamp);
+        List<WeatherSnapshotView> history = Collections.nCopies(WeatherService.MAX_CACHED_HISTORY_ROWS / 2 + 1, view);
+        when(weatherRepository.findViewsByLocationId(anyLong())).thenReturn(history);
+
+        weatherService.getWeatherHistoryViews(1L, UnitSystem.METRIC);
+        weatherService.getWeatherHistoryViews(2L, UnitSystem.METRIC);
+        weatherService.getWeatherHistoryViews(2L, UnitSystem.METRIC);
+        weatherService.getWeatherHistoryViews(1L, UnitSystem.METRIC);
+
+        // Both do not fit together: caching location 2 dropped location 1, which is loaded again
+        verify(weatherRepository, times(1)).findViewsByLocationId(2L);
+        verify(weatherRepository, times(2)).findViewsByLocationId(1L);
+    }
+
     @Test
     void cleanupOldData_Success() {
         Location location1 = new Location("London", "GB", 51.5074, -0.1278);
@@ -181,7 +271,7 @@ class WeatherServiceUnitTest {
         Location location2 = new Location("Paris", "FR", 48.8566, 2.3522);
         location2.setId(2L);
         
-        when(locationService.getAllLocations()).thenReturn(java.util.List.of(location1, location2));
+        when(locationService.getAllLocations()).thenReturn(List.of(location1, location2));
 
         weatherService.cleanupOldData();
 
@@ -197,7 +287,7 @@ class WeatherServiceUnitTest {
         Location location2 = new Location("Paris", "FR", 48.8566, 2.3522);
         location2.setId(2L);
         
-        when(locationService.getAllLocations()).thenReturn(java.util.List.of(location1, location2));
+        when(locationService.getAllLocations()).thenReturn(List.of(location1, location2));
         when(locationService.getLocationById(1L)).thenReturn(Optional.of(location1));
         when(locationService.getLocationById(2L)).thenReturn(Optional.of(location2));
         
@@ -213,7 +303,28 @@ class WeatherServiceUnitTest {
         verify(locationService).getLocationById(2L);
         verify(weatherClient, times(2)).getCurrentWeatherByCoordinates(anyDouble(), anyDouble(), anyString(), anyString());
         verify(weatherRepository, times(2)).save(any(WeatherSnapshot.class));
-        verify(locationService, times(2)).updateLastSyncTime(anyLong());
+        verify(locationService, times(2)).updateLastSyncTime(anyLong(), any());
+        // One transaction per location
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void syncDueLocations_SyncsOnlyDueLocations() {
+        Location location = new Location("London", "GB", 51.5074, -0.1278);
+        location.setId(1L);
+        
+        when(locationService.getLocationsNeedingSync()).thenReturn(List.of(location));
+        when(locationService.getLocationById(1L)).thenReturn(Optional.of(location));
+        when(weatherClient.getCurrentWeatherByCoordinates(anyDouble(), anyDouble(), anyString(), anyString()))
+            .thenReturn(createMockWeatherResponse());
+        when(weatherRepository.save(any(WeatherSnapshot.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        weatherService.syncDueLocations();
+
+        verify(locationService, never()).getAllLocations();
+        verify(weatherRepository).save(any(WeatherSnapshot.class));
+        verify(locationService).updateLastSyncTime(eq(1L), any(LocalDateTime.class));
     }
 
     @Test
@@ -223,7 +334,7 @@ class WeatherServiceUnitTest {
         Location location2 = new Location("Paris", "FR", 48.8566, 2.3522);
         location2.setId(2L);
         
-        when(locationService.getAllLocations()).thenReturn(java.util.List.of(location1, location2));
+        when(locationService.getAllLocations()).thenReturn(List.of(location1, location2));
         when(locationService.getLocationById(1L)).thenReturn(Optional.of(location1));
         when(locationService.getLocationById(2L)).thenReturn(Optional.of(location2));
         
@@ -243,7 +354,35 @@ class WeatherServiceUnitTest {
         verify(locationService).getLocationById(2L);
         verify(weatherClient, times(2)).getCurrentWeatherByCoordinates(anyDouble(), anyDouble(), anyString(), anyString());
         verify(weatherRepository, times(1)).save(any(WeatherSnapshot.class));
-        verify(locationService, times(1)).updateLastSyncTime(anyLong());
+        verify(locationService, times(1)).updateLastSyncTime(anyLong(), any());
+        // The failed location rolls back on its own; the first one stays committed
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void syncAllLocations_RecordsSyncMeters() {
+        Location location1 = new Location("London", "GB", 51.5074, -0.1278);
+        location1.setId(1L);
+        Location location2 = new Location("Paris", "FR", 48.8566, 2.3522);
+        location2.setId(2L);
+
+        when(locationService.getAllLocations()).thenReturn(List.of(location1, location2));
+        when(locationService.getLocationById(1L)).thenReturn(Optional.of(location1));
+        when(locationService.getLocationById(2L)).thenReturn(Optional.of(location2));
+        when(weatherClient.getCurrentWeatherByCoordinates(51.5074, -0.1278, testApiKey, "metric"))
+            .thenReturn(createMockWeatherResponse());
+        when(weatherClient.getCurrentWeatherByCoordinates(48.8566, 2.3522, testApiKey, "metric"))
+            .thenThrow(new RuntimeException("API Error"));
+        when(weatherRepository.save(any(WeatherSnapshot.class))).thenReturn(new WeatherSnapshot());
+
+        weatherService.syncAllLocations();
+
+        assertEquals(1, meterRegistry.get(WeatherMetrics.SYNC).tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(WeatherMetrics.SYNC).tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get(WeatherMetrics.SYNC_FAILURES).tag("error", "RuntimeException").counter().count());
+        assertTrue(meterRegistry.find(WeatherMetrics.SYNC_FAILURES).tagKeys("location").meters().isEmpty());
+        assertEquals(1, meterRegistry.get(WeatherMetrics.SYNC_ALL).tag("outcome", "success").timer().count());
     }
 
     private OpenWeatherResponse createMockWeatherResponse() {
@@ -260,7 +399,7 @@ class WeatherServiceUnitTest {
         weather.setMain("Clouds");
         weather.setDescription("scattered clouds");
         weather.setIcon("03d");
-        response.setWeather(java.util.List.of(weather));
+        response.setWeather(List.of(weather));
 
         OpenWeatherResponse.Wind wind = new OpenWeatherResponse.Wind();
         wind.setSpeed(5.2);
@@ -272,4 +411,11 @@ class WeatherServiceUnitTest {
         
         return response;
     }
+
+    private WeatherSnapshot snapshot(Long id, LocalDateTime timestamp) {
+        WeatherSnapshot snapshot = new WeatherSnapshot();
+        snapshot.setId(id);
+        snapshot.setTimestamp(timestamp);
+        return snapshot;
+    }
 }
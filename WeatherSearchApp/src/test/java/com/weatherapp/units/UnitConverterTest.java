@@ -0,0 +1,62 @@
+package com.weatherapp.units;
+
+import com.weatherapp.dto.WeatherSnapshotView;
+import com.weatherapp.entity.UserPreferences;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitConverterTest {
+
+    @Test
+    void convert_ImperialConvertsEachColumnAndKeepsNulls() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0);
+        List<WeatherSnapshotView> views = List.of(
+            new WeatherSnapshotView(1L, 0.0, 50, 1000.0, 10.0, 90, 10000, 2.0, "Clear", "clear sky", "01d", timestamp, timestamp),
+            new WeatherSnapshotView(2L, -40.0, null, null, null, null, null, null, null, null, null, timestamp, null));
+
+        List<WeatherSnapshotView> converted = UnitConverter.convert(views, UnitSystem.IMPERIAL);
+
+        assertEquals(32.0, converted.get(0).temperature());
+        assertEquals(22.37, converted.get(0).windSpeed());
+        assertEquals(29.53, converted.get(0).pressure());
+        assertEquals(50, converted.get(0).humidity());
+        assertEquals("Clear", converted.get(0).weatherMain());
+        assertEquals(-40.0, converted.get(1).temperature());
+        assertNull(converted.get(1).windSpeed());
+        assertNull(converted.get(1).pressure());
+        assertEquals(2L, converted.get(1).id());
+    }
+
+    @Test
+    void convert_StoredUnitsReturnSameList() {
+        List<WeatherSnapshotView> views = List.of(new WeatherSnapshotView(1L, 15.5, 60, 1012.0, 3.0, 0, 0, null,
+            null, null, null, LocalDateTime.now(), null));
+
+        assertSame(views, UnitConverter.convert(views, UnitSystem.METRIC));
+    }
+
+    @Test
+    void of_FallsBackToStoredUnitForUnknownPreferences() {
+        UserPreferences preferences = new UserPreferences("bob");
+        preferences.setTemperatureUnit("kelvin");
+        preferences.setWindSpeedUnit("furlongs");
+        preferences.setPressureUnit(null);
+
+        UnitSystem units = UnitSystem.of(preferences);
+
+        assertEquals(UnitSystem.TemperatureUnit.KELVIN, units.temperature());
+        assertEquals(UnitSystem.SpeedUnit.METERS_PER_SECOND, units.windSpeed());
+        assertEquals(UnitSystem.PressureUnit.HECTOPASCAL, units.pressure());
+        assertEquals(UnitSystem.STANDARD, units);
+    }
+
+    @Test
+    void parse_RejectsUnknownSystem() {
+        assertEquals(UnitSystem.IMPERIAL, UnitSystem.parse(" Imperial "));
+        assertThrows(IllegalArgumentException.class, () -> UnitSystem.parse("nautical"));
+    }
+}